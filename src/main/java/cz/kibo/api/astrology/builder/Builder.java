@@ -63,6 +63,96 @@ public abstract class Builder {
 		return planet;
 	}
 	
+	/**
+	 * Get house system
+	 * 
+	 * @param houses the name of the house system
+	 * @return The house system as a character given as an integer.
+	 * 
+	 * @see swisseph.SweConst
+	 */
+	protected int getHouseSystem(String houses) {
+		
+		int hsys = 0;
+		
+		switch (houses.trim()) {
+			case "Placidus":
+				hsys = SweConst.SE_HSYS_PLACIDUS;
+				break;
+			case "Koch":
+				hsys = SweConst.SE_HSYS_KOCH;
+		 		break;
+			case "Porphyrius":
+				hsys = SweConst.SE_HSYS_PORPHYRIUS;
+				break;	
+			case "Regiomontanus":
+				hsys = SweConst.SE_HSYS_REGIOMONTANUS;
+				break;	
+			case "Campanus":
+				hsys = SweConst.SE_HSYS_CAMPANUS;
+				break;	
+			case "Equal":
+				hsys = SweConst.SE_HSYS_EQUAL;
+				break;	
+			case "Vehlow Equal":
+				hsys = SweConst.SE_HSYS_VEHLOW;
+				break;	
+			case "Whole":
+				hsys = SweConst.SE_HSYS_WHOLE_SIGN;
+				break;
+			case "Axial Rotation":
+				hsys = SweConst.SE_HSYS_MERIDIAN;
+				break;	
+			case "Horizontal":
+				hsys = SweConst.SE_HSYS_HORIZONTAL;
+				break;		
+			case "Polich/Page":
+				hsys = SweConst.SE_HSYS_POLICH_PAGE;
+				break;	
+			case "Alcabitius":
+				hsys = SweConst.SE_HSYS_ALCABITIUS;
+				break;
+			case "Gauquelin sectors":
+				hsys = SweConst.SE_HSYS_GAUQUELIN_SECTORS;
+				break;	
+			case "Morinus":
+				hsys = SweConst.SE_HSYS_MORINUS;
+				break;											
+			default: 
+				throw new IllegalArgumentException( "Unknown houses system: " + houses);            	
+		}
+		
+		return hsys;
+	}
+	
+	/**
+	 * Get angle
+	 * 
+	 * @param angleName the name of the angle
+	 * @return The index of the angle in the ascmc array of the houses.
+	 * 
+	 * @see swisseph.SweConst
+	 */
+	protected int getAngle(String angleName) {
+		
+		int angle = 0;
+		
+		switch (angleName.trim()) {
+			case "Asc":		angle = SweConst.SE_ASC;
+							break;
+			case "MC":		angle = SweConst.SE_MC;
+							break;
+			case "ARMC":	angle = SweConst.SE_ARMC;
+							break;
+			case "Vertex":	angle = SweConst.SE_VERTEX;
+							break;
+			default: 
+				throw new IllegalArgumentException( "Unknown angle name: " + angleName);
+		}
+		
+		return angle;
+	}
+	
 	/**
 	 * Get iflags for sidereal mode
 	 * 
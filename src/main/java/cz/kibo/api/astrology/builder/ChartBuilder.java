@@ -0,0 +1,187 @@
+package cz.kibo.api.astrology.builder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.kibo.api.astrology.domain.Chart;
+import cz.kibo.api.astrology.domain.Coordinates;
+import swisseph.SweConst;
+
+/**
+ * The builder for the whole chart: planets, cusps, angles and ayanamsa in one pass.
+ *
+ *	Default:
+ *  - topocentric planets
+ *  - Placidus houses
+ *  - tropical zodiac type
+ *
+ * @example
+ * <pre>
+ *	// Tropical, Placidus, all planets.
+ *	Chart chart = new ChartBuilder(event)
+ * 					.planets()
+ * 					.topo(48.8555, 18.0488, 0)
+ * 					.build();
+ *	chart.getAscendant();
+ *	chart.toJSON();
+ *
+ *  // Sidereal, Koch, geocentric Sun and Moon.
+ *	Chart chart = new ChartBuilder(event)
+ * 					.planet("Sun, Moon")
+ * 					.houses("Koch")
+ * 					.topo(48.8555, 18.0488, 0)
+ * 					.geocentric()
+ *  				.zodiac("Fagan Bradley")
+ *					.build();
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ */
+public class ChartBuilder extends Builder{
+
+	private final LocalDateTime event;
+	private final List<Integer> planetsList = new ArrayList<Integer>();
+	private Coordinates coords;
+	private boolean topocentric = true;
+	private int houses = 'P'; // Placidus default
+	private int iflags = 0; // tropical default
+
+	/**
+	 * Creates Chart builder.
+	 *
+	 * @param event The date and the time of the event in Universal Time (UT).
+	 */
+	public ChartBuilder( LocalDateTime event ) {
+		this.event = event;
+	}
+
+	/**
+	 * Sets all planets
+	 *
+	 * @return
+	 */
+	public ChartBuilder planets() {
+		planetsList.clear();
+		planetsList.add(SweConst.SE_SUN);
+		planetsList.add(SweConst.SE_MOON);
+		planetsList.add(SweConst.SE_MERCURY);
+		planetsList.add(SweConst.SE_VENUS);
+		planetsList.add(SweConst.SE_MARS);
+		planetsList.add(SweConst.SE_JUPITER);
+		planetsList.add(SweConst.SE_SATURN);
+		planetsList.add(SweConst.SE_URANUS);
+		planetsList.add(SweConst.SE_NEPTUNE);
+		planetsList.add(SweConst.SE_PLUTO);
+		planetsList.add(SweConst.SE_CHIRON);
+		planetsList.add(SweConst.SE_MEAN_APOG);
+		planetsList.add(SweConst.SE_MEAN_NODE);
+		return this;
+	}
+
+	/**
+	 * Sets the planets of interest
+	 *
+	 * @param planets Comma separated string of planet names.
+	 * @return
+	 */
+	public ChartBuilder planet( String planets) {
+		planetsList.clear();
+
+		String[] interest = planets.split(",");
+		for(int i = 0, ln = interest.length; i < ln; i++ ) {
+			planetsList.add( super.getPlanet( interest[i] ));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Sets houses sytem
+	 *
+	 * @param houses the name of the house system
+	 * @return
+	 */
+	public ChartBuilder houses(String houses) {
+		this.houses = super.getHouseSystem(houses);
+		return this;
+	}
+
+	/**
+	 * Sets the place of the chart. The houses are calculated for this place, the planets are topocentric.
+	 *
+	 * @param lon The Longitude in degrees
+     * @param lat The Latitude in degrees
+     * @param geoalt The height above sea level in meters
+     * @return
+	 */
+	public ChartBuilder topo(double lon, double lat, double geoalt) {
+		this.coords = super.getCoordinates(lon, lat, geoalt);
+		return this;
+	}
+
+	/**
+	 * Sets geocentric planets. The houses are still calculated for the place of {@link #topo(double, double, double)}.
+	 *
+	 * @return
+	 */
+	public ChartBuilder geocentric() {
+		this.topocentric = false;
+		return this;
+	}
+
+	/**
+	 * Sets sidereal mode
+	 *
+	 * @param siderealMode sidereal mode
+	 * @return
+	 */
+	public ChartBuilder zodiac(String siderealMode) {
+		this.iflags = super.getSiderealFlags(siderealMode);
+		return this;
+	}
+
+	/**
+	 * Builds query
+	 *
+	 * @return
+	 */
+	public Chart build() {
+
+		if( this.coords == null ) {
+			throw new IllegalStateException( "The place of the chart is not set. Use topo(lon, lat, geoalt).");
+		}
+
+		return new Chart(this.event, this.planetsList, this.coords, this.houses, this.topocentric, this.iflags);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((event == null) ? 0 : event.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ChartBuilder other = (ChartBuilder) obj;
+		if (event == null) {
+			if (other.event != null)
+				return false;
+		} else if (!event.equals(other.event))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ChartBuilder [event=" + event + "]";
+	}
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import cz.kibo.api.astrology.domain.ChartCache;
 import cz.kibo.api.astrology.domain.Coordinates;
 import cz.kibo.api.astrology.domain.Cusp;
 import cz.kibo.api.astrology.domain.Planet;
@@ -31,6 +32,12 @@ import swisseph.SweConst;
  *  				.zodiac("Fagan Bradley")	
  *					.build();
  *	cuspEphemeris.toJSON();
+ * 
+ *  // Repeated requests answered from the cache
+ *	Cusp cuspEphemeris = new CuspBuilder(event)
+ * 					.topo(48.8555, 18.0488, 0)
+ *  				.cache(cache)
+ *					.build();
  * </pre>
  * 
  * @author Tomas Jurman tomasjurman@gmail.com
@@ -41,6 +48,7 @@ public class CuspBuilder extends Builder{
 	private Coordinates coords;
 	private int houses = 'P'; // Placidus default
 	private int iflags = 0; // tropical default
+	private ChartCache cache;
 
 	/**
 	 * Creates Cusp builder. 
@@ -58,54 +66,7 @@ public class CuspBuilder extends Builder{
 	 * @return
 	 */
 	public CuspBuilder houses(String houses) {
-		
-		switch (houses.trim()) {
-			case "Placidus":
-				this.houses = SweConst.SE_HSYS_PLACIDUS;
-				break;
-			case "Koch":
-				this.houses = SweConst.SE_HSYS_KOCH;
-		 		break;
-			case "Porphyrius":
-				this.houses = SweConst.SE_HSYS_PORPHYRIUS;
-				break;	
-			case "Regiomontanus":
-				this.houses = SweConst.SE_HSYS_REGIOMONTANUS;
-				break;	
-			case "Campanus":
-				this.houses = SweConst.SE_HSYS_CAMPANUS;
-				break;	
-			case "Equal":
-				this.houses = SweConst.SE_HSYS_EQUAL;
-				break;	
-			case "Vehlow Equal":
-				this.houses = SweConst.SE_HSYS_VEHLOW;
-				break;	
-			case "Whole":
-				this.houses = SweConst.SE_HSYS_WHOLE_SIGN;
-				break;
-			case "Axial Rotation":
-				this.houses = SweConst.SE_HSYS_MERIDIAN;
-				break;	
-			case "Horizontal":
-				this.houses = SweConst.SE_HSYS_HORIZONTAL;
-				break;		
-			case "Polich/Page":
-				this.houses = SweConst.SE_HSYS_POLICH_PAGE;
-				break;	
-			case "Alcabitius":
-				this.houses = SweConst.SE_HSYS_ALCABITIUS;
-				break;
-			case "Gauquelin sectors":
-				this.houses = SweConst.SE_HSYS_GAUQUELIN_SECTORS;
-				break;	
-			case "Morinus":
-				this.houses = SweConst.SE_HSYS_MORINUS;
-				break;											
-			default: 
-				throw new IllegalArgumentException( "Unknown houses system: " + houses);            	
-	}		
-		
+		this.houses = super.getHouseSystem(houses);
 		return this;
 	}
 		
@@ -133,12 +94,26 @@ public class CuspBuilder extends Builder{
 		return this;
 	}	
 	
+	/**
+	 * Sets the cache of calculated charts. 
+	 * 
+	 * @param cache The cache shared by the builders.
+	 * @return
+	 */
+	public CuspBuilder cache(ChartCache cache) {
+		this.cache = cache;
+		return this;
+	}
+	
 	/**
 	 * Builds query
 	 * 
 	 * @return
 	 */
-	public Cusp build() {							
+	public Cusp build() {
+		if( this.cache != null ) {
+			return this.cache.getCusp(this.event, this.coords, this.houses, this.iflags);
+		}
 		return new Cusp(this.event, this.coords, this.houses, this.iflags);
 	}
 
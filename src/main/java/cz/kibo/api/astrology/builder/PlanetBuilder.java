@@ -1,11 +1,16 @@
 package cz.kibo.api.astrology.builder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import cz.kibo.api.astrology.domain.ChartCache;
 import cz.kibo.api.astrology.domain.Coordinates;
 import cz.kibo.api.astrology.domain.Planet;
+import cz.kibo.api.astrology.domain.PlanetBatch;
+import cz.kibo.api.astrology.domain.PlanetSeries;
 import swisseph.SweConst;
 
 /**
@@ -30,6 +35,24 @@ import swisseph.SweConst;
  *  				.zodiac("Fagan Bradley")	
  *					.build();
  *	planetEphemeris.toJSON();
+ * 
+ *  // Batch of events, geocentric, all planets.
+ *	List&lt;Planet&gt; charts = new PlanetBuilder(events)
+ * 					.planets()
+ *					.buildAll();
+ * 
+ *  // The Moon every minute during one day.
+ *	for( Planet moon : new PlanetBuilder(event)
+ * 					.planet("Moon")
+ *					.range(event.plusDays(1), Duration.ofMinutes(1)) ) {
+ *		moon.toJSON();
+ *	}
+ * 
+ *  // Repeated requests answered from the cache
+ *	Planet planetEphemeris = new PlanetBuilder(event)
+ * 					.planets()
+ *  				.cache(cache)
+ *					.build();
  * </pre>
  * 
  * @author Tomas Jurman tomasjurman@gmail.com
@@ -37,9 +60,12 @@ import swisseph.SweConst;
 public class PlanetBuilder extends Builder{
 		
 	private final LocalDateTime event;
+	private final List<LocalDateTime> events;
 	private final List<Integer> planetsList = new ArrayList<Integer>();
 	private Coordinates coords;
+	private List<Coordinates> eventsCoords;
 	private int iflags = 0; // tropical default
+	private ChartCache cache;
 		
 	/**
 	 * Creates Planet builder. 
@@ -48,6 +74,17 @@ public class PlanetBuilder extends Builder{
 	 */
 	public PlanetBuilder( LocalDateTime event ) {
 		this.event = event;
+		this.events = Collections.singletonList(event);
+	}
+	
+	/**
+	 * Creates Planet builder for a batch of events. 
+	 * 
+	 * @param events The dates and the times of the events in Universal Time (UT).
+	 */
+	public PlanetBuilder( List<LocalDateTime> events ) {
+		this.event = null;
+		this.events = events;
 	}
 	
 	/**
@@ -100,6 +137,19 @@ public class PlanetBuilder extends Builder{
 	 */
 	public PlanetBuilder topo(double lon, double lat, double geoalt) {
 		this.coords = super.getCoordinates(lon, lat, geoalt);
+		this.eventsCoords = null;
+		return this;
+	}
+	
+	/**
+	 * Sets topocentric cordinate system for each event of the batch.
+	 * 
+	 * @param coords The coordinates in the order of the events.
+	 * @return	
+	 */
+	public PlanetBuilder topo(List<Coordinates> coords) {
+		this.coords = null;
+		this.eventsCoords = coords;
 		return this;
 	}
 		
@@ -114,6 +164,17 @@ public class PlanetBuilder extends Builder{
 		return this;
 	}
 			
+	/**
+	 * Sets the cache of calculated charts. Used by {@link #build()}.
+	 * 
+	 * @param cache The cache shared by the builders.
+	 * @return
+	 */
+	public PlanetBuilder cache(ChartCache cache) {
+		this.cache = cache;
+		return this;
+	}
+			
 	/**
 	 * Builds query
 	 * 
@@ -121,6 +182,14 @@ public class PlanetBuilder extends Builder{
 	 */
 	public Planet build() {
 		
+		if( this.event == null ) {
+			throw new IllegalStateException( "The builder was created for a batch of events. Use buildAll().");
+		}
+		
+		if( this.cache != null ) {
+			return this.cache.getPlanet(this.event, this.planetsList, this.coords, this.iflags);
+		}
+		
 		Planet ephemeris;
 		
 		if( this.coords == null ) {
@@ -131,12 +200,49 @@ public class PlanetBuilder extends Builder{
 				
 		return ephemeris;
 	}
+	
+	/**
+	 * Builds query for all events. One engine, one flag resolution and one array of planets are shared by the whole batch.
+	 * 
+	 * @return Charts in the order of the events.
+	 */
+	public List<Planet> buildAll() {
+		
+		PlanetBatch batch;
+		
+		if( this.eventsCoords != null ) {
+			batch = new PlanetBatch(this.events, this.planetsList, this.eventsCoords, this.iflags);
+		}else if( this.coords != null ) {
+			batch = new PlanetBatch(this.events, this.planetsList, Collections.nCopies(this.events.size(), this.coords), this.iflags);
+		}else {
+			batch = new PlanetBatch(this.events, this.planetsList, this.iflags);
+		}
+		
+		return batch.getCharts();
+	}
+	
+	/**
+	 * Builds time series from the event of this builder up to the end date. Positions are calculated lazily in time order.
+	 * 
+	 * @param end The last event in Universal Time (UT), inclusive.
+	 * @param step The positive step between two events.
+	 * @return
+	 */
+	public PlanetSeries range(LocalDateTime end, Duration step) {
+		
+		if( this.event == null ) {
+			throw new IllegalStateException( "The builder was created for a batch of events. The range needs a start event.");
+		}
+		
+		return new PlanetSeries(this.event, end, step, this.planetsList, this.coords, this.iflags);
+	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((event == null) ? 0 : event.hashCode());
+		result = prime * result + ((events == null) ? 0 : events.hashCode());
 		return result;
 	}
 
@@ -154,6 +260,11 @@ public class PlanetBuilder extends Builder{
 				return false;
 		} else if (!event.equals(other.event))
 			return false;
+		if (events == null) {
+			if (other.events != null)
+				return false;
+		} else if (!events.equals(other.events))
+			return false;
 		return true;
 	}
 
@@ -4,9 +4,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import cz.kibo.api.astrology.domain.AngleTransitBatch;
 import cz.kibo.api.astrology.domain.Coordinates;
 import cz.kibo.api.astrology.domain.Planet;
 import cz.kibo.api.astrology.domain.Transit;
+import cz.kibo.api.astrology.domain.TransitHit;
+import cz.kibo.api.astrology.domain.TransitScanner;
+import cz.kibo.api.astrology.domain.TransitSeries;
 
 /**
  * The builder for transit positions.
@@ -35,6 +39,25 @@ import cz.kibo.api.astrology.domain.Transit;
  *					.build();
  *
  *	System.out.println( transit.getTransit() );
+ *
+ *  // All Saturn returns to the natal Sun in 30 years.
+ *	for( Transit hit : new TransitBuilder(event)
+ * 					.planet("Saturn")
+ * 					.toPoint(natalSun)
+ * 					.range(event.plusYears(30)) ) {
+ *		System.out.println( hit.getDate() );
+ *	}
+ *
+ *  // Conjunctions, squares and oppositions of Mars to the natal points in one year.
+ *	List&lt;TransitHit&gt; hits = new TransitBuilder(event)
+ * 					.planet("Mars")
+ * 					.scan(event.plusYears(1), natalPoints, 0.0, 90.0, 180.0);
+ *
+ *  // When does Venus rise in each city.
+ *	double[] rising = new TransitBuilder(event)
+ * 					.planet("Venus")
+ * 					.angle("Asc", cities)
+ * 					.calculate();
  * </pre>
  * 
  * @author Tomas Jurman tomasjurman@gmail.com
@@ -175,6 +198,53 @@ public class TransitBuilder extends Builder{
 		return trasit;
 	}
 
+	/**
+	 * Builds all transits from the event of this builder up to the end date. Transits are found lazily in time order.
+	 * If the end is before the event, the transits are searched backwards and the direction of {@link #backwards(boolean)} is ignored.
+	 * 
+	 * @param end The end date in Universal Time (UT), inclusive.
+	 * @return
+	 */
+	public TransitSeries range(LocalDateTime end) {
+		
+		if(this.point == null) { // to planet
+			return new TransitSeries(this.event, end, this.planet, this.planet2, this.aspect, this.coords, this.iflags);
+		}
+		
+		return new TransitSeries(this.event, end, this.planet, (this.point + this.aspect), this.coords, this.iflags);
+	}
+
+	/**
+	 * Finds all transits of the planet to many points with many aspects in one walk, from the event of this builder up to the end date.
+	 * The point and the aspect of {@link #toPoint(Double)}, {@link #toPlanet(String)} and {@link #aspect(Double)} are not used.
+	 * 
+	 * @param end The end date in Universal Time (UT), inclusive.
+	 * @param points The longitudes of the transited points in degrees.
+	 * @param aspects The aspect angles in degrees, from 0 to 180. Each aspect except 0 and 180 is searched on both sides of the point.
+	 * @return Returns the transits sorted by date.
+	 */
+	public List<TransitHit> scan(LocalDateTime end, double[] points, double... aspects) {
+		return new TransitScanner(this.planet, points, aspects, this.coords, this.iflags).scan(this.event, end);
+	}
+
+	/**
+	 * Finds for each location the first transit of the angle over the planet of this builder with the aspect,
+	 * or over the point if it is set. All locations share one calculation of the sidereal time.
+	 * The direction of {@link #backwards(boolean)} and the coordinates of {@link #topo(double, double, double)} are not used.
+	 * 
+	 * @param angleName The name of the angle: Asc, MC, ARMC or Vertex.
+	 * @param locations The locations.
+	 * @return
+	 */
+	public AngleTransitBatch angle(String angleName, List<Coordinates> locations) {
+		
+		if(this.point == null) { // to planet
+			return new AngleTransitBatch(this.event, locations, super.getAngle(angleName), this.planet, this.aspect, this.iflags);
+		}
+		
+		return new AngleTransitBatch(this.event, locations, super.getAngle(angleName), (this.point + this.aspect), this.iflags);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,278 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import swisseph.SweConst;
+import swisseph.SweDate;
+import swisseph.SwissEph;
+
+/**
+ * Transits of an angle of the chart (Ascendant, MC, ...) over a planet or a point for many locations.
+ *
+ * The angles of a location depend on the time only through the sidereal time, the obliquity of the ecliptic
+ * and the transited longitude, and none of them depends on the location. They are sampled once for all locations
+ * for one day after the event. The search of each location then works on the interpolated samples only and calculates
+ * the angles from the local ARMC, like {@link swisseph.TCHouses} does, without any further ephemeris calculation.
+ *
+ * The planet is calculated in the geocentric coordinate system. The locations can be calculated in parallel by
+ * {@link #calculate(ChartExecutor)}. All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	// When does Venus rise, for each city.
+ *	double[] rising = new AngleTransitBatch(event, cities, SweConst.SE_ASC, SweConst.SE_VENUS, 0.0, 0).calculate(executor);
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class AngleTransitBatch extends Ephemeris{
+
+	// Accuracy of the transit, about 0.01 second.
+	private static final double TIME_PRECISION = 1e-7;
+	// Ten minutes. The angles move less than 180 degrees between two samples out of the polar circles.
+	private static final double SAMPLE_STEP = 1.0 / 144;
+	// One sidereal day and the motion of the Moon.
+	private static final double SEARCH_DAYS = 1.1;
+
+	private final LocalDateTime event;
+	private final List<Coordinates> locations;
+	private final int angle;
+	private final Integer planet;
+	private final double offset;
+	private final int iflag;
+
+	/**
+	 * Transits of the angle over the planet.
+	 *
+	 * @param event The start date in Universal Time (UT).
+	 * @param locations The locations, the geoalt is not used.
+	 * @param angle The angle: SweConst.SE_ASC, SweConst.SE_MC, SweConst.SE_ARMC, SweConst.SE_VERTEX, SweConst.SE_EQUASC, SweConst.SE_COASC1, SweConst.SE_COASC2 or SweConst.SE_POLASC.
+	 * @param planet The transited planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param aspect The aspect of the angle to the planet in degrees.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public AngleTransitBatch( LocalDateTime event, List<Coordinates> locations, int angle, Integer planet, double aspect, int iflag) {
+		super();
+
+		if( angle < SweConst.SE_ASC || angle >= SweConst.SE_NASCMC ) {
+			throw new IllegalArgumentException( "Unknown angle: " + angle);
+		}
+
+		this.event = event;
+		this.locations = locations;
+		this.angle = angle;
+		this.planet = planet;
+		this.offset = aspect;
+		this.iflag = iflag;
+	}
+
+	/**
+	 * Transits of the angle over the point in zodiac.
+	 *
+	 * @param event The start date in Universal Time (UT).
+	 * @param locations The locations, the geoalt is not used.
+	 * @param angle The angle: SweConst.SE_ASC, SweConst.SE_MC, SweConst.SE_ARMC, SweConst.SE_VERTEX, SweConst.SE_EQUASC, SweConst.SE_COASC1, SweConst.SE_COASC2 or SweConst.SE_POLASC.
+	 * @param point The desired transit degree.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public AngleTransitBatch( LocalDateTime event, List<Coordinates> locations, int angle, Double point, int iflag) {
+		this( event, locations, angle, (Integer)null, point, iflag);
+	}
+
+	/**
+	 * Finds the first transit after the event for each location.
+	 *
+	 * @return Returns the Julian days of the transits in Universal Time (UT), in the order of the locations.
+	 * NaN for a location where the angle does not reach the longitude within one day, e.g. in the polar circle.
+	 */
+	public double[] calculate() {
+		double[] result = new double[this.locations.size()];
+
+		SwissEph sw = borrowEngine();
+		try {
+			Search search = new Search(sw, samples(sw));
+			for(int i = 0; i < result.length; i++) {
+				result[i] = search.find( this.locations.get(i) );
+			}
+		} finally {
+			releaseEngine(sw);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first transit after the event for each location in parallel. The samples are calculated once
+	 * and shared by all threads, the locations are cut into four chunks per thread of the executor.
+	 *
+	 * @param executor The executor running the chunks.
+	 * @return Returns the Julian days of the transits in Universal Time (UT), in the order of the locations.
+	 * NaN for a location where the angle does not reach the longitude within one day, e.g. in the polar circle.
+	 */
+	public double[] calculate(ChartExecutor executor) {
+		int size = this.locations.size();
+		double[] result = new double[size];
+
+		Samples samples;
+		SwissEph sw = borrowEngine();
+		try {
+			samples = samples(sw);
+		} finally {
+			releaseEngine(sw);
+		}
+
+		// Every range writes its own slots of the result.
+		executor.calculateRanges(size, (from, to) -> {
+			SwissEph engine = borrowEngine();
+			try {
+				Search search = new Search(engine, samples);
+				for(int i = from; i < to; i++) {
+					result[i] = search.find( this.locations.get(i) );
+				}
+			} finally {
+				releaseEngine(engine);
+			}
+		});
+
+		return result;
+	}
+
+	public LocalDateTime getEvent() {
+		return this.event;
+	}
+
+	public int getAngle() {
+		return this.angle;
+	}
+
+	public int size() {
+		return this.locations.size();
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + this.event + ", angle: " + this.angle + ", locations: " + this.locations.size() + " ]";
+	}
+
+	private Samples samples(SwissEph sw) {
+		int flags = SweConst.SEFLG_SWIEPH;
+		boolean sidereal = (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL;
+		if( sidereal ) {
+			sw.swe_set_sid_mode( iflag & 0x00FF );
+			flags |= SweConst.SEFLG_SIDEREAL;
+		}
+
+		int count = (int)Math.ceil(SEARCH_DAYS / SAMPLE_STEP) + 1;
+		Samples samples = new Samples(getJulianDay(event), count);
+		double[] cusps = new double[13];
+		double[] ascmc = new double[10];
+		double[] xx = new double[6];
+		StringBuffer serr = new StringBuffer();
+
+		for(int k = 0; k < count; k++) {
+			double jd = samples.jdStart + k * SAMPLE_STEP;
+			double jde = jd + SweDate.getDeltaT(jd);
+
+			// ARMC of Greenwich, the ARMC of a location is shifted by its longitude.
+			sw.swe_houses(jd, 0, 0, 0, SweConst.SE_HSYS_EQUAL, cusps, ascmc);
+			double armc = ascmc[SweConst.SE_ARMC];
+
+			if( sw.swe_calc(jde, SweConst.SE_ECL_NUT, 0, xx, serr) < 0 ) {
+				throw new IllegalArgumentException( "Calculation of obliquity failed: " + serr);
+			}
+			double eps = xx[0];
+			double nutation = xx[2];
+
+			double target = offset;
+			if( planet != null ) {
+				if( sw.swe_calc_ut(jd, planet, flags, xx, serr) < 0 ) {
+					throw new IllegalArgumentException( "Calculation of planet " + planet + " failed: " + serr);
+				}
+				target += xx[0];
+			}
+			// The sidereal angles are the tropical angles without the ayanamsa and the nutation.
+			if( sidereal ) {
+				target += sw.swe_get_ayanamsa(jde) + nutation;
+			}
+
+			samples.eps[k] = eps;
+			// Unwrapped, so the samples can be interpolated.
+			samples.armc[k] = k == 0 ? armc : samples.armc[k - 1] + Angles.signed(armc - samples.armc[k - 1]);
+			samples.target[k] = k == 0 ? target : samples.target[k - 1] + Angles.signed(target - samples.target[k - 1]);
+		}
+
+		return samples;
+	}
+
+	// Shared values of all locations, read only after they are calculated.
+	private static class Samples {
+
+		final double jdStart;
+		final double[] armc;
+		final double[] eps;
+		final double[] target;
+
+		Samples(double jdStart, int count) {
+			this.jdStart = jdStart;
+			this.armc = new double[count];
+			this.eps = new double[count];
+			this.target = new double[count];
+		}
+	}
+
+	private class Search {
+
+		private final SwissEph sw;
+		private final Samples samples;
+		private final double[] cusps = new double[13];
+		private final double[] ascmc = new double[10];
+
+		Search(SwissEph sw, Samples samples) {
+			this.sw = sw;
+			this.samples = samples;
+		}
+
+		double find(Coordinates location) {
+			double lon = location.getLongitude();
+			double lat = location.getLatitude();
+
+			double last = value(0, 0, lon, lat);
+			if( last == 0 ) {
+				return samples.jdStart;
+			}
+
+			for(int k = 1; k < samples.armc.length; k++) {
+				double next = value(k, 0, lon, lat);
+				if( (last < 0) != (next < 0) && Math.abs(next - last) < 180 ) {
+					return refine(k - 1, last, next, lon, lat);
+				}
+				last = next;
+			}
+			return Double.NaN;
+		}
+
+		// False position on the fraction of the sample step.
+		private double refine(int k, double va, double vb, double lon, double lat) {
+			double t = RootFinder.falsePosition(fraction -> value(k, fraction, lon, lat), 0, va, 1, vb, TIME_PRECISION / SAMPLE_STEP);
+			return samples.jdStart + (k + t) * SAMPLE_STEP;
+		}
+
+		// Distance of the angle from the target at the fraction of the sample step.
+		private double value(int k, double fraction, double lon, double lat) {
+			double armc = samples.armc[k];
+			double eps = samples.eps[k];
+			double target = samples.target[k];
+			if( fraction != 0 ) {
+				armc += (samples.armc[k + 1] - armc) * fraction;
+				eps += (samples.eps[k + 1] - eps) * fraction;
+				target += (samples.target[k + 1] - target) * fraction;
+			}
+
+			sw.swe_houses_armc(armc + lon, lat, eps, SweConst.SE_HSYS_EQUAL, cusps, ascmc);
+			return Angles.signed(ascmc[angle] - target);
+		}
+	}
+}
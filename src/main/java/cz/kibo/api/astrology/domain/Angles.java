@@ -0,0 +1,29 @@
+package cz.kibo.api.astrology.domain;
+
+/**
+ * Normalization of angles in degrees, shared by the calendars, the scanners and the batches.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+final class Angles {
+
+	private Angles() {
+	}
+
+	/**
+	 * @param angle The angle in degrees.
+	 * @return Returns the signed angle from -180 to 180, for example the distance of a planet from a point.
+	 */
+	static double signed(double angle) {
+		return angle - 360.0 * Math.floor( (angle + 180.0) / 360.0 );
+	}
+
+	/**
+	 * @param angle The angle in degrees.
+	 * @return Returns the angle from 0 to 360, for example a longitude.
+	 */
+	static double positive(double angle) {
+		return angle - 360.0 * Math.floor( angle / 360.0 );
+	}
+}
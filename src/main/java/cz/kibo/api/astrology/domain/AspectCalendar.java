@@ -0,0 +1,338 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Calendar of all exact aspects between pairs of bodies in a date range.
+ *
+ * All bodies are calculated once per step and the elongation of every pair is checked for crossings of the aspect angles
+ * between two steps. A station of the elongation (the relative speed changes its sign, for example at the greatest
+ * elongation of Mercury) is located first, so the repeated passes of a retrograde loop are all found. A bracketed
+ * aspect is refined by Newton iterations on the elongation and the relative speed.
+ *
+ * The events are found lazily, step by step, and come in time order, so the range may span decades.
+ * All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	for( AspectEvent event : new AspectCalendar(start, start.plusYears(1), bodies, new double[] {0, 60, 90, 120, 180}, null, 0) ) {
+ *		System.out.println( event );
+ *	}
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class AspectCalendar extends Ephemeris implements Iterable<AspectEvent>{
+
+	// Accuracy of the exact aspect, about 0.01 second.
+	private static final double TIME_PRECISION = 1e-7;
+	// The station splits the step only, it does not need the full precision.
+	private static final double STATION_PRECISION = 1e-4;
+
+	private final LocalDateTime start;
+	private final LocalDateTime end;
+	private final int[] bodies;
+	private final double[] targets;
+	private final Coordinates coords;
+	private final int iflag;
+	private final double step;
+	// True if only the pairs of the first body are searched.
+	private final boolean firstOnly;
+
+	/**
+	 * Creates calendar with the step of a quarter of a day if the Moon is one of the bodies, otherwise one day.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param bodies List of the bodies. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param aspects The aspect angles in degrees, from 0 to 180. Each aspect except 0 and 180 is searched on both sides.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public AspectCalendar( LocalDateTime start, LocalDateTime end, List<Integer> bodies, double[] aspects, Coordinates coords, int iflag) {
+		this( start, end, bodies, aspects, coords, iflag, bodies.contains(SweConst.SE_MOON) ? 0.25 : 1.0);
+	}
+
+	/**
+	 * Creates calendar.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param bodies List of the bodies. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param aspects The aspect angles in degrees, from 0 to 180. Each aspect except 0 and 180 is searched on both sides.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @param step The step of the walk in days. The elongation of a pair must change less than 180 degrees and stop at most once within one step.
+	 * @see swisseph.SweConst
+	 */
+	public AspectCalendar( LocalDateTime start, LocalDateTime end, List<Integer> bodies, double[] aspects, Coordinates coords, int iflag, double step) {
+		this( start, end, bodies, aspects, coords, iflag, step, false);
+	}
+
+	/**
+	 * Creates calendar of the aspects of one body to the others only, for example the aspects of the Moon to the planets.
+	 * The aspects between the others are not searched. The step is a quarter of a day if the Moon is one of the bodies, otherwise one day.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param body The body of all pairs. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param others List of the other bodies.
+	 * @param aspects The aspect angles in degrees, from 0 to 180. Each aspect except 0 and 180 is searched on both sides.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public AspectCalendar( LocalDateTime start, LocalDateTime end, int body, List<Integer> others, double[] aspects, Coordinates coords, int iflag) {
+		this( start, end, withFirst(body, others), aspects, coords, iflag, body == SweConst.SE_MOON || others.contains(SweConst.SE_MOON) ? 0.25 : 1.0, true);
+	}
+
+	private AspectCalendar( LocalDateTime start, LocalDateTime end, List<Integer> bodies, double[] aspects, Coordinates coords, int iflag, double step, boolean firstOnly) {
+		super();
+
+		if( end.isBefore(start) ) {
+			throw new IllegalArgumentException( "End " + end + " is before start " + start);
+		}
+		if( bodies.size() < 2 ) {
+			throw new IllegalArgumentException( "At least two bodies are needed: " + bodies);
+		}
+		if( !(step > 0) ) {
+			throw new IllegalArgumentException( "Step must be positive: " + step);
+		}
+
+		List<Double> list = new ArrayList<Double>();
+		for(double aspect : aspects) {
+			if( aspect < 0 || aspect > 180 ) {
+				throw new IllegalArgumentException( "Aspect angle must be from 0 to 180: " + aspect);
+			}
+			list.add( aspect );
+			if( aspect != 0 && aspect != 180 ) {
+				list.add( -aspect );
+			}
+		}
+
+		this.start = start;
+		this.end = end;
+		this.bodies = Planet.planetIds(bodies);
+		this.targets = new double[list.size()];
+		for(int i = 0, ln = list.size(); i < ln; i++) {
+			this.targets[i] = list.get(i);
+		}
+		this.coords = coords;
+		this.iflag = iflag;
+		this.step = step;
+		this.firstOnly = firstOnly;
+	}
+
+	/**
+	 * Returns the iterator over the events. No engine is held between two steps, so the walk may stop at any time.
+	 */
+	@Override
+	public Iterator<AspectEvent> iterator() {
+		return new CalendarIterator();
+	}
+
+	public LocalDateTime getStart() {
+		return this.start;
+	}
+
+	public LocalDateTime getEnd() {
+		return this.end;
+	}
+
+	public double getStep() {
+		return this.step;
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + this.start + " - " + this.end + ", bodies: " + this.bodies.length + ", step: " + this.step + " ]";
+	}
+
+	private static List<Integer> withFirst(int body, List<Integer> others) {
+		List<Integer> bodies = new ArrayList<Integer>(others.size() + 1);
+		bodies.add( body );
+		bodies.addAll( others );
+		return bodies;
+	}
+
+	// The nodes move backwards normally, their retrograde motion does not count.
+	private static boolean retrograde(int body, double speed) {
+		return speed < 0 && body != SweConst.SE_MEAN_NODE && body != SweConst.SE_TRUE_NODE;
+	}
+
+	private class CalendarIterator implements Iterator<AspectEvent> {
+
+		private final double jdEnd = getJulianDay(end);
+		private final double[] xx = new double[6];
+		private final StringBuffer serr = new StringBuffer();
+		private final List<AspectEvent> pending = new ArrayList<AspectEvent>();
+		private int index = 0;
+		private double jd = getJulianDay(start);
+		private double[] lon = new double[bodies.length];
+		private double[] speed = new double[bodies.length];
+		private double[] nextLon = new double[bodies.length];
+		private double[] nextSpeed = new double[bodies.length];
+		private boolean started = false;
+		private SwissEph sw;
+		private int flags;
+		private boolean done = false;
+
+		// Elongation, relative speed and the speeds of both bodies of the last calculated pair.
+		private double elongation;
+		private double relativeSpeed;
+		private double speed1;
+		private double speed2;
+
+		@Override
+		public boolean hasNext() {
+			while( index == pending.size() && !done ) {
+				open();
+				try {
+					step();
+				} catch (RuntimeException e) {
+					done = true;
+					throw e;
+				} finally {
+					close();
+				}
+			}
+			return index < pending.size();
+		}
+
+		@Override
+		public AspectEvent next() {
+			if( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			return pending.get(index++);
+		}
+
+		private void step() {
+			if( !started ) {
+				calcAll(jd, lon, speed);
+				started = true;
+			}
+
+			pending.clear();
+			index = 0;
+
+			if( jd >= jdEnd ) {
+				done = true;
+				return;
+			}
+
+			double next = Math.min(jd + step, jdEnd);
+			calcAll(next, nextLon, nextSpeed);
+
+			for(int i = 0, ln = firstOnly ? 1 : bodies.length; i < ln; i++) {
+				for(int j = i + 1; j < bodies.length; j++) {
+					double e1 = Angles.signed(lon[j] - lon[i]);
+					double r1 = speed[j] - speed[i];
+					double e2 = Angles.signed(nextLon[j] - nextLon[i]);
+					double r2 = nextSpeed[j] - nextSpeed[i];
+
+					if( (r1 < 0) != (r2 < 0) ) {
+						// The elongation stops within the step, both sides are monotonic.
+						double station = station(i, j, jd, r1, next, r2);
+						double e = elongation;
+						crossings(i, j, jd, e1, station, e);
+						crossings(i, j, station, e, next, e2);
+					} else {
+						crossings(i, j, jd, e1, next, e2);
+					}
+				}
+			}
+
+			Collections.sort(pending);
+
+			double[] swap = lon;
+			lon = nextLon;
+			nextLon = swap;
+			swap = speed;
+			speed = nextSpeed;
+			nextSpeed = swap;
+			jd = next;
+		}
+
+		private void calcAll(double jd, double[] lon, double[] speed) {
+			for(int i = 0; i < bodies.length; i++) {
+				calc(jd, bodies[i]);
+				lon[i] = xx[0];
+				speed[i] = xx[3];
+			}
+		}
+
+		private void calc(double jd, int body) {
+			if( sw.swe_calc_ut(jd, body, flags, xx, serr) < 0 ) {
+				throw new IllegalArgumentException( "Calculation of body " + body + " failed: " + serr);
+			}
+		}
+
+		private void calcPair(double jd, int i, int j, double target) {
+			calc(jd, bodies[i]);
+			double lon1 = xx[0];
+			speed1 = xx[3];
+			calc(jd, bodies[j]);
+			speed2 = xx[3];
+			elongation = Angles.signed(Angles.signed(xx[0] - lon1) - target);
+			relativeSpeed = speed2 - speed1;
+		}
+
+		// False position on the relative speed. Leaves the elongation of the station in the field.
+		private double station(int i, int j, double a, double ra, double b, double rb) {
+			return RootFinder.falsePosition(t -> {
+				calcPair(t, i, j, 0);
+				return relativeSpeed;
+			}, a, ra, b, rb, STATION_PRECISION);
+		}
+
+		// The elongation is monotonic between the dates.
+		private void crossings(int i, int j, double from, double fromElongation, double to, double toElongation) {
+			for(double target : targets) {
+				double d1 = Angles.signed(fromElongation - target);
+				double d2 = Angles.signed(toElongation - target);
+
+				if( (d1 < 0) != (d2 < 0) && Math.abs(d2 - d1) < 180 ) {
+					double exact = RootFinder.newton(t -> {
+						calcPair(t, i, j, target);
+						return elongation;
+					}, () -> relativeSpeed, from, d1, to, d2, TIME_PRECISION);
+					calcPair(exact, i, j, target);
+					pending.add( new AspectEvent(bodies[i], bodies[j], target, exact,
+							retrograde(bodies[i], speed1) || retrograde(bodies[j], speed2)) );
+				}
+			}
+		}
+
+		// The engine is borrowed for one step only.
+		private void open() {
+			sw = borrowEngine();
+			flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+
+			if( coords != null ) {
+				sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+				flags |= SweConst.SEFLG_TOPOCTR;
+			}
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+		}
+
+		private void close() {
+			releaseEngine(sw);
+			sw = null;
+		}
+	}
+}
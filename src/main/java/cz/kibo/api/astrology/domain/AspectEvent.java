@@ -0,0 +1,122 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import swisseph.SweDate;
+
+/**
+ * One exact aspect between two bodies found by {@link AspectCalendar}.
+ *
+ * All time events are in Universal Time (UT).
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class AspectEvent implements Comparable<AspectEvent>{
+
+	private final int body1;
+	private final int body2;
+	private final double aspect;
+	private final double julianDay;
+	private final boolean retrograde;
+
+	AspectEvent(int body1, int body2, double aspect, double julianDay, boolean retrograde) {
+		this.body1 = body1;
+		this.body2 = body2;
+		this.aspect = aspect;
+		this.julianDay = julianDay;
+		this.retrograde = retrograde;
+	}
+
+	/**
+	 * @return Returns the first body. Constants of planets are in {@link swisseph.SweConst}.
+	 */
+	public int getBody1() {
+		return this.body1;
+	}
+
+	/**
+	 * @return Returns the second body. Constants of planets are in {@link swisseph.SweConst}.
+	 */
+	public int getBody2() {
+		return this.body2;
+	}
+
+	/**
+	 * @return Returns the signed aspect angle in degrees: the longitude of the second body minus the longitude of the first body.
+	 */
+	public double getAspect() {
+		return this.aspect;
+	}
+
+	/**
+	 * @return Returns the Julian day of the exact aspect in Universal Time (UT).
+	 */
+	public double getJulianDay() {
+		return this.julianDay;
+	}
+
+	/**
+	 * @return Returns true if the aspect is perfected while one of the bodies is retrograde, for example the second pass of a triple conjunction.
+	 */
+	public boolean isRetrograde() {
+		return this.retrograde;
+	}
+
+	public LocalDateTime getDate() {
+		SweDate sweDate = new SweDate(this.julianDay, SweDate.SE_GREG_CAL);
+		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
+	}
+
+	@Override
+	public int compareTo(AspectEvent other) {
+		int result = Double.compare(this.julianDay, other.julianDay);
+		if( result == 0 ) {
+			result = Integer.compare(this.body1, other.body1);
+		}
+		if( result == 0 ) {
+			result = Integer.compare(this.body2, other.body2);
+		}
+		return result == 0 ? Double.compare(this.aspect, other.aspect) : result;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		result = prime * result + body1;
+		result = prime * result + body2;
+		temp = Double.doubleToLongBits(aspect);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(julianDay);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		AspectEvent other = (AspectEvent) obj;
+		if (body1 != other.body1)
+			return false;
+		if (body2 != other.body2)
+			return false;
+		if (Double.doubleToLongBits(aspect) != Double.doubleToLongBits(other.aspect))
+			return false;
+		if (Double.doubleToLongBits(julianDay) != Double.doubleToLongBits(other.julianDay))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "UTC: " + getDate() + ", " + this.body1 + " - " + this.body2 + ", aspect: " + this.aspect + (this.retrograde ? ", retrograde" : "");
+	}
+}
@@ -0,0 +1,229 @@
+package cz.kibo.api.astrology.domain;
+
+/**
+ * Aspect engine over calculated planets positions.
+ *
+ * The grid is configured with aspect angles and their orbs. It finds the closest aspect within the orb
+ * for every pair of planets and tells from the speeds whether the aspect is applying or separating.
+ * The calculation reads the primitive positions of {@link Planet} and writes into reusable {@link Aspects},
+ * so many charts can be aspected without allocation per pair.
+ *
+ * The grid is immutable and can be shared by threads, the {@link Aspects} can not.
+ *
+ * @example
+ * <pre>
+ *	AspectGrid grid = AspectGrid.major();
+ *	Aspects natal = grid.calculate(radix);
+ *	Aspects transits = grid.calculateTransits(radix, today);
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class AspectGrid {
+
+	/** Angle of conjunction. */
+	public static final double CONJUNCTION = 0.0;
+	/** Angle of sextile. */
+	public static final double SEXTILE = 60.0;
+	/** Angle of square. */
+	public static final double SQUARE = 90.0;
+	/** Angle of trine. */
+	public static final double TRINE = 120.0;
+	/** Angle of opposition. */
+	public static final double OPPOSITION = 180.0;
+
+	private final double[] angles;
+	private final double[] orbs;
+
+	/**
+	 * Creates grid.
+	 *
+	 * @param angles The aspect angles in degrees, from 0 to 180.
+	 * @param orbs The orb of each aspect in degrees.
+	 */
+	public AspectGrid(double[] angles, double[] orbs) {
+		if( angles.length != orbs.length ) {
+			throw new IllegalArgumentException( "Expected " + angles.length + " orbs, got " + orbs.length);
+		}
+
+		for(int i = 0, ln = angles.length; i < ln; i++) {
+			if( angles[i] < 0 || angles[i] > 180 ) {
+				throw new IllegalArgumentException( "Aspect angle must be from 0 to 180: " + angles[i]);
+			}
+			if( orbs[i] < 0 ) {
+				throw new IllegalArgumentException( "Orb must not be negative: " + orbs[i]);
+			}
+		}
+
+		this.angles = angles.clone();
+		this.orbs = orbs.clone();
+	}
+
+	/**
+	 * @return Returns grid of conjunction, sextile, square, trine and opposition. Orb 6 degrees for sextile, 8 for the others.
+	 */
+	public static AspectGrid major() {
+		return new AspectGrid(
+				new double[] {CONJUNCTION, SEXTILE, SQUARE, TRINE, OPPOSITION},
+				new double[] {8.0, 6.0, 8.0, 8.0, 8.0});
+	}
+
+	/**
+	 * Aspects between the planets of one chart. Both planets of a pair are moving.
+	 *
+	 * @param chart
+	 * @return
+	 */
+	public Aspects calculate(Planet chart) {
+		Aspects out = new Aspects();
+		calculate(chart, out);
+		return out;
+	}
+
+	/**
+	 * Aspects between the planets of one chart into reusable result.
+	 *
+	 * @param chart
+	 * @param out The result, its arrays are reused if they are large enough.
+	 */
+	public void calculate(Planet chart, Aspects out) {
+		calculate(chart.positions(), chart.size(), chart.positions(), chart.size(), false, true, out);
+	}
+
+	/**
+	 * Aspects between the planets of two charts. Both planets of a pair are moving, for example synastry.
+	 *
+	 * @param first The planets in rows.
+	 * @param second The planets in columns.
+	 * @return
+	 */
+	public Aspects calculate(Planet first, Planet second) {
+		Aspects out = new Aspects();
+		calculate(first, second, out);
+		return out;
+	}
+
+	/**
+	 * Aspects between the planets of two charts into reusable result.
+	 *
+	 * @param first The planets in rows.
+	 * @param second The planets in columns.
+	 * @param out The result, its arrays are reused if they are large enough.
+	 */
+	public void calculate(Planet first, Planet second, Aspects out) {
+		calculate(first.positions(), first.size(), second.positions(), second.size(), false, false, out);
+	}
+
+	/**
+	 * Aspects of transiting planets to natal planets. The natal planets are fixed, only the speeds of the transits count.
+	 *
+	 * @param natal The natal planets in rows.
+	 * @param transit The transiting planets in columns.
+	 * @return
+	 */
+	public Aspects calculateTransits(Planet natal, Planet transit) {
+		Aspects out = new Aspects();
+		calculateTransits(natal, transit, out);
+		return out;
+	}
+
+	/**
+	 * Aspects of transiting planets to natal planets into reusable result.
+	 *
+	 * @param natal The natal planets in rows.
+	 * @param transit The transiting planets in columns.
+	 * @param out The result, its arrays are reused if they are large enough.
+	 */
+	public void calculateTransits(Planet natal, Planet transit, Aspects out) {
+		calculate(natal.positions(), natal.size(), transit.positions(), transit.size(), true, false, out);
+	}
+
+	/**
+	 * Aspects between positions in the layout of {@link Planet#getPositions()}: {@link Planet#COMPONENTS} values for each planet.
+	 *
+	 * @param first Positions of the planets in rows.
+	 * @param rows The number of planets in rows.
+	 * @param second Positions of the planets in columns.
+	 * @param cols The number of planets in columns.
+	 * @param firstFixed True if the planets in rows do not move, for example natal planets under transits.
+	 * @param out The result, its arrays are reused if they are large enough.
+	 */
+	public void calculate(double[] first, int rows, double[] second, int cols, boolean firstFixed, Aspects out) {
+		calculate(first, rows, second, cols, firstFixed, false, out);
+	}
+
+	/**
+	 * @return Returns the number of aspects of the grid.
+	 */
+	public int size() {
+		return this.angles.length;
+	}
+
+	/**
+	 * @param aspect The index of the aspect.
+	 * @return Returns the aspect angle in degrees.
+	 */
+	public double getAngle(int aspect) {
+		return this.angles[aspect];
+	}
+
+	/**
+	 * @param aspect The index of the aspect.
+	 * @return Returns the orb of the aspect in degrees.
+	 */
+	public double getOrb(int aspect) {
+		return this.orbs[aspect];
+	}
+
+	/*
+	 * @param symmetric The same chart in rows and columns, only the upper triangle is calculated and mirrored.
+	 */
+	private void calculate(double[] first, int rows, double[] second, int cols, boolean firstFixed, boolean symmetric, Aspects out) {
+		out.reset(rows, cols);
+
+		for(int i = 0; i < rows; i++) {
+			double lon1 = first[i * Planet.COMPONENTS + Planet.LONGITUDE];
+			double speed1 = firstFixed ? 0 : first[i * Planet.COMPONENTS + Planet.LONGITUDE_SPEED];
+
+			for(int j = symmetric ? i + 1 : 0; j < cols; j++) {
+				double lon2 = second[j * Planet.COMPONENTS + Planet.LONGITUDE];
+				double speed2 = second[j * Planet.COMPONENTS + Planet.LONGITUDE_SPEED];
+
+				// Signed elongation of the second planet from the first one, -180 to 180.
+				double elongation = Angles.signed(lon2 - lon1);
+				double distance = Math.abs(elongation);
+
+				int best = Aspects.NONE;
+				double bestDeviation = 0;
+				for(int k = 0, ln = angles.length; k < ln; k++) {
+					double deviation = distance - angles[k];
+					if( Math.abs(deviation) <= orbs[k] && (best == Aspects.NONE || Math.abs(deviation) < Math.abs(bestDeviation)) ) {
+						best = k;
+						bestDeviation = deviation;
+					}
+				}
+
+				if( best != Aspects.NONE ) {
+					// The distance grows when the elongation grows away from zero.
+					double distanceSpeed = elongation < 0 ? speed1 - speed2 : speed2 - speed1;
+					boolean applying = bestDeviation * distanceSpeed < 0;
+
+					out.set(i, j, best, bestDeviation, applying);
+					if( symmetric ) {
+						out.set(j, i, best, bestDeviation, applying);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("AspectGrid [");
+		for(int i = 0, ln = angles.length; i < ln; i++) {
+			sb.append( i > 0 ? ", " : "").append( angles[i] ).append( " orb " ).append( orbs[i] );
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,134 @@
+package cz.kibo.api.astrology.domain;
+
+import java.util.Arrays;
+
+/**
+ * Aspect matrix calculated by {@link AspectGrid}.
+ *
+ * The cell (row, column) holds the index of the aspect in the grid or {@link #NONE}, the deviation from the exact aspect
+ * and the applying/separating state. The arrays are kept between calculations, so one instance can be reused for
+ * many charts. An instance must not be used by several threads at once.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class Aspects {
+
+	/** No aspect within the orb. */
+	public static final int NONE = -1;
+
+	private int rows;
+	private int cols;
+	private int count;
+	private int[] aspects = new int[0];
+	private double[] deviations = new double[0];
+	private boolean[] applying = new boolean[0];
+
+	/**
+	 * Creates empty result for {@link AspectGrid}.
+	 */
+	public Aspects() {
+		super();
+	}
+
+	/**
+	 * @return Returns the number of planets in rows.
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * @return Returns the number of planets in columns.
+	 */
+	public int getColumns() {
+		return this.cols;
+	}
+
+	/**
+	 * @return Returns the number of cells with an aspect. A pair of one chart is counted twice, once in each triangle.
+	 */
+	public int count() {
+		return this.count;
+	}
+
+	/**
+	 * @param row The index of the planet in rows.
+	 * @param col The index of the planet in columns.
+	 * @return Returns the index of the aspect in the grid or {@link #NONE}.
+	 */
+	public int getAspect(int row, int col) {
+		return this.aspects[index(row, col)];
+	}
+
+	/**
+	 * @param row The index of the planet in rows.
+	 * @param col The index of the planet in columns.
+	 * @return Returns true if there is an aspect within the orb.
+	 */
+	public boolean hasAspect(int row, int col) {
+		return this.aspects[index(row, col)] != NONE;
+	}
+
+	/**
+	 * @param row The index of the planet in rows.
+	 * @param col The index of the planet in columns.
+	 * @return Returns the distance of the planets minus the aspect angle in degrees. Negative inside, positive outside the exact aspect.
+	 */
+	public double getDeviation(int row, int col) {
+		return this.deviations[index(row, col)];
+	}
+
+	/**
+	 * @param row The index of the planet in rows.
+	 * @param col The index of the planet in columns.
+	 * @return Returns true if the planets move towards the exact aspect, false if they separate.
+	 */
+	public boolean isApplying(int row, int col) {
+		return this.applying[index(row, col)];
+	}
+
+	void reset(int rows, int cols) {
+		int size = rows * cols;
+		if( this.aspects.length < size ) {
+			this.aspects = new int[size];
+			this.deviations = new double[size];
+			this.applying = new boolean[size];
+		}
+
+		Arrays.fill(this.aspects, 0, size, NONE);
+		Arrays.fill(this.deviations, 0, size, 0);
+		Arrays.fill(this.applying, 0, size, false);
+		this.rows = rows;
+		this.cols = cols;
+		this.count = 0;
+	}
+
+	void set(int row, int col, int aspect, double deviation, boolean applying) {
+		int i = row * this.cols + col;
+		this.aspects[i] = aspect;
+		this.deviations[i] = deviation;
+		this.applying[i] = applying;
+		this.count++;
+	}
+
+	private int index(int row, int col) {
+		if( row < 0 || row >= this.rows || col < 0 || col >= this.cols ) {
+			throw new IndexOutOfBoundsException( "Cell [" + row + ", " + col + "] out of " + this.rows + " x " + this.cols);
+		}
+		return row * this.cols + col;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < this.rows; i++) {
+			for(int j = 0; j < this.cols; j++) {
+				int aspect = this.aspects[i * this.cols + j];
+				sb.append( j > 0 ? " " : "").append( aspect == NONE ? "." : (this.applying[i * this.cols + j] ? "A" : "S") + aspect );
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+}
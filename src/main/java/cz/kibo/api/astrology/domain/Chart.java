@@ -0,0 +1,205 @@
+package cz.kibo.api.astrology.domain;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import cz.kibo.api.astrology.json.JsonWriter;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Representation of the whole chart at a certain date and time: planets, cusps, angles and ayanamsa.
+ *
+ * Everything is calculated in one pass on one engine for one Julian day, so the obliquity of the ecliptic,
+ * the nutation and the sidereal time of the instant are calculated once and shared by the planets and the houses.
+ *
+ * All time events - input and output - are in Universal Time (UT).
+ * This class should not be used alone. Use {@link cz.kibo.api.astrology.builder.ChartBuilder} to create the correct instance of this class.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class Chart extends Ephemeris{
+
+	private static final int ANGLES = SweConst.SE_NASCMC;
+
+	private final LocalDateTime event;
+	private final Planet planets;
+	private final Cusp cusps;
+	private final double[] ascmc;
+	private final double ayanamsa;
+	private final int iflag;
+
+	/**
+	 * Calculates the chart.
+	 *
+	 * @param event The date and the time of the event in Universal Time (UT).
+	 * @param planets List of planets for position calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param coords longitude, latitude, geoalt of the place for the houses.
+	 * @param houseSystem The house system as a character given as an integer.
+	 * @param topocentric True for planets relative to the place, false for geocentric planets.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal. Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public Chart( LocalDateTime event, List<Integer> planets, Coordinates coords, Integer houseSystem, boolean topocentric, int iflag) {
+		super();
+		this.event = event;
+		this.iflag = iflag;
+
+		int[] planetIds = Planet.planetIds(planets);
+		int flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+		double julDay = super.getJulianDay(event);
+		double[] angles = new double[10];
+
+		SwissEph sw = super.borrowEngine();
+		try {
+			if( topocentric ) {
+				sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+				flags |= SweConst.SEFLG_TOPOCTR;
+			}
+
+			boolean sidereal = (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL;
+			if( sidereal ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			// The planets fill the per-instant frame of the engine, the houses reuse it.
+			this.planets = new Planet(event, planetIds, Planet.planetNames(sw, planetIds), topocentric ? coords : null, flags, sw);
+			this.cusps = new Cusp(event, coords, houseSystem, iflag, Cusp.calculateCusps(sw, julDay, houseSystem, coords, iflag, angles));
+			this.ayanamsa = sidereal ? sw.swe_get_ayanamsa_ut(julDay) : 0;
+		} finally {
+			super.releaseEngine(sw);
+		}
+
+		this.ascmc = Arrays.copyOf(angles, ANGLES);
+	}
+
+	/**
+	 * @return Returns the planets positions.
+	 */
+	public Planet getPlanet() {
+		return this.planets;
+	}
+
+	/**
+	 * @return Returns the cusps positions.
+	 */
+	public Cusp getCusp() {
+		return this.cusps;
+	}
+
+	/**
+	 * @return Returns the ascendant in degrees.
+	 */
+	public double getAscendant() {
+		return this.ascmc[SweConst.SE_ASC];
+	}
+
+	/**
+	 * @return Returns the Medium Coeli in degrees.
+	 */
+	public double getMC() {
+		return this.ascmc[SweConst.SE_MC];
+	}
+
+	/**
+	 * @return Returns the ARMC (sidereal time in degrees).
+	 */
+	public double getARMC() {
+		return this.ascmc[SweConst.SE_ARMC];
+	}
+
+	/**
+	 * @return Returns the vertex in degrees.
+	 */
+	public double getVertex() {
+		return this.ascmc[SweConst.SE_VERTEX];
+	}
+
+	/**
+	 * Returns all special points of the houses calculation, indexed by SweConst.SE_ASC ... SweConst.SE_POLASC.
+	 *
+	 * @return Returns the copy of the points.
+	 * @see swisseph.SwissEph#swe_houses(double, int, double, double, int, double[], double[])
+	 */
+	public double[] getAscmc() {
+		return this.ascmc.clone();
+	}
+
+	/**
+	 * @return Returns the ayanamsa in degrees for sidereal chart, 0 for tropical chart.
+	 */
+	public double getAyanamsa() {
+		return this.ayanamsa;
+	}
+
+	public LocalDateTime getEvent() {
+		return this.event;
+	}
+
+	/**
+	 * Converts the chart to JSON string
+	 * @return
+	 */
+	public String toJSON() {
+		StringBuilder sb = new StringBuilder();
+		try {
+			new JsonWriter(sb).write(this);
+		} catch (IOException e) {
+			// StringBuilder does not throw
+			throw new IllegalStateException(e);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((planets == null) ? 0 : planets.hashCode());
+		result = prime * result + ((cusps == null) ? 0 : cusps.hashCode());
+		result = prime * result + Arrays.hashCode(ascmc);
+		long temp = Double.doubleToLongBits(ayanamsa);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Chart other = (Chart) obj;
+		if (planets == null) {
+			if (other.planets != null)
+				return false;
+		} else if (!planets.equals(other.planets))
+			return false;
+		if (cusps == null) {
+			if (other.cusps != null)
+				return false;
+		} else if (!cusps.equals(other.cusps))
+			return false;
+		if (!Arrays.equals(ascmc, other.ascmc))
+			return false;
+		if (Double.doubleToLongBits(ayanamsa) != Double.doubleToLongBits(other.ayanamsa))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ? "Sidereal, ayanamsa: " + this.ayanamsa + "\n" : "Tropical \n");
+		sb.append("Asc: " + getAscendant() + ", MC: " + getMC() + ", ARMC: " + getARMC() + ", Vertex: " + getVertex() + "\n");
+		sb.append(this.planets);
+		sb.append(this.cusps);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,261 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import swisseph.SweConst;
+
+/**
+ * Bounded cache of calculated planets and cusps.
+ *
+ * The charts are keyed by Julian day, zodiac flags including the sidereal mode, topocentric coordinates
+ * and the planet set or the house system. A repeated request is answered from the cache without touching the engine.
+ * The least recently used chart is evicted when the cache is full, a chart older than the maximum age is calculated again.
+ *
+ * The cache is safe for use from many threads. Plug it into the builders by
+ * {@link cz.kibo.api.astrology.builder.PlanetBuilder#cache(ChartCache)} and
+ * {@link cz.kibo.api.astrology.builder.CuspBuilder#cache(ChartCache)}.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class ChartCache {
+
+	private static final char PLANET = 'P';
+	private static final char CUSP = 'C';
+
+	private final int maxSize;
+	private final long maxAgeMillis;
+	private final Map<Key, Entry> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Creates cache.
+	 *
+	 * @param maxSize The maximum number of charts in the cache.
+	 * @param maxAgeMillis The time in milliseconds after which a chart is calculated again.
+	 */
+	public ChartCache(int maxSize, long maxAgeMillis) {
+		if( maxSize < 1 ) {
+			throw new IllegalArgumentException( "Cache size must be positive: " + maxSize);
+		}
+		if( maxAgeMillis < 1 ) {
+			throw new IllegalArgumentException( "Maximum age must be positive: " + maxAgeMillis);
+		}
+
+		this.maxSize = maxSize;
+		this.maxAgeMillis = maxAgeMillis;
+		this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if( size() > ChartCache.this.maxSize ) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns planets positions from the cache or calculates them.
+	 *
+	 * @param event The date and the time of the event in Universal Time (UT).
+	 * @param planets List of planets for position calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @return
+	 * @see cz.kibo.api.astrology.domain.Planet
+	 */
+	public Planet getPlanet(LocalDateTime event, List<Integer> planets, Coordinates coords, int iflag) {
+		Key key = new Key(PLANET, Ephemeris.julianDay(event), zodiac(iflag), coords, Planet.planetIds(planets));
+
+		if( coords == null ) {
+			return get(key, () -> new Planet(event, planets, iflag));
+		}
+		return get(key, () -> new Planet(event, planets, coords, iflag));
+	}
+
+	/**
+	 * Returns cusps positions from the cache or calculates them.
+	 *
+	 * @param event The date and the time of the event in Universal Time (UT).
+	 * @param coords longitude, latitude, geoalt.
+	 * @param houseSystem The house system as a character given as an integer.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @return
+	 * @see cz.kibo.api.astrology.domain.Cusp
+	 */
+	public Cusp getCusp(LocalDateTime event, Coordinates coords, Integer houseSystem, int iflag) {
+		Key key = new Key(CUSP, Ephemeris.julianDay(event), zodiac(iflag), coords, new int[] {houseSystem});
+		return get(key, () -> new Cusp(event, coords, houseSystem, iflag));
+	}
+
+	/**
+	 * Removes all charts. The statistics are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return Returns the number of charts in the cache.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return Returns the number of requests answered from the cache.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * @return Returns the number of requests which had to be calculated.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * @return Returns the number of charts removed because of the size or the age.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * @return Returns the ratio of hits to all requests, 0 if there was no request.
+	 */
+	public synchronized double getHitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 0 : (double)hits / requests;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T get(Key key, Supplier<T> calculation) {
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if( entry != null ) {
+				if( System.currentTimeMillis() - entry.created < maxAgeMillis ) {
+					hits++;
+					return (T)entry.chart;
+				}
+				entries.remove(key);
+				evictions++;
+			}
+			misses++;
+		}
+
+		// Calculated outside of the lock, two threads may calculate the same chart at the same time.
+		T chart = calculation.get();
+
+		synchronized (this) {
+			entries.put(key, new Entry(chart, System.currentTimeMillis()));
+		}
+		return chart;
+	}
+
+	/**
+	 * Removes the charts older than the maximum age.
+	 */
+	public synchronized void evictExpired() {
+		long now = System.currentTimeMillis();
+		Iterator<Entry> it = entries.values().iterator();
+		while( it.hasNext() ) {
+			if( now - it.next().created >= maxAgeMillis ) {
+				it.remove();
+				evictions++;
+			}
+		}
+	}
+
+	// Only the flags which change the result: the sidereal flag with its mode.
+	private static int zodiac(int iflag) {
+		if( (iflag & 0xF0000) == SweConst.SEFLG_SIDEREAL ) {
+			return iflag & (0xF0000 | 0x00FF);
+		}
+		return 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ChartCache [size=" + entries.size() + ", maxSize=" + maxSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+
+	private static class Entry {
+
+		private final Object chart;
+		private final long created;
+
+		Entry(Object chart, long created) {
+			this.chart = chart;
+			this.created = created;
+		}
+	}
+
+	private static class Key {
+
+		private final char type;
+		private final double julianDay;
+		private final int iflag;
+		private final Coordinates coords;
+		private final int[] bodies;
+
+		Key(char type, double julianDay, int iflag, Coordinates coords, int[] bodies) {
+			this.type = type;
+			this.julianDay = julianDay;
+			this.iflag = iflag;
+			this.coords = coords;
+			this.bodies = bodies;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			long temp = Double.doubleToLongBits(julianDay);
+			result = prime * result + (int) (temp ^ (temp >>> 32));
+			result = prime * result + type;
+			result = prime * result + iflag;
+			result = prime * result + ((coords == null) ? 0 : coords.hashCode());
+			result = prime * result + Arrays.hashCode(bodies);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			if (type != other.type)
+				return false;
+			if (Double.doubleToLongBits(julianDay) != Double.doubleToLongBits(other.julianDay))
+				return false;
+			if (iflag != other.iflag)
+				return false;
+			if (coords == null) {
+				if (other.coords != null)
+					return false;
+			} else if (!coords.equals(other.coords))
+				return false;
+			return Arrays.equals(bodies, other.bodies);
+		}
+	}
+}
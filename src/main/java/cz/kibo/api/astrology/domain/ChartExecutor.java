@@ -0,0 +1,202 @@
+package cz.kibo.api.astrology.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Parallel calculation of many charts.
+ *
+ * The input is split into contiguous chunks which run on the thread pool. Every chunk attaches one engine
+ * from {@link EphemerisPool} to its worker thread, so all planets, cusps and transits built by the chunk run
+ * on that engine without going back to the pool. The results come back in the order of the input.
+ *
+ * Set <code>ephemeris.pool.size</code> at least to the parallelism, otherwise the engines are closed
+ * and opened again between the calls.
+ *
+ * @example
+ * <pre>
+ *	ChartExecutor executor = new ChartExecutor();
+ *	List&lt;Planet&gt; charts = executor.calculate(events, event -&gt; new PlanetBuilder(event).planets().build());
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class ChartExecutor {
+
+	// More chunks than threads, so a slow chunk (e.g. a long transit search) does not hold up the others.
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final ExecutorService executor;
+	private final int parallelism;
+	private final boolean owned;
+
+	/**
+	 * Runs on the common fork-join pool.
+	 */
+	public ChartExecutor() {
+		this( ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), false);
+	}
+
+	/**
+	 * Runs on an own fork-join pool. Call {@link #shutdown()} when the executor is not needed anymore.
+	 *
+	 * @param parallelism The number of worker threads.
+	 */
+	public ChartExecutor(int parallelism) {
+		this( new ForkJoinPool( checkParallelism(parallelism) ), parallelism, true);
+	}
+
+	/**
+	 * Runs on the given thread pool. The pool is not shut down by this executor.
+	 *
+	 * @param executor The thread pool.
+	 * @param parallelism The number of worker threads of the pool.
+	 */
+	public ChartExecutor(ExecutorService executor, int parallelism) {
+		this( executor, checkParallelism(parallelism), false);
+	}
+
+	private ChartExecutor(ExecutorService executor, int parallelism, boolean owned) {
+		this.executor = executor;
+		this.parallelism = Math.max(1, parallelism);
+		this.owned = owned;
+	}
+
+	/**
+	 * Calculates chart for each input in parallel.
+	 *
+	 * @param inputs The inputs, for example the dates of the events.
+	 * @param chart The calculation of one chart, for example <code>event -&gt; new CuspBuilder(event).houses("Placidus").topo(lon, lat, alt).build()</code>.
+	 * @return Returns the charts in the order of the inputs.
+	 */
+	public <I, T> List<T> calculate(List<I> inputs, Function<? super I, ? extends T> chart) {
+		int size = inputs.size();
+		if( size == 0 ) {
+			return Collections.emptyList();
+		}
+
+		Object[] results = new Object[size];
+		calculateRanges(size, (from, to) -> {
+			for(int i = from; i < to; i++) {
+				results[i] = chart.apply( inputs.get(i) );
+			}
+		});
+
+		@SuppressWarnings("unchecked")
+		List<T> charts = (List<T>)Collections.unmodifiableList( Arrays.asList(results) );
+		return charts;
+	}
+
+	/**
+	 * Runs the task for contiguous ranges of the indexes from 0 to the size in parallel. Every range attaches one engine
+	 * to its worker thread, like the charts of {@link #calculate(List, Function)}. The task usually writes its own slots
+	 * of a result array, so the ranges need no synchronization.
+	 *
+	 * @param size The number of the indexes, for example the number of the locations.
+	 * @param task The calculation of one range.
+	 */
+	public void calculateRanges(int size, RangeTask task) {
+		int chunks = Math.min(size, parallelism * CHUNKS_PER_THREAD);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+		for(int i = 0; i < chunks; i++) {
+			int from = (int)((long)size * i / chunks);
+			int to = (int)((long)size * (i + 1) / chunks);
+			tasks.add( new Chunk(from, to, task) );
+		}
+
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException( "Chart calculation was interrupted.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if( cause instanceof RuntimeException ) {
+				throw (RuntimeException)cause;
+			}
+			if( cause instanceof Error ) {
+				throw (Error)cause;
+			}
+			throw new IllegalStateException( cause );
+		}
+	}
+
+	/**
+	 * @return Returns the number of worker threads.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Shuts down the own thread pool. Does nothing for the common or the given pool.
+	 */
+	public void shutdown() {
+		if( owned ) {
+			executor.shutdown();
+		}
+	}
+
+	private static int checkParallelism(int parallelism) {
+		if( parallelism < 1 ) {
+			throw new IllegalArgumentException( "Parallelism must be positive: " + parallelism);
+		}
+		return parallelism;
+	}
+
+	@Override
+	public String toString() {
+		return "ChartExecutor [parallelism=" + parallelism + "]";
+	}
+
+	/**
+	 * The calculation of a range of the indexes.
+	 */
+	@FunctionalInterface
+	public interface RangeTask {
+
+		/**
+		 * @param from The first index of the range.
+		 * @param to The index after the last one of the range.
+		 */
+		void calculate(int from, int to);
+	}
+
+	private static class Chunk implements Callable<Void> {
+
+		private final int from;
+		private final int to;
+		private final RangeTask task;
+
+		Chunk(int from, int to, RangeTask task) {
+			this.from = from;
+			this.to = to;
+			this.task = task;
+		}
+
+		@Override
+		public Void call() {
+			EphemerisPool pool = EphemerisPool.getInstance();
+			boolean attached = pool.attach();
+			try {
+				task.calculate(from, to);
+			} finally {
+				if( attached ) {
+					pool.detach();
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import swisseph.SweConst;
+
+/**
+ * A condition of an electional search, for example "Mercury direct" or "the Moon in Taurus".
+ *
+ * A condition does not test single moments. It finds the moments when it starts or stops to hold - stations,
+ * ingresses, aspects - and returns the intervals between them, so the conditions are combined by the operations
+ * of {@link IntervalSet}.
+ *
+ * @example
+ * <pre>
+ *	Condition condition = Condition.waxing()
+ *			.and( Condition.voidOfCourse().negate() )
+ *			.and( Condition.direct(SweConst.SE_MERCURY) )
+ *			.and( Condition.inSigns(SweConst.SE_VENUS, 1, 6) );
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+@FunctionalInterface
+public interface Condition {
+
+	/**
+	 * @param election The search with the range of the intervals.
+	 * @return Returns the intervals of the range where the condition holds.
+	 */
+	IntervalSet intervals(Election election);
+
+	/**
+	 * @param other The other condition.
+	 * @return Returns the condition holding when both conditions hold.
+	 */
+	default Condition and(Condition other) {
+		return election -> intervals(election).intersect( other.intervals(election) );
+	}
+
+	/**
+	 * @param other The other condition.
+	 * @return Returns the condition holding when any of the conditions holds.
+	 */
+	default Condition or(Condition other) {
+		return election -> intervals(election).union( other.intervals(election) );
+	}
+
+	/**
+	 * @return Returns the condition holding when this condition does not hold.
+	 */
+	default Condition negate() {
+		return election -> intervals(election).complement( election.getStartJulianDay(), election.getEndJulianDay() );
+	}
+
+	/**
+	 * The body is in one of the signs. The retrograde re-entries are included.
+	 *
+	 * @param planet The body. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param signs The indexes of the signs, 0 for Aries.
+	 * @return Returns the condition.
+	 */
+	static Condition inSigns(int planet, int... signs) {
+		boolean[] wanted = new boolean[12];
+		for(int sign : signs) {
+			if( sign < 0 || sign > 11 ) {
+				throw new IllegalArgumentException( "Sign must be from 0 to 11: " + sign);
+			}
+			wanted[sign] = true;
+		}
+
+		return election -> {
+			boolean initial = wanted[(int)(election.getLongitude(planet) / 30) % 12];
+
+			List<Double> changes = new ArrayList<Double>();
+			boolean state = initial;
+			for(Ingress ingress : new IngressCalendar(election.getStart(), election.getEnd(), Arrays.asList(planet), null, election.getIflag())) {
+				if( wanted[ingress.getIndex()] != state ) {
+					state = !state;
+					changes.add( ingress.getJulianDay() );
+				}
+			}
+
+			return IntervalSet.ofChanges(election.getStartJulianDay(), election.getEndJulianDay(), initial, Election.toArray(changes));
+		};
+	}
+
+	/**
+	 * The planet moves backwards. For the planets from Mercury to Pluto.
+	 *
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @return Returns the condition.
+	 */
+	static Condition retrograde(int planet) {
+		return election -> {
+			StationCalendar calendar = election.getStations(planet);
+			List<Station> stations = calendar.getStations(planet);
+
+			double[] changes = new double[stations.size()];
+			for(int i = 0; i < changes.length; i++) {
+				changes[i] = stations.get(i).getJulianDay();
+			}
+
+			return IntervalSet.ofChanges(election.getStartJulianDay(), election.getEndJulianDay(),
+					calendar.isRetrograde(planet, election.getStartJulianDay()), changes);
+		};
+	}
+
+	/**
+	 * The planet moves forward. For the planets from Mercury to Pluto.
+	 *
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @return Returns the condition.
+	 */
+	static Condition direct(int planet) {
+		return retrograde(planet).negate();
+	}
+
+	/**
+	 * The Moon is waxing, from the new moon to the full moon.
+	 *
+	 * @return Returns the condition.
+	 */
+	static Condition waxing() {
+		return election -> {
+			double elongation = election.getLongitude(SweConst.SE_MOON) - election.getLongitude(SweConst.SE_SUN);
+			boolean initial = (elongation + 360) % 360 < 180;
+
+			List<Double> changes = new ArrayList<Double>();
+			for(AspectEvent event : new AspectCalendar(election.getStart(), election.getEnd(),
+					Arrays.asList(SweConst.SE_SUN, SweConst.SE_MOON), new double[] {0, 180}, null, election.getIflag())) {
+				changes.add( event.getJulianDay() );
+			}
+
+			return IntervalSet.ofChanges(election.getStartJulianDay(), election.getEndJulianDay(), initial, Election.toArray(changes));
+		};
+	}
+
+	/**
+	 * The Moon is waning, from the full moon to the new moon.
+	 *
+	 * @return Returns the condition.
+	 */
+	static Condition waning() {
+		return waxing().negate();
+	}
+
+	/**
+	 * The Moon is void of course: from its last Ptolemaic aspect (conjunction, sextile, square, trine, opposition)
+	 * to the Sun, Mercury, Venus, Mars, Jupiter or Saturn until it leaves the sign.
+	 *
+	 * @return Returns the condition.
+	 */
+	static Condition voidOfCourse() {
+		return election -> {
+			// The Moon stays less than three days in a sign, the last aspect before the start and the ingress
+			// after the end are within this time.
+			LocalDateTime before = election.getStart().minusDays(3);
+			LocalDateTime after = election.getEnd().plusDays(3);
+
+			// The aspects between the planets are not searched.
+			List<Double> aspects = new ArrayList<Double>();
+			for(AspectEvent event : new AspectCalendar(before, after, SweConst.SE_MOON,
+					Arrays.asList(SweConst.SE_SUN, SweConst.SE_MERCURY, SweConst.SE_VENUS, SweConst.SE_MARS, SweConst.SE_JUPITER, SweConst.SE_SATURN),
+					new double[] {0, 60, 90, 120, 180}, null, election.getIflag())) {
+				aspects.add( event.getJulianDay() );
+			}
+
+			// Each void period starts at the last aspect in the sign and ends at the ingress.
+			List<Double> changes = new ArrayList<Double>();
+			double sign = Double.NaN;
+			int next = 0;
+			for(Ingress ingress : new IngressCalendar(before, after, Arrays.asList(SweConst.SE_MOON), null, election.getIflag())) {
+				double last = sign;
+				while( next < aspects.size() && aspects.get(next) < ingress.getJulianDay() ) {
+					last = aspects.get(next++);
+				}
+				if( !Double.isNaN(last) ) {
+					changes.add( last );
+					changes.add( ingress.getJulianDay() );
+				}
+				sign = ingress.getJulianDay();
+			}
+
+			IntervalSet result = IntervalSet.ofChanges(Ephemeris.julianDay(before), Ephemeris.julianDay(after), false, Election.toArray(changes));
+			return result.intersect( IntervalSet.of(election.getStartJulianDay(), election.getEndJulianDay()) );
+		};
+	}
+}
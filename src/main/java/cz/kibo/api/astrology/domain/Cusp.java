@@ -2,12 +2,12 @@ package cz.kibo.api.astrology.domain;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import cz.kibo.api.astrology.json.Convertor;
 import swisseph.SweConst;
-import swisseph.SweDate;
 import swisseph.SwissEph;
 
 /**
@@ -21,6 +21,7 @@ import swisseph.SwissEph;
  */
 public class Cusp extends Ephemeris{
 	
+	private final double[] cusps;
 	private List<Double> cuspsPositions;
 			
 	private final LocalDateTime event;		
@@ -28,9 +29,6 @@ public class Cusp extends Ephemeris{
 	private Integer houseSystem;
 	private int iflag;
 	
-	private SwissEph sw;
-	private SweDate sd;
-	
 	/**
 	 * Calculates cusps positions with specific options.
 	 * 
@@ -48,18 +46,69 @@ public class Cusp extends Ephemeris{
 		this.houseSystem = houseSystem;
 		this.iflag = iflag;	
 		
-		sw = new SwissEph( super.getPathToEphemeris() );		
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/3600.0, SweDate.SE_GREG_CAL);
+		SwissEph sw = super.borrowEngine();
+		try {
+			if( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( this.iflag & 0x00FF );
+			}
+						
+			this.cusps = calculateCusps(sw, super.getJulianDay(event), this.houseSystem, this.coords, this.iflag, new double[10]);
+		} finally {
+			super.releaseEngine(sw);
+		}
+	}
+	
+	/**
+	 * Creates cusps from positions which are already calculated.
+	 * 
+	 * @param event The date and the time of the event in Universal Time (UT).	
+	 * @param coords longitude, latitude, geoalt. 
+	 * @param houseSystem The house system as a character given as an integer.
+	 * @param iflag Options for sidereal or tropical calculation.
+	 * @param cusps The cusps from {@link #calculateCusps(SwissEph, double, Integer, Coordinates, int, double[])}. The array is not copied.
+	 */
+	Cusp( LocalDateTime event, Coordinates coords, Integer houseSystem, int iflag, double[] cusps) {
+		super();
+		this.event = event;		
+		this.coords = coords;
+		this.houseSystem = houseSystem;
+		this.iflag = iflag;
+		this.cusps = cusps;
+	}
+	
+	/**
+	 * Cusps positions as list. The list is built on the first call from the primitive positions.
+	 * 
+	 * @return
+	 */
+	public List<Double> getCusps() {
+		List<Double> data = this.cuspsPositions;
 		
-		if( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( this.iflag & 0x00FF );
+		if( data == null ) {
+			data = new ArrayList<Double>( this.cusps.length );
+			for (double cusp : this.cusps) {
+				data.add(cusp);
+			}
+			data = Collections.unmodifiableList(data);
+			this.cuspsPositions = data;
 		}
-					
-		this.cuspsPositions = calculateCusps(this.sw, this.sd, this.houseSystem, this.coords, this.iflag);
+		
+		return data;
 	}
 	
-	public List<Double> getCusps() {		
-		return this.cuspsPositions;
+	/**
+	 * @return Returns the number of cusps.
+	 */
+	public int size() {
+		return this.cusps.length;
+	}
+	
+	/**
+	 * @param index Zero based index of the cusp. The first house is 0.
+	 * @return Returns the cusp position in degrees.
+	 */
+	public double getCusp(int index) {
+		return this.cusps[index];
 	}
 		
 	public Coordinates getCoordinates() {		
@@ -79,37 +128,35 @@ public class Cusp extends Ephemeris{
 		return convertor.getJSON().toString();
 	}
 		
-	private List<Double> calculateCusps( SwissEph calculator, SweDate date, Integer hSystem, Coordinates coordinates, int flags ){
-		
-		List<Double> cPositions = new ArrayList<Double>();
+	/*
+	 * @param ascmc double[10] for the ascendant, MC, ARMC, vertex and other points. 
+	 * 
+	 * @see swisseph.SwissEph.swe_houses
+	 */
+	static double[] calculateCusps( SwissEph calculator, double julDay, Integer hSystem, Coordinates coordinates, int flags, double[] ascmc ){
 		
 		double[] cusps = new double[13];
-		double[] acsc = new double[10];
-		int result = sw.swe_houses(sd.getJulDay(),
+		int result = calculator.swe_houses(julDay,
 				flags,
 				coordinates.getLatitude(),
 				coordinates.getLongitude(),
 				hSystem,
 				cusps,
-				acsc);
+				ascmc);
 		
 		if(result == SweConst.ERR) {
 			System.err.println("Error! Cusps calculation was not possible.");
 			//TODO Exception
 		}
 		
-		for(int i = 1; i <= 12; i++){
-			cPositions.add(cusps[i]);					
-		}
-		
-		return cPositions;
+		return Arrays.copyOfRange(cusps, 1, 13);
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((cuspsPositions == null) ? 0 : cuspsPositions.hashCode());
+		result = prime * result + Arrays.hashCode(cusps);
 		result = prime * result + ((event == null) ? 0 : event.hashCode());
 		return result;
 	}
@@ -123,10 +170,7 @@ public class Cusp extends Ephemeris{
 		if (getClass() != obj.getClass())
 			return false;
 		Cusp other = (Cusp) obj;
-		if (cuspsPositions == null) {
-			if (other.cuspsPositions != null)
-				return false;
-		} else if (!cuspsPositions.equals(other.cuspsPositions))
+		if (!Arrays.equals(cusps, other.cusps))
 			return false;
 		if (event == null) {
 			if (other.event != null)
@@ -139,14 +183,19 @@ public class Cusp extends Ephemeris{
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
-		sb.append( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ? "Sidereal - " : "Tropical \n");		
-		if( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sb.append( sw.swe_get_ayanamsa_name(this.iflag & 0x00FF) + "\n");
-		}			
-		sb.append("[ UTC: " + this.event + ", ");			
-		sb.append(", " + this.coords + ", ");
-		sb.append(this.sw.swe_house_name( (char)(this.houseSystem.intValue())) + " ]\n");	
-		sb.append(this.cuspsPositions + " ]\n");		
+		SwissEph sw = super.borrowEngine();
+		try {
+			sb.append( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ? "Sidereal - " : "Tropical \n");		
+			if( (this.iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sb.append( sw.swe_get_ayanamsa_name(this.iflag & 0x00FF) + "\n");
+			}			
+			sb.append("[ UTC: " + this.event + ", ");			
+			sb.append(", " + this.coords + ", ");
+			sb.append(sw.swe_house_name( (char)(this.houseSystem.intValue())) + " ]\n");	
+			sb.append(Arrays.toString(this.cusps) + " ]\n");
+		} finally {
+			super.releaseEngine(sw);
+		}
 		return sb.toString();
 	}	
 }
@@ -0,0 +1,124 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Electional search: the intervals of a date range where a {@link Condition} holds.
+ *
+ * Each condition is turned into the moments when it changes - stations from {@link StationCalendar}, ingresses from
+ * {@link IngressCalendar}, aspects from {@link AspectCalendar} - and the intervals of the conditions are intersected,
+ * so no moment of the range is tested one by one. The station calendars are shared by all conditions of the search.
+ *
+ * All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	IntervalSet intervals = new Election(start, start.plusYears(2)).find( Condition.waxing()
+ *			.and( Condition.voidOfCourse().negate() )
+ *			.and( Condition.direct(SweConst.SE_MERCURY) )
+ *			.and( Condition.inSigns(SweConst.SE_VENUS, 1, 6) ));
+ *
+ *	for( Interval interval : intervals.getIntervals() ) {
+ *		System.out.println( interval );
+ *	}
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class Election extends Ephemeris{
+
+	private final LocalDateTime start;
+	private final LocalDateTime end;
+	private final int iflag;
+	private final Map<Integer, StationCalendar> stations = new HashMap<Integer, StationCalendar>();
+
+	/**
+	 * Creates search in tropical zodiac.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT).
+	 */
+	public Election( LocalDateTime start, LocalDateTime end) {
+		this( start, end, 0);
+	}
+
+	/**
+	 * Creates search.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT).
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public Election( LocalDateTime start, LocalDateTime end, int iflag) {
+		super();
+
+		if( !end.isAfter(start) ) {
+			throw new IllegalArgumentException( "End " + end + " is not after start " + start);
+		}
+
+		this.start = start;
+		this.end = end;
+		this.iflag = iflag;
+	}
+
+	/**
+	 * @param condition The condition.
+	 * @return Returns the intervals of the range where the condition holds.
+	 */
+	public IntervalSet find(Condition condition) {
+		return condition.intervals(this);
+	}
+
+	public LocalDateTime getStart() {
+		return this.start;
+	}
+
+	public LocalDateTime getEnd() {
+		return this.end;
+	}
+
+	public double getStartJulianDay() {
+		return getJulianDay(this.start);
+	}
+
+	public double getEndJulianDay() {
+		return getJulianDay(this.end);
+	}
+
+	public int getIflag() {
+		return this.iflag;
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + this.start + " - " + this.end + " ]";
+	}
+
+	// Longitude of the planet at the start.
+	double getLongitude(int planet) {
+		return new Planet(this.start, Arrays.asList(planet), this.iflag).getPosition(0, Planet.LONGITUDE);
+	}
+
+	synchronized StationCalendar getStations(int planet) {
+		StationCalendar calendar = this.stations.get(planet);
+		if( calendar == null ) {
+			calendar = new StationCalendar(this.start, this.end, Arrays.asList(planet));
+			this.stations.put(planet, calendar);
+		}
+		return calendar;
+	}
+
+	static double[] toArray(List<Double> list) {
+		double[] array = new double[list.size()];
+		for(int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+}
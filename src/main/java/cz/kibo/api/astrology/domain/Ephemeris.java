@@ -1,19 +1,39 @@
 package cz.kibo.api.astrology.domain;
 
-import java.io.IOException;
-import java.util.Properties;
+import java.time.LocalDateTime;
+
+import swisseph.SweDate;
+import swisseph.SwissEph;
 
 public abstract class Ephemeris {
-	
-	private final Properties settings = new Properties();
-	
-	protected String getPathToEphemeris(){			
-		try {									
-			settings.load( this.getClass().getResourceAsStream("/settings.properties") );			
-		} catch (IOException e) {			
-			e.printStackTrace();
-		}
-		
-		return settings.getProperty("ephemeris.path");		
+
+	protected String getPathToEphemeris(){
+		return EphemerisPool.getInstance().getPathToEphemeris();
+	}
+
+	/**
+	 * Borrows the engine from the shared pool. Give it back with {@link #releaseEngine(SwissEph)}.
+	 *
+	 * @return
+	 * @see cz.kibo.api.astrology.domain.EphemerisPool
+	 */
+	protected SwissEph borrowEngine() {
+		return EphemerisPool.getInstance().borrow();
+	}
+
+	protected void releaseEngine(SwissEph sw) {
+		EphemerisPool.getInstance().release(sw);
+	}
+
+	/**
+	 * @param event The date and the time of the event in Universal Time (UT).
+	 * @return Julian day number of the event in Universal Time (UT).
+	 */
+	protected double getJulianDay(LocalDateTime event) {
+		return julianDay(event);
+	}
+
+	static double julianDay(LocalDateTime event) {
+		return SweDate.getJulDay(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/3600.0, SweDate.SE_GREG_CAL);
 	}
 }
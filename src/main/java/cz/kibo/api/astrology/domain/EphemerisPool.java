@@ -0,0 +1,277 @@
+package cz.kibo.api.astrology.domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import swisseph.EphemerisWindow;
+import swisseph.SweDate;
+import swisseph.SwissEph;
+
+/**
+ * Pool of Swiss Ephemeris engines shared by all ephemeris calculations.
+ *
+ * Creating a {@link swisseph.SwissEph} opens the ephemeris files again and starts with empty
+ * segment caches. The pool keeps released engines and hands the most recently used one out first,
+ * so the opened files and the loaded Chebyshev segments survive from one calculation to the next.
+ *
+ * An engine is never shared: it belongs to the borrower until it is released.
+ * The pool keeps at most <code>ephemeris.pool.size</code> idle engines and closes the ones
+ * which were idle longer than <code>ephemeris.pool.idle</code> seconds.
+ * With <code>ephemeris.pool.mapping</code> the engines read memory mapped ephemeris files,
+ * every file is mapped once for all engines, see {@link swisseph.SwissEph#setFileMapping(boolean)}.
+ *
+ * A worker thread may attach an engine to itself for a longer run of calculations. While attached,
+ * every borrow on that thread returns the attached engine and every release of it is ignored.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class EphemerisPool {
+
+	private static final String SETTINGS = "/settings.properties";
+	private static final int DEFAULT_SIZE = 8;
+	private static final long DEFAULT_IDLE = 300; // seconds
+
+	private static final EphemerisPool INSTANCE = createDefault();
+
+	private final String pathToEphemeris;
+	private final int maxIdle;
+	private final long maxIdleMillis;
+	private final boolean fileMapping;
+
+	private final Deque<PooledEngine> idle = new ArrayDeque<PooledEngine>();
+	private final ThreadLocal<SwissEph> attached = new ThreadLocal<SwissEph>();
+	private int created = 0;
+
+	/**
+	 * Creates pool.
+	 *
+	 * @param pathToEphemeris The search path for the Swiss Ephemeris data files.
+	 * @param maxIdle The maximum number of idle engines kept in the pool.
+	 * @param maxIdleMillis The time in milliseconds after which an idle engine is closed.
+	 */
+	public EphemerisPool(String pathToEphemeris, int maxIdle, long maxIdleMillis) {
+		this(pathToEphemeris, maxIdle, maxIdleMillis, false);
+	}
+
+	/**
+	 * Creates pool.
+	 *
+	 * @param pathToEphemeris The search path for the Swiss Ephemeris data files.
+	 * @param maxIdle The maximum number of idle engines kept in the pool.
+	 * @param maxIdleMillis The time in milliseconds after which an idle engine is closed.
+	 * @param fileMapping True if the engines should read memory mapped ephemeris files.
+	 */
+	public EphemerisPool(String pathToEphemeris, int maxIdle, long maxIdleMillis, boolean fileMapping) {
+		if( maxIdle < 0 ) {
+			throw new IllegalArgumentException( "Pool size must not be negative: " + maxIdle);
+		}
+		this.pathToEphemeris = pathToEphemeris;
+		this.maxIdle = maxIdle;
+		this.maxIdleMillis = maxIdleMillis;
+		this.fileMapping = fileMapping;
+	}
+
+	/**
+	 * @return Returns the pool configured by settings.properties.
+	 */
+	public static EphemerisPool getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Borrows an engine. The engine has to be given back by {@link #release(SwissEph)}.
+	 *
+	 * @return The engine attached to the current thread, the most recently used idle engine or a new one if the pool is empty.
+	 */
+	public SwissEph borrow() {
+		SwissEph own = attached.get();
+		if( own != null ) {
+			return own;
+		}
+
+		synchronized (idle) {
+			evictIdle( System.currentTimeMillis() );
+			PooledEngine engine = idle.pollFirst();
+			if( engine != null ) {
+				return engine.sw;
+			}
+			created++;
+		}
+		SwissEph sw = new SwissEph( pathToEphemeris );
+		if( fileMapping ) {
+			sw.setFileMapping(true);
+		}
+		return sw;
+	}
+
+	/**
+	 * Gives the engine back to the pool.
+	 *
+	 * @param sw The engine from {@link #borrow()}. Null is ignored.
+	 */
+	public void release(SwissEph sw) {
+		if( sw == null || sw == attached.get() ) {
+			return;
+		}
+
+		SwissEph surplus = null;
+		synchronized (idle) {
+			long now = System.currentTimeMillis();
+			idle.addFirst( new PooledEngine(sw, now) );
+			if( idle.size() > maxIdle ) {
+				surplus = idle.pollLast().sw;
+			}
+			evictIdle( now );
+		}
+
+		if( surplus != null ) {
+			surplus.swe_close();
+		}
+	}
+
+	/**
+	 * Attaches an engine to the current thread until {@link #detach()}.
+	 *
+	 * @return True if the engine was attached, false if the thread already has one.
+	 */
+	boolean attach() {
+		if( attached.get() != null ) {
+			return false;
+		}
+		attached.set( borrow() );
+		return true;
+	}
+
+	/**
+	 * Gives the engine attached to the current thread back to the pool.
+	 */
+	void detach() {
+		SwissEph sw = attached.get();
+		attached.remove();
+		release(sw);
+	}
+
+	/**
+	 * Reads all ephemeris data of the planets in the date range into memory.
+	 * Calculations of all engines within the range do not read the ephemeris files after that,
+	 * e.g. a batch of charts of people born 1940 - 2010.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT).
+	 * @param planets List of planets. Constants of planets are in {@link swisseph.SweConst}.
+	 * @return Returns the preloaded window with the memory used. Release it when the batch is done.
+	 * @throws swisseph.SwissephException if an ephemeris file is not available.
+	 */
+	public EphemerisWindow preload(LocalDateTime start, LocalDateTime end, List<Integer> planets) {
+		if( end.isBefore(start) ) {
+			throw new IllegalArgumentException( "End " + end + " is before start " + start);
+		}
+
+		int[] ipl = new int[planets.size()];
+		for(int i = 0; i < ipl.length; i++) {
+			ipl[i] = planets.get(i);
+		}
+
+		double jdStart = Ephemeris.julianDay(start);
+		double jdEnd = Ephemeris.julianDay(end);
+
+		SwissEph sw = borrow();
+		try {
+			return sw.swe_preload(jdStart + SweDate.getDeltaT(jdStart), jdEnd + SweDate.getDeltaT(jdEnd), ipl);
+		} finally {
+			release(sw);
+		}
+	}
+
+	/**
+	 * Closes all idle engines.
+	 */
+	public void clear() {
+		synchronized (idle) {
+			for (PooledEngine engine : idle) {
+				engine.sw.swe_close();
+			}
+			idle.clear();
+		}
+	}
+
+	/**
+	 * @return Returns the number of idle engines.
+	 */
+	public int getIdleCount() {
+		synchronized (idle) {
+			return idle.size();
+		}
+	}
+
+	/**
+	 * @return Returns the number of engines created by this pool.
+	 */
+	public int getCreatedCount() {
+		synchronized (idle) {
+			return created;
+		}
+	}
+
+	/**
+	 * @return Returns the search path for the Swiss Ephemeris data files.
+	 */
+	public String getPathToEphemeris() {
+		return pathToEphemeris;
+	}
+
+	/**
+	 * @return Returns true if the engines read memory mapped ephemeris files.
+	 */
+	public boolean isFileMapping() {
+		return fileMapping;
+	}
+
+	// Idle engines are ordered from the most recently used, so expired ones are at the end.
+	private void evictIdle(long now) {
+		Iterator<PooledEngine> it = idle.descendingIterator();
+		while( it.hasNext() ) {
+			PooledEngine engine = it.next();
+			if( now - engine.released < maxIdleMillis ) {
+				break;
+			}
+			it.remove();
+			engine.sw.swe_close();
+		}
+	}
+
+	private static EphemerisPool createDefault() {
+		Properties settings = new Properties();
+
+		try ( InputStream in = EphemerisPool.class.getResourceAsStream(SETTINGS) ) {
+			settings.load( in );
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		int size = Integer.parseInt( settings.getProperty("ephemeris.pool.size", String.valueOf(DEFAULT_SIZE)).trim() );
+		long idle = Long.parseLong( settings.getProperty("ephemeris.pool.idle", String.valueOf(DEFAULT_IDLE)).trim() );
+
+		boolean mapping = Boolean.parseBoolean( settings.getProperty("ephemeris.pool.mapping", "false").trim() );
+
+		return new EphemerisPool( settings.getProperty("ephemeris.path"), size, idle * 1000, mapping );
+	}
+
+	private static class PooledEngine {
+
+		private final SwissEph sw;
+		private final long released;
+
+		PooledEngine(SwissEph sw, long released) {
+			this.sw = sw;
+			this.released = released;
+		}
+	}
+}
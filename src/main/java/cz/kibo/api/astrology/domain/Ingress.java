@@ -0,0 +1,106 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import swisseph.SweDate;
+
+/**
+ * One ingress found by {@link IngressCalendar}: the body enters a sign or a house.
+ *
+ * All time events are in Universal Time (UT).
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class Ingress implements Comparable<Ingress>{
+
+	private final int planet;
+	private final int index;
+	private final double julianDay;
+	private final boolean retrograde;
+
+	Ingress(int planet, int index, double julianDay, boolean retrograde) {
+		this.planet = planet;
+		this.index = index;
+		this.julianDay = julianDay;
+		this.retrograde = retrograde;
+	}
+
+	/**
+	 * @return Returns the body. Constants of planets are in {@link swisseph.SweConst}.
+	 */
+	public int getPlanet() {
+		return this.planet;
+	}
+
+	/**
+	 * @return Returns the index of the entered sign, 0 for Aries, or the index of the entered house, 0 for the house starting at the first cusp.
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * @return Returns the Julian day of the ingress in Universal Time (UT).
+	 */
+	public double getJulianDay() {
+		return this.julianDay;
+	}
+
+	/**
+	 * @return Returns true if the body is retrograde and enters the sign or the house from its end.
+	 */
+	public boolean isRetrograde() {
+		return this.retrograde;
+	}
+
+	public LocalDateTime getDate() {
+		SweDate sweDate = new SweDate(this.julianDay, SweDate.SE_GREG_CAL);
+		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
+	}
+
+	@Override
+	public int compareTo(Ingress other) {
+		int result = Double.compare(this.julianDay, other.julianDay);
+		return result == 0 ? Integer.compare(this.planet, other.planet) : result;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		result = prime * result + planet;
+		result = prime * result + index;
+		temp = Double.doubleToLongBits(julianDay);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + (retrograde ? 1231 : 1237);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Ingress other = (Ingress) obj;
+		if (planet != other.planet)
+			return false;
+		if (index != other.index)
+			return false;
+		if (Double.doubleToLongBits(julianDay) != Double.doubleToLongBits(other.julianDay))
+			return false;
+		if (retrograde != other.retrograde)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "UTC: " + getDate() + ", " + this.planet + " enters " + this.index + (this.retrograde ? ", retrograde" : "");
+	}
+}
@@ -0,0 +1,265 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Calendar of all ingresses of bodies into the signs or into the houses of a chart in a date range.
+ *
+ * All bodies are calculated once per step and every crossing of a boundary between two steps is an ingress.
+ * A station of the body within the step splits the step first, so a retrograde body leaving a sign and entering
+ * it again is reported at each crossing. A retrograde crossing enters the sign or the house from its end.
+ *
+ * The ingresses are found lazily, step by step, and come in time order.
+ * All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	for( Ingress ingress : new IngressCalendar(start, start.plusYears(1), bodies, null, 0) ) {
+ *		System.out.println( ingress );
+ *	}
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class IngressCalendar extends Ephemeris implements Iterable<Ingress>{
+
+	// Accuracy of the ingress, about 0.01 second.
+	private static final double TIME_PRECISION = 1e-7;
+	// The station splits the step only, it does not need the full precision.
+	private static final double STATION_PRECISION = 1e-4;
+
+	private static final double[] SIGNS = {0, 30, 60, 90, 120, 150, 180, 210, 240, 270, 300, 330};
+
+	private final LocalDateTime start;
+	private final LocalDateTime end;
+	private final int[] bodies;
+	private final double[] cusps;
+	private final Coordinates coords;
+	private final int iflag;
+	private final double step;
+
+	/**
+	 * Ingresses into the signs.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param bodies List of the bodies. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public IngressCalendar( LocalDateTime start, LocalDateTime end, List<Integer> bodies, Coordinates coords, int iflag) {
+		this( start, end, bodies, SIGNS, coords, iflag);
+	}
+
+	/**
+	 * Ingresses into the houses, for example the cusps of a natal chart from {@link Cusp#getCusp(int)}.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param bodies List of the bodies. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param cusps The cusps in the order of the houses, from 0 to 360 degrees. The house of the index starts at the cusp of the index.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public IngressCalendar( LocalDateTime start, LocalDateTime end, List<Integer> bodies, double[] cusps, Coordinates coords, int iflag) {
+		super();
+
+		if( end.isBefore(start) ) {
+			throw new IllegalArgumentException( "End " + end + " is before start " + start);
+		}
+		if( bodies.isEmpty() ) {
+			throw new IllegalArgumentException( "No bodies.");
+		}
+		if( cusps.length == 0 ) {
+			throw new IllegalArgumentException( "No cusps.");
+		}
+		for(double cusp : cusps) {
+			if( cusp < 0 || cusp >= 360 ) {
+				throw new IllegalArgumentException( "Cusp must be from 0 to 360: " + cusp);
+			}
+		}
+
+		this.start = start;
+		this.end = end;
+		this.bodies = Planet.planetIds(bodies);
+		this.cusps = cusps.clone();
+		this.coords = coords;
+		this.iflag = iflag;
+		this.step = bodies.contains(SweConst.SE_MOON) ? 0.25 : 1.0;
+	}
+
+	/**
+	 * Returns the iterator over the ingresses. No engine is held between two steps, so the walk may stop at any time.
+	 */
+	@Override
+	public Iterator<Ingress> iterator() {
+		return new CalendarIterator();
+	}
+
+	public LocalDateTime getStart() {
+		return this.start;
+	}
+
+	public LocalDateTime getEnd() {
+		return this.end;
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + this.start + " - " + this.end + ", bodies: " + this.bodies.length + ", cusps: " + this.cusps.length + " ]";
+	}
+
+	private class CalendarIterator implements Iterator<Ingress> {
+
+		private final double jdEnd = getJulianDay(end);
+		private final double[] xx = new double[6];
+		private final StringBuffer serr = new StringBuffer();
+		private final List<Ingress> pending = new ArrayList<Ingress>();
+		private int index = 0;
+		private double jd = getJulianDay(start);
+		private double[] lon = new double[bodies.length];
+		private double[] speed = new double[bodies.length];
+		private double[] nextLon = new double[bodies.length];
+		private double[] nextSpeed = new double[bodies.length];
+		private boolean started = false;
+		private SwissEph sw;
+		private int flags;
+		private boolean done = false;
+
+		@Override
+		public boolean hasNext() {
+			while( index == pending.size() && !done ) {
+				open();
+				try {
+					step();
+				} catch (RuntimeException e) {
+					done = true;
+					throw e;
+				} finally {
+					close();
+				}
+			}
+			return index < pending.size();
+		}
+
+		@Override
+		public Ingress next() {
+			if( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			return pending.get(index++);
+		}
+
+		private void step() {
+			if( !started ) {
+				calcAll(jd, lon, speed);
+				started = true;
+			}
+
+			pending.clear();
+			index = 0;
+
+			if( jd >= jdEnd ) {
+				done = true;
+				return;
+			}
+
+			double next = Math.min(jd + step, jdEnd);
+			calcAll(next, nextLon, nextSpeed);
+
+			for(int i = 0; i < bodies.length; i++) {
+				if( (speed[i] < 0) != (nextSpeed[i] < 0) ) {
+					// The body stops within the step, both sides are monotonic.
+					double station = station(i, jd, speed[i], next, nextSpeed[i]);
+					double longitude = xx[0];
+					crossings(i, jd, lon[i], station, longitude);
+					crossings(i, station, longitude, next, nextLon[i]);
+				} else {
+					crossings(i, jd, lon[i], next, nextLon[i]);
+				}
+			}
+
+			Collections.sort(pending);
+
+			double[] swap = lon;
+			lon = nextLon;
+			nextLon = swap;
+			swap = speed;
+			speed = nextSpeed;
+			nextSpeed = swap;
+			jd = next;
+		}
+
+		private void calcAll(double jd, double[] lon, double[] speed) {
+			for(int i = 0; i < bodies.length; i++) {
+				calc(jd, bodies[i]);
+				lon[i] = xx[0];
+				speed[i] = xx[3];
+			}
+		}
+
+		private void calc(double jd, int body) {
+			if( sw.swe_calc_ut(jd, body, flags, xx, serr) < 0 ) {
+				throw new IllegalArgumentException( "Calculation of body " + body + " failed: " + serr);
+			}
+		}
+
+		// False position on the speed. Leaves the position of the station in the buffer.
+		private double station(int i, double a, double sa, double b, double sb) {
+			return RootFinder.falsePosition(t -> {
+				calc(t, bodies[i]);
+				return xx[3];
+			}, a, sa, b, sb, STATION_PRECISION);
+		}
+
+		// The longitude is monotonic between the dates.
+		private void crossings(int i, double from, double fromLongitude, double to, double toLongitude) {
+			for(int k = 0; k < cusps.length; k++) {
+				double cusp = cusps[k];
+				double d1 = Angles.signed(fromLongitude - cusp);
+				double d2 = Angles.signed(toLongitude - cusp);
+
+				if( (d1 < 0) != (d2 < 0) && Math.abs(d2 - d1) < 180 ) {
+					double exact = RootFinder.newton(t -> {
+						calc(t, bodies[i]);
+						return Angles.signed(xx[0] - cusp);
+					}, () -> xx[3], from, d1, to, d2, TIME_PRECISION);
+					boolean retrograde = d2 < d1;
+					pending.add( new Ingress(bodies[i], retrograde ? (k + cusps.length - 1) % cusps.length : k, exact, retrograde) );
+				}
+			}
+		}
+
+		// The engine is borrowed for one step only.
+		private void open() {
+			sw = borrowEngine();
+			flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+
+			if( coords != null ) {
+				sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+				flags |= SweConst.SEFLG_TOPOCTR;
+			}
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+		}
+
+		private void close() {
+			releaseEngine(sw);
+			sw = null;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import swisseph.SweDate;
+
+/**
+ * One time interval of an {@link IntervalSet}, the start is inclusive, the end exclusive.
+ *
+ * All time events are in Universal Time (UT).
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class Interval {
+
+	private final double from;
+	private final double to;
+
+	Interval(double from, double to) {
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * @return Returns the Julian day of the start in Universal Time (UT).
+	 */
+	public double getStartJulianDay() {
+		return this.from;
+	}
+
+	/**
+	 * @return Returns the Julian day of the end in Universal Time (UT).
+	 */
+	public double getEndJulianDay() {
+		return this.to;
+	}
+
+	public LocalDateTime getStart() {
+		return getDate(this.from);
+	}
+
+	public LocalDateTime getEnd() {
+		return getDate(this.to);
+	}
+
+	/**
+	 * @return Returns the length of the interval in days.
+	 */
+	public double getDays() {
+		return this.to - this.from;
+	}
+
+	private static LocalDateTime getDate(double julianDay) {
+		SweDate sweDate = new SweDate(julianDay, SweDate.SE_GREG_CAL);
+		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		temp = Double.doubleToLongBits(from);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(to);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Interval other = (Interval) obj;
+		if (Double.doubleToLongBits(from) != Double.doubleToLongBits(other.from))
+			return false;
+		if (Double.doubleToLongBits(to) != Double.doubleToLongBits(other.to))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + getStart() + " - " + getEnd() + " ]";
+	}
+}
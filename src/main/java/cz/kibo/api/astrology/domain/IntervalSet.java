@@ -0,0 +1,225 @@
+package cz.kibo.api.astrology.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable set of disjoint time intervals, kept as one sorted array of Julian days: start, end, start, end, ...
+ * The starts are inclusive, the ends exclusive. The set operations merge the arrays in linear time.
+ *
+ * All time events are in Universal Time (UT).
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class IntervalSet {
+
+	private static final IntervalSet EMPTY = new IntervalSet(new double[0]);
+
+	private final double[] bounds;
+
+	private IntervalSet(double[] bounds) {
+		this.bounds = bounds;
+	}
+
+	/**
+	 * @return Returns the empty set.
+	 */
+	public static IntervalSet empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @param from The Julian day of the start in Universal Time (UT).
+	 * @param to The Julian day of the end in Universal Time (UT).
+	 * @return Returns the set of one interval, the empty set if the interval is empty.
+	 */
+	public static IntervalSet of(double from, double to) {
+		return from < to ? new IntervalSet(new double[] {from, to}) : EMPTY;
+	}
+
+	/**
+	 * Creates the set from the moments when a condition changes, for example the stations of a planet for the retrograde motion.
+	 *
+	 * @param from The Julian day of the start of the range in Universal Time (UT).
+	 * @param to The Julian day of the end of the range in Universal Time (UT).
+	 * @param initial True if the condition holds at the start of the range.
+	 * @param changes The sorted Julian days of the changes in Universal Time (UT). The changes out of the range are skipped.
+	 * @return Returns the intervals of the range where the condition holds.
+	 */
+	public static IntervalSet ofChanges(double from, double to, boolean initial, double[] changes) {
+		double[] bounds = new double[changes.length + 2];
+		int count = 0;
+		boolean state = initial;
+
+		if( state ) {
+			bounds[count++] = from;
+		}
+		for(double jd : changes) {
+			if( jd <= from || jd >= to ) {
+				continue;
+			}
+			bounds[count++] = jd;
+			state = !state;
+		}
+		if( state ) {
+			bounds[count++] = to;
+		}
+
+		return new IntervalSet(Arrays.copyOf(bounds, count)).normalized();
+	}
+
+	/**
+	 * @param other The other set.
+	 * @return Returns the intervals in both sets.
+	 */
+	public IntervalSet intersect(IntervalSet other) {
+		return merge(other, true);
+	}
+
+	/**
+	 * @param other The other set.
+	 * @return Returns the intervals in any of the sets.
+	 */
+	public IntervalSet union(IntervalSet other) {
+		return merge(other, false);
+	}
+
+	/**
+	 * @param from The Julian day of the start of the range in Universal Time (UT).
+	 * @param to The Julian day of the end of the range in Universal Time (UT).
+	 * @return Returns the intervals of the range out of this set.
+	 */
+	public IntervalSet complement(double from, double to) {
+		return of(from, to).merge(this, true, false);
+	}
+
+	/**
+	 * @param jd The Julian day in Universal Time (UT).
+	 * @return Returns true if the Julian day is in one of the intervals.
+	 */
+	public boolean contains(double jd) {
+		int found = Arrays.binarySearch(this.bounds, jd);
+		// Inside if the number of the bounds at or before the day is odd.
+		return found >= 0 ? found % 2 == 0 : (-found - 1) % 2 == 1;
+	}
+
+	public boolean isEmpty() {
+		return this.bounds.length == 0;
+	}
+
+	/**
+	 * @return Returns the number of the intervals.
+	 */
+	public int size() {
+		return this.bounds.length / 2;
+	}
+
+	/**
+	 * @return Returns the length of all intervals in days.
+	 */
+	public double getDays() {
+		double days = 0;
+		for(int i = 0; i < this.bounds.length; i += 2) {
+			days += this.bounds[i + 1] - this.bounds[i];
+		}
+		return days;
+	}
+
+	/**
+	 * @return Returns the intervals in time order.
+	 */
+	public List<Interval> getIntervals() {
+		List<Interval> list = new ArrayList<Interval>(size());
+		for(int i = 0; i < this.bounds.length; i += 2) {
+			list.add( new Interval(this.bounds[i], this.bounds[i + 1]) );
+		}
+		return list;
+	}
+
+	private IntervalSet merge(IntervalSet other, boolean both) {
+		return merge(other, both, true);
+	}
+
+	// Sweep over the bounds of both sets, the state of each set toggles at its bounds.
+	private IntervalSet merge(IntervalSet other, boolean both, boolean otherInside) {
+		double[] a = this.bounds;
+		double[] b = other.bounds;
+		double[] result = new double[a.length + b.length];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		boolean inA = false;
+		boolean inB = false;
+		boolean in = false;
+
+		while( i < a.length || j < b.length ) {
+			double jd;
+			if( j == b.length || (i < a.length && a[i] <= b[j]) ) {
+				jd = a[i++];
+				inA = !inA;
+			} else {
+				jd = b[j++];
+				inB = !inB;
+			}
+			// Apply all bounds at the same moment before the state is tested.
+			while( i < a.length && a[i] == jd ) {
+				i++;
+				inA = !inA;
+			}
+			while( j < b.length && b[j] == jd ) {
+				j++;
+				inB = !inB;
+			}
+
+			boolean inOther = inB == otherInside;
+			boolean now = both ? inA && inOther : inA || inOther;
+			if( now != in ) {
+				result[count++] = jd;
+				in = now;
+			}
+		}
+
+		return new IntervalSet(Arrays.copyOf(result, count)).normalized();
+	}
+
+	// Drops the intervals of zero length.
+	private IntervalSet normalized() {
+		double[] result = new double[this.bounds.length];
+		int count = 0;
+		for(int i = 0; i < this.bounds.length; i += 2) {
+			if( this.bounds[i] < this.bounds[i + 1] ) {
+				if( count > 0 && result[count - 1] == this.bounds[i] ) {
+					count--;
+				} else {
+					result[count++] = this.bounds[i];
+				}
+				result[count++] = this.bounds[i + 1];
+			}
+		}
+		return count == 0 ? EMPTY : new IntervalSet(count == this.bounds.length ? this.bounds : Arrays.copyOf(result, count));
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(bounds);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IntervalSet other = (IntervalSet) obj;
+		return Arrays.equals(bounds, other.bounds);
+	}
+
+	@Override
+	public String toString() {
+		return getIntervals().toString();
+	}
+}
@@ -2,18 +2,22 @@ package cz.kibo.api.astrology.domain;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import cz.kibo.api.astrology.json.Convertor;
 import swisseph.SweConst;
-import swisseph.SweDate;
 import swisseph.SwissEph;
 
 /**
  * Representation of planet ephemeris at a certain date and time.
  * 
+ * Positions are kept as a flat array with all six swe_calc components for each planet:
+ * longitude, latitude, distance and their speeds. The {@link #getPlanets()} map is built on first use.
+ * 
  * All time events - input and output - are in Universal Time (UT).
  * This class should not be used alone. Use {@link cz.kibo.api.astrology.builder.PlanetBuilder} to create the correct instance of this class.
  * 
@@ -21,16 +25,30 @@ import swisseph.SwissEph;
  *
  */
 public class Planet extends Ephemeris{
-		
+	
+	/** Index of longitude in the components of one planet. */
+	public static final int LONGITUDE = 0;
+	/** Index of latitude in the components of one planet. */
+	public static final int LATITUDE = 1;
+	/** Index of distance in AU in the components of one planet. */
+	public static final int DISTANCE = 2;
+	/** Index of speed in longitude (deg/day) in the components of one planet. */
+	public static final int LONGITUDE_SPEED = 3;
+	/** Index of speed in latitude (deg/day) in the components of one planet. */
+	public static final int LATITUDE_SPEED = 4;
+	/** Index of speed in distance (AU/day) in the components of one planet. */
+	public static final int DISTANCE_SPEED = 5;
+	/** Number of components of one planet. */
+	public static final int COMPONENTS = 6;
+	
+	private final int[] planetIds;
+	private final String[] planetNames;
+	private final double[] positions;
 	private Map<String, List<Double>> planetsPositions;
 	
 	private final LocalDateTime event;	
-	private List<Integer> planets;	
 	private Coordinates coords;
 	private int iflag;
-		
-	private SwissEph sw;
-	private SweDate sd;
 	
 	
 	/**
@@ -44,18 +62,21 @@ public class Planet extends Ephemeris{
 	public Planet( LocalDateTime event, List<Integer> planets, int iflag) {
 		super();
 		this.event = event;
-		this.planets = planets;
+		this.planetIds = planetIds(planets);
 		this.iflag = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
 		
-		sw = new SwissEph( super.getPathToEphemeris() );
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/360.0, SweDate.SE_GREG_CAL);
-		
-		if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( iflag & 0x00FF );		
-			this.iflag |= SweConst.SEFLG_SIDEREAL;	
+		SwissEph sw = super.borrowEngine();
+		try {
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );		
+				this.iflag |= SweConst.SEFLG_SIDEREAL;	
+			}
+			
+			this.planetNames = planetNames(sw, this.planetIds);
+			this.positions = calculatePlanets( this.planetIds, sw, super.getJulianDay(event), this.iflag);
+		} finally {
+			super.releaseEngine(sw);
 		}
-		
-		this.planetsPositions = calculatePlanets( planets, sw, sd, this.iflag);			
 	}
 	
 	/**
@@ -71,25 +92,133 @@ public class Planet extends Ephemeris{
 	public Planet( LocalDateTime event, List<Integer> planets, Coordinates coords, int iflag ) {
 		super();
 		this.event = event;
-		this.planets = planets;
+		this.planetIds = planetIds(planets);
 		this.coords = coords;
 		this.iflag = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED | SweConst.SEFLG_TOPOCTR;
 		
-		sw = new SwissEph( getPathToEphemeris() );
-		sw.swe_set_topo(this.coords.getLongitude(), this.coords.getLatitude(), this.coords.getGeoalt());
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/360.0, SweDate.SE_GREG_CAL);
+		SwissEph sw = super.borrowEngine();
+		try {
+			sw.swe_set_topo(this.coords.getLongitude(), this.coords.getLatitude(), this.coords.getGeoalt());
+			
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				this.iflag |= SweConst.SEFLG_SIDEREAL;
+			}
+			
+			this.planetNames = planetNames(sw, this.planetIds);
+			this.positions = calculatePlanets( this.planetIds, sw, super.getJulianDay(event), this.iflag);
+		} finally {
+			super.releaseEngine(sw);
+		}
+	}
+	
+	/**
+	 * Calculates planets positions with an engine which is already set up for the flags.
+	 * Used by batch calculations sharing one engine, one flag resolution and one planet array.
+	 * 
+	 * @param event The date and the time of the event in Universal Time (UT).
+	 * @param planetIds Planets for position calculation. The array is shared, not copied.
+	 * @param planetNames Names of the planets. The array is shared, not copied.
+	 * @param coords longitude, latitude, geoalt for topocentric or null for geocentric. 
+	 * @param iflag Resolved flags for swe_calc_ut.
+	 * @param sw The engine with sidereal mode and topocentric position already set.
+	 */
+	Planet( LocalDateTime event, int[] planetIds, String[] planetNames, Coordinates coords, int iflag, SwissEph sw ) {
+		super();
+		this.event = event;
+		this.planetIds = planetIds;
+		this.planetNames = planetNames;
+		this.coords = coords;
+		this.iflag = iflag;
+		this.positions = calculatePlanets( planetIds, sw, super.getJulianDay(event), this.iflag);
+	}
+	
+	/**
+	 * Planets positions as map. The key is the planet name, the value is the longitude and the speed in longitude.
+	 * The map is built on the first call from the primitive positions.
+	 * 
+	 * @return
+	 */
+	public Map<String, List<Double>> getPlanets() {
+		Map<String, List<Double>> data = this.planetsPositions;
 		
-		if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( iflag & 0x00FF );
-			this.iflag |= SweConst.SEFLG_SIDEREAL;
+		if( data == null ) {
+			data = new LinkedHashMap<String, List<Double>>();
+			for(int i = 0, ln = planetIds.length; i < ln; i++) {
+				List<Double> values = new ArrayList<Double>(2);
+				values.add( getPosition(i, LONGITUDE) );
+				values.add( getPosition(i, LONGITUDE_SPEED) );
+				data.put( planetNames[i], Collections.unmodifiableList(values) );
+			}
+			data = Collections.unmodifiableMap(data);
+			this.planetsPositions = data;
 		}
 		
-		this.planetsPositions = calculatePlanets( planets, sw, sd, this.iflag);			
+		return data;
 	}
 	
-	public Map<String, List<Double>> getPlanets() {
-		return this.planetsPositions;
-	}	
+	/**
+	 * @return Returns the number of calculated planets.
+	 */
+	public int size() {
+		return this.planetIds.length;
+	}
+	
+	/**
+	 * @return Returns the planets in the order of calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 */
+	public int[] getPlanetIds() {
+		return this.planetIds.clone();
+	}
+	
+	/**
+	 * @param index The index of the planet in the order of calculation.
+	 * @return Returns the planet constant from {@link swisseph.SweConst}.
+	 */
+	public int getPlanetId(int index) {
+		return this.planetIds[index];
+	}
+	
+	/**
+	 * @param index The index of the planet in the order of calculation.
+	 * @return Returns the planet name.
+	 */
+	public String getPlanetName(int index) {
+		return this.planetNames[index];
+	}
+	
+	/**
+	 * @param index The index of the planet in the order of calculation.
+	 * @param component One of {@link #LONGITUDE}, {@link #LATITUDE}, {@link #DISTANCE}, {@link #LONGITUDE_SPEED}, {@link #LATITUDE_SPEED}, {@link #DISTANCE_SPEED}.
+	 * @return Returns the component of the planet position.
+	 */
+	public double getPosition(int index, int component) {
+		return this.positions[index * COMPONENTS + component];
+	}
+	
+	/**
+	 * Returns all positions as one flat array, {@link #COMPONENTS} values for each planet in the order of calculation.
+	 * 
+	 * @return Returns the copy of positions.
+	 */
+	public double[] getPositions() {
+		return this.positions.clone();
+	}
+	
+	/**
+	 * Copies all positions to the array.
+	 * 
+	 * @param dest The destination array.
+	 * @param offset The start position in the destination array.
+	 */
+	public void copyPositions(double[] dest, int offset) {
+		System.arraycopy(this.positions, 0, dest, offset, this.positions.length);
+	}
+	
+	// The positions without copy, for calculations in this package only.
+	double[] positions() {
+		return this.positions;
+	}
 	
 	public Coordinates getCoordinates() {		
 		return new Coordinates(this.coords.getLatitude(), this.coords.getLongitude(), this.coords.getGeoalt());
@@ -108,15 +237,15 @@ public class Planet extends Ephemeris{
 		return convertor.getJSON().toString();
 	}
 
-	private Map<String, List<Double>> calculatePlanets( List<Integer> planets, SwissEph calculator, SweDate date, int flags ) {
-		Map<String, List<Double>> data = new HashMap<String, List<Double>>();
+	private double[] calculatePlanets( int[] planets, SwissEph calculator, double julDay, int flags ) {
+		double[] data = new double[planets.length * COMPONENTS];
+		double[] xp = new double[COMPONENTS];
+		StringBuffer serr = new StringBuffer();
 						
-		for (Integer planet : planets) {
+		for(int i = 0, ln = planets.length; i < ln; i++) {
 			
-			double[] xp= new double[6];
-			StringBuffer serr = new StringBuffer();
-			int ret = sw.swe_calc_ut(date.getJulDay(),
-					planet,
+			int ret = calculator.swe_calc_ut(julDay,
+					planets[i],
 					flags,
 					xp,
 					serr);
@@ -130,24 +259,37 @@ public class Planet extends Ephemeris{
 			}
 								
 			// @see swisseph.SwissEph.swe_calc
-			List<Double> values = new ArrayList<Double>();
-			values.add(xp[0]); //longitude
-			values.add(xp[3]); //speed in longitude
-			
-			data.put( getPlanetName(planet), values);			
+			System.arraycopy(xp, 0, data, i * COMPONENTS, COMPONENTS);
 		}
 								
 		return data;
 	}
 	
+	static int[] planetIds( List<Integer> planets ) {
+		int[] ids = new int[planets.size()];
+		for(int i = 0, ln = ids.length; i < ln; i++) {
+			ids[i] = planets.get(i);
+		}
+		return ids;
+	}
+	
+	static String[] planetNames( SwissEph calculator, int[] planets ) {
+		String[] names = new String[planets.length];
+		for(int i = 0, ln = names.length; i < ln; i++) {
+			names[i] = getPlanetName(calculator, planets[i]);
+		}
+		return names;
+	}
+	
 	/*
+	 * @param calculator
 	 * @param planet - int from swisseph.SweConst
 	 * 
 	 * @see swisseph.SwissEph.swe_get_planet_name(int ipl)	
 	 */
-	private String getPlanetName(int planet) {	
+	private static String getPlanetName(SwissEph calculator, int planet) {	
 				
-		String name = sw.swe_get_planet_name(planet);
+		String name = calculator.swe_get_planet_name(planet);
 		
 		if(planet == SweConst.SE_MEAN_APOG){
 			name = "Lilith";
@@ -165,7 +307,8 @@ public class Planet extends Ephemeris{
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((event == null) ? 0 : event.hashCode());
-		result = prime * result + ((planetsPositions == null) ? 0 : planetsPositions.hashCode());
+		result = prime * result + Arrays.hashCode(planetIds);
+		result = prime * result + Arrays.hashCode(positions);
 		return result;
 	}
 
@@ -183,10 +326,9 @@ public class Planet extends Ephemeris{
 				return false;
 		} else if (!event.equals(other.event))
 			return false;
-		if (planetsPositions == null) {
-			if (other.planetsPositions != null)
-				return false;
-		} else if (!planetsPositions.equals(other.planetsPositions))
+		if (!Arrays.equals(planetIds, other.planetIds))
+			return false;
+		if (!Arrays.equals(positions, other.positions))
 			return false;
 		return true;
 	}
@@ -202,7 +344,7 @@ public class Planet extends Ephemeris{
 			sb.append(" ]\n");
 		}
 					
-		for (Map.Entry<String, List<Double>> planet : this.planetsPositions.entrySet()){
+		for (Map.Entry<String, List<Double>> planet : getPlanets().entrySet()){
 			sb.append(planet.getKey() + ": " + planet.getValue() +"\n");
 		}					
 		
@@ -0,0 +1,105 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Representation of planet ephemeris for many events calculated in one call.
+ *
+ * All charts of the batch share one engine, one flag resolution and one array of planets.
+ * All time events - input and output - are in Universal Time (UT).
+ * This class should not be used alone. Use {@link cz.kibo.api.astrology.builder.PlanetBuilder#buildAll()} to create the correct instance of this class.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class PlanetBatch extends Ephemeris{
+
+	private final List<Planet> charts;
+
+	/**
+	 * Calculates planets positions for each event. Planets in geocentric coordinate system.
+	 *
+	 * @param events The dates and the times of the events in Universal Time (UT).
+	 * @param planets List of planets for position calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public PlanetBatch( List<LocalDateTime> events, List<Integer> planets, int iflag) {
+		this( events, planets, null, iflag);
+	}
+
+	/**
+	 * Calculates planets positions for each event. Planets in topocentric cordinate system.
+	 *
+	 * @param events The dates and the times of the events in Universal Time (UT).
+	 * @param planets List of planets for position calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param coords longitude, latitude, geoalt for topocentric, one for each event. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public PlanetBatch( List<LocalDateTime> events, List<Integer> planets, List<Coordinates> coords, int iflag) {
+		super();
+
+		if( coords != null && coords.size() != events.size() ) {
+			throw new IllegalArgumentException( "Expected " + events.size() + " coordinates, got " + coords.size());
+		}
+
+		int flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+		if( coords != null ) {
+			flags |= SweConst.SEFLG_TOPOCTR;
+		}
+
+		int[] planetIds = Planet.planetIds(planets);
+		List<Planet> data = new ArrayList<Planet>( events.size() );
+
+		SwissEph sw = super.borrowEngine();
+		try {
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			String[] planetNames = Planet.planetNames(sw, planetIds);
+			Coordinates lastCoords = null;
+			for(int i = 0, ln = events.size(); i < ln; i++) {
+				Coordinates eventCoords = null;
+
+				if( coords != null ) {
+					eventCoords = coords.get(i);
+					if( !eventCoords.equals(lastCoords) ) {
+						sw.swe_set_topo(eventCoords.getLongitude(), eventCoords.getLatitude(), eventCoords.getGeoalt());
+						lastCoords = eventCoords;
+					}
+				}
+
+				data.add( new Planet(events.get(i), planetIds, planetNames, eventCoords, flags, sw) );
+			}
+		} finally {
+			super.releaseEngine(sw);
+		}
+
+		this.charts = Collections.unmodifiableList(data);
+	}
+
+	/**
+	 * @return Returns the charts in the order of the events.
+	 */
+	public List<Planet> getCharts() {
+		return this.charts;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Planet chart : this.charts) {
+			sb.append(chart);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,143 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Representation of planet ephemeris over a date range with a fixed step.
+ *
+ * Positions are calculated lazily in time order, one {@link Planet} per step, so the range may span decades.
+ * Every step borrows the engine from the pool and gives it back. The pool hands out the most recently used engine,
+ * so the walk stays on one engine: consecutive instants fall into the Chebyshev segment the engine has already loaded
+ * for each planet, so every segment is read once and evaluated many times.
+ *
+ * All time events - input and output - are in Universal Time (UT).
+ * This class should not be used alone. Use {@link cz.kibo.api.astrology.builder.PlanetBuilder#range(LocalDateTime, Duration)} to create the correct instance of this class.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class PlanetSeries extends Ephemeris implements Iterable<Planet>{
+
+	private final LocalDateTime start;
+	private final LocalDateTime end;
+	private final Duration step;
+	private final int[] planetIds;
+	private final Coordinates coords;
+	private final int iflag;
+
+	/**
+	 * Time series of planets positions. Planets in geocentric coordinate system.
+	 *
+	 * @param start The first event in Universal Time (UT).
+	 * @param end The last event in Universal Time (UT), inclusive.
+	 * @param step The positive step between two events.
+	 * @param planets List of planets for position calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public PlanetSeries( LocalDateTime start, LocalDateTime end, Duration step, List<Integer> planets, int iflag) {
+		this( start, end, step, planets, null, iflag);
+	}
+
+	/**
+	 * Time series of planets positions. Planets in topocentric cordinate system.
+	 *
+	 * @param start The first event in Universal Time (UT).
+	 * @param end The last event in Universal Time (UT), inclusive.
+	 * @param step The positive step between two events.
+	 * @param planets List of planets for position calculation. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public PlanetSeries( LocalDateTime start, LocalDateTime end, Duration step, List<Integer> planets, Coordinates coords, int iflag) {
+		super();
+
+		if( step.isNegative() || step.isZero() ) {
+			throw new IllegalArgumentException( "Step must be positive: " + step);
+		}
+
+		this.start = start;
+		this.end = end;
+		this.step = step;
+		this.planetIds = Planet.planetIds(planets);
+		this.coords = coords;
+		this.iflag = iflag;
+	}
+
+	/**
+	 * Returns the iterator over the series. No engine is held between two steps, so the walk may stop at any time.
+	 */
+	@Override
+	public Iterator<Planet> iterator() {
+		return new SeriesIterator();
+	}
+
+	public LocalDateTime getStart() {
+		return this.start;
+	}
+
+	public LocalDateTime getEnd() {
+		return this.end;
+	}
+
+	public Duration getStep() {
+		return this.step;
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + this.start + " - " + this.end + ", step: " + this.step + " ]";
+	}
+
+	private class SeriesIterator implements Iterator<Planet> {
+
+		private LocalDateTime next = start;
+		private String[] planetNames;
+
+		@Override
+		public boolean hasNext() {
+			return !next.isAfter(end);
+		}
+
+		@Override
+		public Planet next() {
+			if( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+
+			SwissEph sw = borrowEngine();
+			try {
+				int flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+
+				if( coords != null ) {
+					sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+					flags |= SweConst.SEFLG_TOPOCTR;
+				}
+
+				if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+					sw.swe_set_sid_mode( iflag & 0x00FF );
+					flags |= SweConst.SEFLG_SIDEREAL;
+				}
+
+				if( planetNames == null ) {
+					planetNames = Planet.planetNames(sw, planetIds);
+				}
+
+				Planet chart = new Planet(next, planetIds, planetNames, coords, flags, sw);
+				next = next.plus(step);
+				return chart;
+
+			} finally {
+				releaseEngine(sw);
+			}
+		}
+	}
+}
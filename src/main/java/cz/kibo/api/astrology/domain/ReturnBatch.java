@@ -0,0 +1,219 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Solar or lunar returns of many natal charts calculated in one sweep.
+ *
+ * The Sun and the Moon never move backwards, so the returns after a date come in the order of the angular distance
+ * of the natal longitudes ahead of the body at that date. The natal longitudes are sorted by this distance and
+ * the sweep goes from one return to the next: the previous return and the speed of the body give the first guess
+ * of the next one, which is corrected by Newton iterations. For dense natal longitudes one calculation per return is enough.
+ *
+ * The sorted natal longitudes can be cut into chunks and swept in parallel by {@link #calculate(LocalDateTime, ChartExecutor)}.
+ * All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	double[] returns = new ReturnBatch(SweConst.SE_SUN, natalSuns, null, 0).calculate(LocalDateTime.of(2019, 1, 1, 0, 0), executor);
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class ReturnBatch extends Ephemeris{
+
+	// Accuracy of the return, about 0.01 second.
+	private static final double TIME_PRECISION = 1e-7;
+	private static final int MAX_ITERATIONS = 50;
+	// The Newton iterations start closer than this angle to the natal longitude.
+	private static final double NEWTON_DISTANCE = 90;
+
+	private final int planet;
+	private final double[] natal;
+	private final Coordinates coords;
+	private final int iflag;
+
+	/**
+	 * Creates the batch of returns.
+	 *
+	 * @param planet SweConst.SE_SUN for the solar returns or SweConst.SE_MOON for the lunar returns.
+	 * @param natal The natal longitudes of the planet in degrees, from 0 to 360.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public ReturnBatch( int planet, double[] natal, Coordinates coords, int iflag) {
+		super();
+
+		if( planet != SweConst.SE_SUN && planet != SweConst.SE_MOON ) {
+			throw new IllegalArgumentException( "Returns are supported for the Sun and the Moon only: " + planet);
+		}
+		for(double longitude : natal) {
+			if( longitude < 0 || longitude >= 360 ) {
+				throw new IllegalArgumentException( "Natal longitude must be from 0 to 360: " + longitude);
+			}
+		}
+
+		this.planet = planet;
+		this.natal = natal.clone();
+		this.coords = coords;
+		this.iflag = iflag;
+	}
+
+	/**
+	 * Finds the first return at or after the date for each natal longitude.
+	 *
+	 * @param start The date in Universal Time (UT), for example the first day of the year.
+	 * @return Returns the Julian days of the returns in Universal Time (UT), in the order of the natal longitudes.
+	 */
+	public double[] calculate(LocalDateTime start) {
+		double jd = getJulianDay(start);
+		double[] result = new double[this.natal.length];
+
+		SwissEph sw = borrowEngine();
+		try {
+			Sweep sweep = new Sweep(sw, jd);
+			sweep.run(sweep.order(), 0, this.natal.length, result);
+		} finally {
+			releaseEngine(sw);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first return at or after the date for each natal longitude in parallel.
+	 * The sorted natal longitudes are cut into four chunks per thread of the executor, each chunk is swept on its own engine.
+	 *
+	 * @param start The date in Universal Time (UT), for example the first day of the year.
+	 * @param executor The executor running the chunks.
+	 * @return Returns the Julian days of the returns in Universal Time (UT), in the order of the natal longitudes.
+	 */
+	public double[] calculate(LocalDateTime start, ChartExecutor executor) {
+		double jd = getJulianDay(start);
+		double[] result = new double[this.natal.length];
+
+		int[] order;
+		SwissEph sw = borrowEngine();
+		try {
+			order = new Sweep(sw, jd).order();
+		} finally {
+			releaseEngine(sw);
+		}
+
+		// Every range writes its own slots of the result.
+		executor.calculateRanges(this.natal.length, (from, to) -> {
+			SwissEph engine = borrowEngine();
+			try {
+				new Sweep(engine, jd).run(order, from, to, result);
+			} finally {
+				releaseEngine(engine);
+			}
+		});
+
+		return result;
+	}
+
+	public int getPlanet() {
+		return this.planet;
+	}
+
+	public int size() {
+		return this.natal.length;
+	}
+
+	@Override
+	public String toString() {
+		return "[ planet: " + this.planet + ", returns: " + this.natal.length + " ]";
+	}
+
+	private class Sweep {
+
+		private final SwissEph sw;
+		private final double jdStart;
+		private final double[] xx = new double[6];
+		private final StringBuffer serr = new StringBuffer();
+		private final double[] distance;
+		private int flags;
+
+		Sweep(SwissEph sw, double jdStart) {
+			this.sw = sw;
+			this.jdStart = jdStart;
+			this.flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+
+			if( coords != null ) {
+				sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+				flags |= SweConst.SEFLG_TOPOCTR;
+			}
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			calc(jdStart);
+			this.distance = new double[natal.length];
+			for(int i = 0; i < natal.length; i++) {
+				this.distance[i] = Angles.positive(natal[i] - xx[0]);
+			}
+		}
+
+		// Indexes of the natal longitudes in the order of the returns.
+		int[] order() {
+			Integer[] boxed = new Integer[natal.length];
+			for(int i = 0; i < boxed.length; i++) {
+				boxed[i] = i;
+			}
+			Arrays.sort(boxed, (a, b) -> Double.compare(distance[a], distance[b]));
+
+			int[] order = new int[boxed.length];
+			for(int i = 0; i < order.length; i++) {
+				order[i] = boxed[i];
+			}
+			return order;
+		}
+
+		void run(int[] order, int from, int to, double[] result) {
+			double t = jdStart;
+			double speed = xx[3];
+			double last = 0;
+
+			for(int k = from; k < to; k++) {
+				int i = order[k];
+				double ahead = distance[i] - last;
+
+				// Far returns are approached by steps shorter than the distance, the body cannot pass the longitude.
+				while( ahead > NEWTON_DISTANCE ) {
+					t += ahead / 2 / speed;
+					calc(t);
+					speed = xx[3];
+					ahead = Angles.positive(natal[i] - xx[0]);
+				}
+
+				t += ahead / speed;
+				for(int n = 0; n < MAX_ITERATIONS; n++) {
+					calc(t);
+					speed = xx[3];
+					double step = Angles.signed(xx[0] - natal[i]) / speed;
+					t -= step;
+					if( Math.abs(step) < TIME_PRECISION ) {
+						break;
+					}
+				}
+
+				result[i] = t;
+				last = distance[i];
+			}
+		}
+
+		private void calc(double jd) {
+			if( sw.swe_calc_ut(jd, planet, flags, xx, serr) < 0 ) {
+				throw new IllegalArgumentException( "Calculation of planet " + planet + " failed: " + serr);
+			}
+		}
+	}
+}
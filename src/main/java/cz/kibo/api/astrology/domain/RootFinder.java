@@ -0,0 +1,111 @@
+package cz.kibo.api.astrology.domain;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Root search of a function of the time in a bracket, shared by the calendars, the scanners and the batches.
+ *
+ * The function has opposite signs at both ends of the bracket. {@link #falsePosition} needs the values only and is used
+ * for the stations, the zeros of the speed. {@link #newton} needs the derivative too and is used for the exact transits,
+ * ingresses and aspects, where the speed comes with the position at no extra cost.
+ *
+ * {@link #falsePosition} evaluates the function at the returned time last, so the caller may read the state of its last
+ * calculation, for example the position of the planet at the station.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+final class RootFinder {
+
+	private static final int MAX_ITERATIONS = 100;
+
+	private RootFinder() {
+	}
+
+	/**
+	 * False position (Illinois): the end of the bracket which stays twice in a row gets its value halved.
+	 *
+	 * @param function The function, for example the speed of the planet.
+	 * @param a The start of the bracket.
+	 * @param fa The value at the start.
+	 * @param b The end of the bracket.
+	 * @param fb The value at the end, of the opposite sign.
+	 * @param precision The search stops when the step or the bracket is shorter.
+	 * @return Returns the root, the time of the last evaluation.
+	 */
+	static double falsePosition(DoubleUnaryOperator function, double a, double fa, double b, double fb, double precision) {
+		int side = 0;
+		double t = a + (b - a) * fa / (fa - fb);
+		for(int k = 0; k < MAX_ITERATIONS; k++) {
+			double f = function.applyAsDouble(t);
+			if( f == 0 ) {
+				break;
+			}
+			if( (f < 0) == (fa < 0) ) {
+				a = t;
+				fa = f;
+				if( side == -1 ) {
+					fb /= 2;
+				}
+				side = -1;
+			} else {
+				b = t;
+				fb = f;
+				if( side == 1 ) {
+					fa /= 2;
+				}
+				side = 1;
+			}
+			double next = a + (b - a) * fa / (fa - fb);
+			if( Math.abs(next - t) < precision || Math.abs(b - a) < precision ) {
+				break;
+			}
+			t = next;
+		}
+		return t;
+	}
+
+	/**
+	 * Newton iterations kept inside the bracket, false position when Newton jumps out.
+	 * The function must be monotonic in the bracket.
+	 *
+	 * @param function The function, for example the distance of the planet from the point.
+	 * @param derivative The derivative at the time of the last value of the function, for example the speed of the planet.
+	 * @param a The start of the bracket.
+	 * @param fa The value at the start.
+	 * @param b The end of the bracket.
+	 * @param fb The value at the end, of the opposite sign.
+	 * @param precision The search stops when the Newton step or the bracket is shorter.
+	 * @return Returns the root.
+	 */
+	static double newton(DoubleUnaryOperator function, DoubleSupplier derivative, double a, double fa, double b, double fb, double precision) {
+		double t = a + (b - a) * fa / (fa - fb);
+		for(int k = 0; k < MAX_ITERATIONS && Math.abs(b - a) > precision; k++) {
+			double f = function.applyAsDouble(t);
+			if( f == 0 ) {
+				return t;
+			}
+
+			if( (f < 0) == (fa < 0) ) {
+				a = t;
+				fa = f;
+			} else {
+				b = t;
+				fb = f;
+			}
+
+			double slope = derivative.getAsDouble();
+			double next = slope != 0 ? t - f / slope : Double.NaN;
+			if( next > Math.min(a, b) && next < Math.max(a, b) ) {
+				if( Math.abs(next - t) < precision ) {
+					return next;
+				}
+				t = next;
+			} else {
+				t = a + (b - a) * fa / (fa - fb);
+			}
+		}
+		return t;
+	}
+}
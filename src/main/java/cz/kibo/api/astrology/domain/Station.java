@@ -0,0 +1,94 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import swisseph.SweDate;
+
+/**
+ * One station of a planet found by {@link StationCalendar}: the speed in longitude crosses zero.
+ *
+ * All time events are in Universal Time (UT).
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class Station implements Comparable<Station>{
+
+	private final int planet;
+	private final double julianDay;
+	private final boolean retrograde;
+
+	Station(int planet, double julianDay, boolean retrograde) {
+		this.planet = planet;
+		this.julianDay = julianDay;
+		this.retrograde = retrograde;
+	}
+
+	/**
+	 * @return Returns the planet. Constants of planets are in {@link swisseph.SweConst}.
+	 */
+	public int getPlanet() {
+		return this.planet;
+	}
+
+	/**
+	 * @return Returns the Julian day of the station in Universal Time (UT).
+	 */
+	public double getJulianDay() {
+		return this.julianDay;
+	}
+
+	/**
+	 * @return Returns true for the stationary retrograde, the planet turns backwards. False for the stationary direct.
+	 */
+	public boolean isRetrograde() {
+		return this.retrograde;
+	}
+
+	public LocalDateTime getDate() {
+		SweDate sweDate = new SweDate(this.julianDay, SweDate.SE_GREG_CAL);
+		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
+	}
+
+	@Override
+	public int compareTo(Station other) {
+		int result = Double.compare(this.julianDay, other.julianDay);
+		return result == 0 ? Integer.compare(this.planet, other.planet) : result;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		result = prime * result + planet;
+		temp = Double.doubleToLongBits(julianDay);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + (retrograde ? 1231 : 1237);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Station other = (Station) obj;
+		if (planet != other.planet)
+			return false;
+		if (Double.doubleToLongBits(julianDay) != Double.doubleToLongBits(other.julianDay))
+			return false;
+		if (retrograde != other.retrograde)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "UTC: " + getDate() + ", " + this.planet + (this.retrograde ? ", stationary retrograde" : ", stationary direct");
+	}
+}
@@ -0,0 +1,348 @@
+package cz.kibo.api.astrology.domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Table of all stations of the planets from Mercury to Pluto in a date range.
+ *
+ * The stations are found once, by a walk over the speed in longitude, and kept as a sorted array of Julian days per planet.
+ * The stations of one planet alternate between stationary retrograde and stationary direct, so the motion at any moment
+ * of the range is known from the number of stations before it. {@link #isRetrograde(int, LocalDateTime)} and
+ * {@link #nextStation(int, LocalDateTime)} are binary searches without any ephemeris calculation.
+ *
+ * The table can be saved to a file by {@link #save(File)} and loaded back by {@link #load(File)}.
+ * The stations are geocentric. All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	StationCalendar calendar = new StationCalendar(LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2100, 1, 1, 0, 0));
+ *	calendar.save( new File("stations.bin") );
+ *	...
+ *	StationCalendar calendar = StationCalendar.load( new File("stations.bin") );
+ *	boolean retrograde = calendar.isRetrograde(SweConst.SE_MERCURY, event);
+ *	Station next = calendar.nextStation(SweConst.SE_MERCURY, event);
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class StationCalendar extends Ephemeris{
+
+	// 'STCL'
+	private static final int MAGIC = 0x5354434C;
+	private static final int VERSION = 1;
+
+	// Accuracy of the station, about 0.1 second.
+	private static final double TIME_PRECISION = 1e-6;
+
+	// Steps of the walk in days for Mercury to Pluto, shorter than the shortest retrograde motion of the planet.
+	private static final double[] STEPS = {3, 8, 8, 15, 15, 15, 15, 15};
+
+	private static final List<Integer> PLANETS = Arrays.asList(
+			SweConst.SE_MERCURY,
+			SweConst.SE_VENUS,
+			SweConst.SE_MARS,
+			SweConst.SE_JUPITER,
+			SweConst.SE_SATURN,
+			SweConst.SE_URANUS,
+			SweConst.SE_NEPTUNE,
+			SweConst.SE_PLUTO);
+
+	private final double jdStart;
+	private final double jdEnd;
+	private final int[] planets;
+	private final boolean[] retrograde;
+	private final double[][] stations;
+
+	/**
+	 * Finds the stations of all planets from Mercury to Pluto.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 */
+	public StationCalendar( LocalDateTime start, LocalDateTime end) {
+		this( start, end, PLANETS);
+	}
+
+	/**
+	 * Finds the stations of the planets.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param planets List of the planets from Mercury to Pluto. Constants of planets are in {@link swisseph.SweConst}.
+	 * @see swisseph.SweConst
+	 */
+	public StationCalendar( LocalDateTime start, LocalDateTime end, List<Integer> planets) {
+		super();
+
+		if( end.isBefore(start) ) {
+			throw new IllegalArgumentException( "End " + end + " is before start " + start);
+		}
+		for(Integer planet : planets) {
+			if( !PLANETS.contains(planet) ) {
+				throw new IllegalArgumentException( "Planet has no stations: " + planet);
+			}
+		}
+
+		this.jdStart = getJulianDay(start);
+		this.jdEnd = getJulianDay(end);
+		this.planets = Planet.planetIds(planets);
+		this.retrograde = new boolean[this.planets.length];
+		this.stations = new double[this.planets.length][];
+
+		SwissEph sw = borrowEngine();
+		try {
+			for(int i = 0; i < this.planets.length; i++) {
+				walk(sw, i);
+			}
+		} finally {
+			releaseEngine(sw);
+		}
+	}
+
+	private StationCalendar( double jdStart, double jdEnd, int[] planets, boolean[] retrograde, double[][] stations) {
+		super();
+		this.jdStart = jdStart;
+		this.jdEnd = jdEnd;
+		this.planets = planets;
+		this.retrograde = retrograde;
+		this.stations = stations;
+	}
+
+	/**
+	 * Loads the table saved by {@link #save(File)}.
+	 *
+	 * @param file The file of the table.
+	 * @return Returns the station calendar.
+	 * @throws IOException
+	 */
+	public static StationCalendar load(File file) throws IOException {
+		try( DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))) ) {
+			if( in.readInt() != MAGIC || in.readInt() != VERSION ) {
+				throw new IOException( "Not a station calendar: " + file);
+			}
+
+			double jdStart = in.readDouble();
+			double jdEnd = in.readDouble();
+			int count = in.readInt();
+
+			int[] planets = new int[count];
+			boolean[] retrograde = new boolean[count];
+			double[][] stations = new double[count][];
+			for(int i = 0; i < count; i++) {
+				planets[i] = in.readInt();
+				retrograde[i] = in.readBoolean();
+				stations[i] = new double[in.readInt()];
+				for(int j = 0; j < stations[i].length; j++) {
+					stations[i][j] = in.readDouble();
+				}
+			}
+
+			return new StationCalendar(jdStart, jdEnd, planets, retrograde, stations);
+		}
+	}
+
+	/**
+	 * Saves the table to the file: 8 bytes per station.
+	 *
+	 * @param file The file of the table.
+	 * @throws IOException
+	 */
+	public void save(File file) throws IOException {
+		try( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file))) ) {
+			out.writeInt( MAGIC );
+			out.writeInt( VERSION );
+			out.writeDouble( this.jdStart );
+			out.writeDouble( this.jdEnd );
+			out.writeInt( this.planets.length );
+			for(int i = 0; i < this.planets.length; i++) {
+				out.writeInt( this.planets[i] );
+				out.writeBoolean( this.retrograde[i] );
+				out.writeInt( this.stations[i].length );
+				for(double jd : this.stations[i]) {
+					out.writeDouble( jd );
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param event The date in Universal Time (UT) within the range of the table.
+	 * @return Returns true if the planet is retrograde at the date.
+	 */
+	public boolean isRetrograde(int planet, LocalDateTime event) {
+		return isRetrograde(planet, getJulianDay(event));
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param jd The Julian day in Universal Time (UT) within the range of the table.
+	 * @return Returns true if the planet is retrograde at the Julian day.
+	 */
+	public boolean isRetrograde(int planet, double jd) {
+		int index = indexOf(planet);
+		return this.retrograde[index] ^ (count(index, jd) % 2 == 1);
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param event The date in Universal Time (UT) within the range of the table.
+	 * @return Returns the first station after the date or null if it is beyond the table.
+	 */
+	public Station nextStation(int planet, LocalDateTime event) {
+		return nextStation(planet, getJulianDay(event));
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param jd The Julian day in Universal Time (UT) within the range of the table.
+	 * @return Returns the first station after the Julian day or null if it is beyond the table.
+	 */
+	public Station nextStation(int planet, double jd) {
+		int index = indexOf(planet);
+		int count = count(index, jd);
+		return count < this.stations[index].length ? station(index, count) : null;
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param event The date in Universal Time (UT) within the range of the table.
+	 * @return Returns the last station at or before the date or null if it is before the table.
+	 */
+	public Station previousStation(int planet, LocalDateTime event) {
+		return previousStation(planet, getJulianDay(event));
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param jd The Julian day in Universal Time (UT) within the range of the table.
+	 * @return Returns the last station at or before the Julian day or null if it is before the table.
+	 */
+	public Station previousStation(int planet, double jd) {
+		int index = indexOf(planet);
+		int count = count(index, jd);
+		return count > 0 ? station(index, count - 1) : null;
+	}
+
+	/**
+	 * @param planet The planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @return Returns all stations of the planet in time order.
+	 */
+	public List<Station> getStations(int planet) {
+		int index = indexOf(planet);
+		List<Station> list = new ArrayList<Station>(this.stations[index].length);
+		for(int i = 0; i < this.stations[index].length; i++) {
+			list.add( station(index, i) );
+		}
+		return list;
+	}
+
+	/**
+	 * @return Returns all stations of all planets in time order.
+	 */
+	public List<Station> getStations() {
+		List<Station> list = new ArrayList<Station>();
+		for(int planet : this.planets) {
+			list.addAll( getStations(planet) );
+		}
+		Collections.sort(list);
+		return list;
+	}
+
+	public List<Integer> getPlanets() {
+		List<Integer> list = new ArrayList<Integer>(this.planets.length);
+		for(int planet : this.planets) {
+			list.add( planet );
+		}
+		return list;
+	}
+
+	public double getStartJulianDay() {
+		return this.jdStart;
+	}
+
+	public double getEndJulianDay() {
+		return this.jdEnd;
+	}
+
+	@Override
+	public String toString() {
+		return "[ JD: " + this.jdStart + " - " + this.jdEnd + ", planets: " + this.planets.length + " ]";
+	}
+
+	private int indexOf(int planet) {
+		for(int i = 0; i < this.planets.length; i++) {
+			if( this.planets[i] == planet ) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException( "Planet is not in the calendar: " + planet);
+	}
+
+	// Number of the stations at or before the Julian day.
+	private int count(int index, double jd) {
+		if( jd < this.jdStart || jd > this.jdEnd ) {
+			throw new IllegalArgumentException( "Julian day " + jd + " is out of the calendar " + this.jdStart + " - " + this.jdEnd);
+		}
+		int found = Arrays.binarySearch(this.stations[index], jd);
+		return found >= 0 ? found + 1 : -found - 1;
+	}
+
+	// The planet changes the direction at every station, the first station turns it from the motion at the start.
+	private Station station(int index, int i) {
+		return new Station(this.planets[index], this.stations[index][i], this.retrograde[index] == (i % 2 == 1));
+	}
+
+	private void walk(SwissEph sw, int index) {
+		int planet = this.planets[index];
+		double step = STEPS[planet - SweConst.SE_MERCURY];
+		int flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+		double[] xx = new double[6];
+		StringBuffer serr = new StringBuffer();
+
+		List<Double> found = new ArrayList<Double>();
+		double jd = this.jdStart;
+		double speed = speed(sw, planet, flags, jd, xx, serr);
+		this.retrograde[index] = speed < 0;
+
+		while( jd < this.jdEnd ) {
+			double next = Math.min(jd + step, this.jdEnd);
+			double nextSpeed = speed(sw, planet, flags, next, xx, serr);
+
+			if( (speed < 0) != (nextSpeed < 0) ) {
+				found.add( RootFinder.falsePosition(t -> speed(sw, planet, flags, t, xx, serr), jd, speed, next, nextSpeed, TIME_PRECISION) );
+			}
+
+			jd = next;
+			speed = nextSpeed;
+		}
+
+		this.stations[index] = new double[found.size()];
+		for(int i = 0; i < found.size(); i++) {
+			this.stations[index][i] = found.get(i);
+		}
+	}
+
+	private static double speed(SwissEph sw, int planet, int flags, double jd, double[] xx, StringBuffer serr) {
+		if( sw.swe_calc_ut(jd, planet, flags, xx, serr) < 0 ) {
+			throw new IllegalArgumentException( "Calculation of planet " + planet + " failed: " + serr);
+		}
+		return xx[3];
+	}
+}
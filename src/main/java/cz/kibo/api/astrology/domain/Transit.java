@@ -31,9 +31,6 @@ public class Transit extends Ephemeris{
 	private int iflag;
 	private Double transit;
 	
-	private SwissEph sw;
-	private SweDate sd;
-	
 	/**
 	 * Calculates planets transit to point in zodiac. Planets in geocentric cordinate system.
 	 * 
@@ -52,21 +49,23 @@ public class Transit extends Ephemeris{
 		this.point = point;
 		this.iflag = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE;
 		
-		sw = new SwissEph( super.getPathToEphemeris() );
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/360.0, SweDate.SE_GREG_CAL);
-										
-		if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( iflag & 0x00FF );
-			this.iflag |= SweConst.SEFLG_SIDEREAL;
+		SwissEph sw = super.borrowEngine();
+		try {
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				this.iflag |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			TransitCalculator tc = new TCPlanet(
+					sw,
+					this.planet,
+					this.iflag,
+					this.point);
+
+			this.transit = sw.getTransitUT(tc, super.getJulianDay(event), backwards);
+		} finally {
+			super.releaseEngine(sw);
 		}
-		
-		TransitCalculator tc = new TCPlanet(
-                sw,
-                this.planet,
-                this.iflag,
-                this.point);
-		 
-		this.transit = sw.getTransitUT(tc, sd.getJulDay(), backwards);
 	}
 	
 	/**
@@ -102,22 +101,25 @@ public class Transit extends Ephemeris{
 		this.coords = coords;
 		this.iflag = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE | SweConst.SEFLG_TOPOCTR;
 			
-		sw = new SwissEph( super.getPathToEphemeris() );
-		sw.swe_set_topo(this.coords.getLongitude(), this.coords.getLatitude(), this.coords.getGeoalt());
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/360.0, SweDate.SE_GREG_CAL);
-				
-		if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( iflag & 0x00FF );	
-			this.iflag |= SweConst.SEFLG_SIDEREAL;
+		SwissEph sw = super.borrowEngine();
+		try {
+			sw.swe_set_topo(this.coords.getLongitude(), this.coords.getLatitude(), this.coords.getGeoalt());
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				this.iflag |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			TransitCalculator tc = new TCPlanet(
+					sw,
+					this.planet,
+					this.iflag,
+					this.point);
+
+			this.transit = sw.getTransitUT(tc, super.getJulianDay(event), backwards);
+		} finally {
+			super.releaseEngine(sw);
 		}
-		
-		TransitCalculator tc = new TCPlanet(
-                sw,
-                this.planet,
-                this.iflag,
-                this.point);
-		 
-		this.transit = sw.getTransitUT(tc, sd.getJulDay(), backwards);		
 	}
 	
 	/**
@@ -154,22 +156,24 @@ public class Transit extends Ephemeris{
 		this.offset = offset;
 		this.iflag = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE;
 		
-		sw = new SwissEph( super.getPathToEphemeris() );
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/360.0, SweDate.SE_GREG_CAL);
-										
-		if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( iflag & 0x00FF );				
-			this.iflag |= SweConst.SEFLG_SIDEREAL;
+		SwissEph sw = super.borrowEngine();
+		try {
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				this.iflag |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			TransitCalculator tc = new TCPlanetPlanet(
+					sw,
+					this.planet,
+					this.planet2,
+					this.iflag,
+					this.offset);
+
+			this.transit = sw.getTransitUT(tc, super.getJulianDay(event), backwards);
+		} finally {
+			super.releaseEngine(sw);
 		}
-		
-		TransitCalculator tc = new TCPlanetPlanet(
-                sw,
-                this.planet,
-                this.planet2,
-                this.iflag,
-                this.offset);
-		 
-		this.transit = sw.getTransitUT(tc, sd.getJulDay(), backwards);		
 	}
 	
 	/**
@@ -210,23 +214,26 @@ public class Transit extends Ephemeris{
 		this.offset = offset;
 		this.iflag = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE | SweConst.SEFLG_TOPOCTR;
 		
-		sw = new SwissEph( super.getPathToEphemeris());
-		sw.swe_set_topo(this.coords.getLongitude(), this.coords.getLatitude(), this.coords.getGeoalt());
-		sd = new SweDate(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute()/60.0 + event.getSecond()/360.0, SweDate.SE_GREG_CAL);
-										
-		if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
-			sw.swe_set_sid_mode( iflag & 0x00FF );	
-			this.iflag |= SweConst.SEFLG_SIDEREAL;
+		SwissEph sw = super.borrowEngine();
+		try {
+			sw.swe_set_topo(this.coords.getLongitude(), this.coords.getLatitude(), this.coords.getGeoalt());
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				this.iflag |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			TransitCalculator tc = new TCPlanetPlanet(
+					sw,
+					this.planet,
+					this.planet2,
+					this.iflag,
+					this.offset);
+
+			this.transit = sw.getTransitUT(tc, super.getJulianDay(event), backwards);
+		} finally {
+			super.releaseEngine(sw);
 		}
-		
-		TransitCalculator tc = new TCPlanetPlanet(
-                sw,
-                this.planet,
-                this.planet2,
-                this.iflag,
-                this.offset);
-		 
-		this.transit = sw.getTransitUT(tc, sd.getJulDay(), backwards);		
 	}
 	
 	/**
@@ -246,6 +253,25 @@ public class Transit extends Ephemeris{
 	}
 	
 	
+	/*
+	 * Transit found by {@link TransitSeries}.
+	 */
+	Transit( LocalDateTime event, Integer planet, Integer planet2, Double point, Double offset, Coordinates coords, int iflag, double transit) {
+		super();
+		this.event = event;
+		this.planet = planet;
+		this.planet2 = planet2;
+		this.point = point;
+		this.offset = offset;
+		this.coords = coords;
+		this.iflag = iflag;
+		this.transit = transit;
+	}
+	
+	double transit() {
+		return this.transit;
+	}
+	
 	public LocalDateTime getDate() {
 		SweDate sweDate = new SweDate(this.transit, SweDate.SE_GREG_CAL);		 		 		
 		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
@@ -0,0 +1,128 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import swisseph.SweDate;
+
+/**
+ * One exact transit found by {@link TransitScanner}: the moving planet reaches a target point with an aspect.
+ *
+ * All time events are in Universal Time (UT).
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class TransitHit implements Comparable<TransitHit>{
+
+	private final int planet;
+	private final int point;
+	private final double aspect;
+	private final double longitude;
+	private final double julianDay;
+	private final boolean retrograde;
+
+	TransitHit(int planet, int point, double aspect, double longitude, double julianDay, boolean retrograde) {
+		this.planet = planet;
+		this.point = point;
+		this.aspect = aspect;
+		this.longitude = longitude;
+		this.julianDay = julianDay;
+		this.retrograde = retrograde;
+	}
+
+	/**
+	 * @return Returns the moving planet. Constants of planets are in {@link swisseph.SweConst}.
+	 */
+	public int getPlanet() {
+		return this.planet;
+	}
+
+	/**
+	 * @return Returns the index of the transited point in the points of the scanner.
+	 */
+	public int getPoint() {
+		return this.point;
+	}
+
+	/**
+	 * @return Returns the signed aspect angle in degrees. Negative for the waning side, the planet is behind the point.
+	 */
+	public double getAspect() {
+		return this.aspect;
+	}
+
+	/**
+	 * @return Returns the longitude of the planet at the transit in degrees, 0 to 360.
+	 */
+	public double getLongitude() {
+		return this.longitude;
+	}
+
+	/**
+	 * @return Returns the Julian day of the transit in Universal Time (UT).
+	 */
+	public double getJulianDay() {
+		return this.julianDay;
+	}
+
+	/**
+	 * @return Returns true if the planet is retrograde at the transit.
+	 */
+	public boolean isRetrograde() {
+		return this.retrograde;
+	}
+
+	public LocalDateTime getDate() {
+		SweDate sweDate = new SweDate(this.julianDay, SweDate.SE_GREG_CAL);
+		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
+	}
+
+	@Override
+	public int compareTo(TransitHit other) {
+		int result = Double.compare(this.julianDay, other.julianDay);
+		if( result == 0 ) {
+			result = Integer.compare(this.point, other.point);
+		}
+		return result == 0 ? Double.compare(this.aspect, other.aspect) : result;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		result = prime * result + planet;
+		result = prime * result + point;
+		temp = Double.doubleToLongBits(aspect);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(julianDay);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		TransitHit other = (TransitHit) obj;
+		if (planet != other.planet)
+			return false;
+		if (point != other.point)
+			return false;
+		if (Double.doubleToLongBits(aspect) != Double.doubleToLongBits(other.aspect))
+			return false;
+		if (Double.doubleToLongBits(julianDay) != Double.doubleToLongBits(other.julianDay))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "UTC: " + getDate() + ", point: " + this.point + ", aspect: " + this.aspect + (this.retrograde ? ", retrograde" : "");
+	}
+}
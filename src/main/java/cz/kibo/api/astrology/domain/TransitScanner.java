@@ -0,0 +1,261 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Transits of one moving planet to many points with many aspects in a single walk over the ephemeris.
+ *
+ * The planet is calculated once per step and every target longitude - each point plus and minus each aspect -
+ * is checked for a crossing between two steps. A bracketed crossing is refined by Newton iterations on the longitude
+ * and its speed. A station inside a step is located first, so the crossings of a retrograde loop are all found.
+ * The cost is one ephemeris walk instead of one transit search per target.
+ *
+ * All time events - input and output - are in Universal Time (UT).
+ *
+ * @example
+ * <pre>
+ *	TransitScanner scanner = new TransitScanner(SweConst.SE_SATURN, natalPoints, new double[] {0, 90, 180}, null, 0);
+ *	for( TransitHit hit : scanner.scan(start, start.plusYears(30)) ) {
+ *		System.out.println( hit );
+ *	}
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class TransitScanner extends Ephemeris{
+
+	// Accuracy of the refined transit, about 0.01 second.
+	private static final double TIME_PRECISION = 1e-7;
+
+	private final int planet;
+	private final double[] points;
+	private final double[] targets;
+	private final double[] aspects;
+	private final int[] targetPoints;
+	private final Coordinates coords;
+	private final int iflag;
+	private final double step;
+
+	/**
+	 * Creates scanner with the step of the planet, see {@link #getStep(int)}.
+	 *
+	 * @param planet The moving planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param points The longitudes of the transited points in degrees, for example natal planets.
+	 * @param aspects The aspect angles in degrees, from 0 to 180. Each aspect except 0 and 180 is searched on both sides of the point.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public TransitScanner(int planet, double[] points, double[] aspects, Coordinates coords, int iflag) {
+		this(planet, points, aspects, coords, iflag, getStep(planet));
+	}
+
+	/**
+	 * Creates scanner.
+	 *
+	 * @param planet The moving planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param points The longitudes of the transited points in degrees, for example natal planets.
+	 * @param aspects The aspect angles in degrees, from 0 to 180. Each aspect except 0 and 180 is searched on both sides of the point.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @param step The step of the walk in days. The planet must move less than 180 degrees and stop at most once within one step.
+	 * @see swisseph.SweConst
+	 */
+	public TransitScanner(int planet, double[] points, double[] aspects, Coordinates coords, int iflag, double step) {
+		super();
+
+		if( !(step > 0) ) {
+			throw new IllegalArgumentException( "Step must be positive: " + step);
+		}
+
+		List<double[]> list = new ArrayList<double[]>();
+		for(int i = 0; i < points.length; i++) {
+			for(int j = 0; j < aspects.length; j++) {
+				if( aspects[j] < 0 || aspects[j] > 180 ) {
+					throw new IllegalArgumentException( "Aspect angle must be from 0 to 180: " + aspects[j]);
+				}
+
+				list.add( new double[] {i, aspects[j]} );
+				if( aspects[j] != 0 && aspects[j] != 180 ) {
+					list.add( new double[] {i, -aspects[j]} );
+				}
+			}
+		}
+
+		this.planet = planet;
+		this.points = points.clone();
+		this.targets = new double[list.size()];
+		this.aspects = new double[list.size()];
+		this.targetPoints = new int[list.size()];
+		for(int i = 0, ln = list.size(); i < ln; i++) {
+			this.targetPoints[i] = (int)list.get(i)[0];
+			this.aspects[i] = list.get(i)[1];
+			this.targets[i] = Angles.positive( points[this.targetPoints[i]] + this.aspects[i] );
+		}
+
+		this.coords = coords;
+		this.iflag = iflag;
+		this.step = step;
+	}
+
+	/**
+	 * Default step of the walk: a quarter of a day for the Moon, one day for the others.
+	 *
+	 * @param planet The moving planet.
+	 * @return Returns the step in days.
+	 */
+	public static double getStep(int planet) {
+		return planet == SweConst.SE_MOON ? 0.25 : 1.0;
+	}
+
+	/**
+	 * Finds all transits in the range.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @return Returns the transits sorted by date.
+	 */
+	public List<TransitHit> scan(LocalDateTime start, LocalDateTime end) {
+		return scan( getJulianDay(start), getJulianDay(end) );
+	}
+
+	/**
+	 * Finds all transits in the range.
+	 *
+	 * @param jdStart Start Julian day in Universal Time (UT).
+	 * @param jdEnd End Julian day in Universal Time (UT), inclusive.
+	 * @return Returns the transits sorted by date.
+	 */
+	public List<TransitHit> scan(double jdStart, double jdEnd) {
+		if( jdEnd < jdStart ) {
+			throw new IllegalArgumentException( "End " + jdEnd + " is before start " + jdStart);
+		}
+
+		List<TransitHit> hits = new ArrayList<TransitHit>();
+
+		SwissEph sw = super.borrowEngine();
+		try {
+			Walker walker = new Walker(sw);
+
+			double jd = jdStart;
+			walker.calc(jd);
+			double lon = walker.lon;
+			double speed = walker.speed;
+
+			while( jd < jdEnd ) {
+				double next = Math.min(jd + step, jdEnd);
+				walker.calc(next);
+				double nextLon = walker.lon;
+				double nextSpeed = walker.speed;
+
+				if( (speed < 0) != (nextSpeed < 0) ) {
+					// The planet stops within the step, both sides are monotonic.
+					double station = walker.station(jd, speed, next, nextSpeed);
+					walker.calc(station);
+					double stationLon = walker.lon;
+					walker.crossings(jd, lon, station, stationLon, hits);
+					walker.crossings(station, stationLon, next, nextLon, hits);
+				} else {
+					walker.crossings(jd, lon, next, nextLon, hits);
+				}
+
+				jd = next;
+				lon = nextLon;
+				speed = nextSpeed;
+			}
+		} finally {
+			super.releaseEngine(sw);
+		}
+
+		Collections.sort(hits);
+		return hits;
+	}
+
+	public int getPlanet() {
+		return this.planet;
+	}
+
+	/**
+	 * @return Returns the copy of the transited points.
+	 */
+	public double[] getPoints() {
+		return this.points.clone();
+	}
+
+	public double getStep() {
+		return this.step;
+	}
+
+	@Override
+	public String toString() {
+		return "TransitScanner [planet=" + planet + ", targets=" + targets.length + ", step=" + step + "]";
+	}
+
+	/*
+	 * Calculation of the planet on one engine.
+	 */
+	private class Walker {
+
+		private final SwissEph sw;
+		private final double[] xx = new double[6];
+		private final StringBuffer serr = new StringBuffer();
+		private int flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+		private double lon;
+		private double speed;
+
+		Walker(SwissEph sw) {
+			this.sw = sw;
+
+			if( coords != null ) {
+				sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+				flags |= SweConst.SEFLG_TOPOCTR;
+			}
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+		}
+
+		void calc(double jd) {
+			if( sw.swe_calc_ut(jd, planet, flags, xx, serr) < 0 ) {
+				throw new IllegalArgumentException( "Calculation of planet " + planet + " failed: " + serr);
+			}
+			lon = xx[0];
+			speed = xx[3];
+		}
+
+		// False position on the speed.
+		double station(double from, double fromSpeed, double to, double toSpeed) {
+			return RootFinder.falsePosition(t -> {
+				calc(t);
+				return speed;
+			}, from, fromSpeed, to, toSpeed, TIME_PRECISION);
+		}
+
+		// The longitude is monotonic between the dates.
+		void crossings(double from, double fromLon, double to, double toLon, List<TransitHit> hits) {
+			for(int i = 0, ln = targets.length; i < ln; i++) {
+				double target = targets[i];
+				double d1 = Angles.signed(fromLon - target);
+				double d2 = Angles.signed(toLon - target);
+
+				if( (d1 < 0) != (d2 < 0) && Math.abs(d2 - d1) < 180 ) {
+					double jd = RootFinder.newton(t -> {
+						calc(t);
+						return Angles.signed(lon - target);
+					}, () -> speed, from, d1, to, d2, TIME_PRECISION);
+					calc(jd);
+					hits.add( new TransitHit(planet, targetPoints[i], aspects[i], lon, jd, speed < 0) );
+				}
+			}
+		}
+	}
+}
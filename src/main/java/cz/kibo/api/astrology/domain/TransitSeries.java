@@ -0,0 +1,267 @@
+package cz.kibo.api.astrology.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+import swisseph.SwissephException;
+import swisseph.TCPlanet;
+import swisseph.TCPlanetPlanet;
+import swisseph.TransitCalculator;
+
+/**
+ * Representation of all transits in a date range.
+ *
+ * Transits are found lazily in time order, one {@link Transit} per hit. Every search borrows the engine from the pool
+ * and gives it back. The pool hands out the most recently used engine, so the walk keeps one transit calculator:
+ * the speeds of the planet are sampled once and every search continues from the previous hit,
+ * see {@link swisseph.SwissEph#getNextTransitUT(TransitCalculator, double, boolean, double)}.
+ * If the end is before the start, the transits are searched backwards.
+ *
+ * Long ranges can be searched in parallel by {@link #calculate(ChartExecutor)}: the range is cut into windows,
+ * each window is walked on its own engine and the hits are merged in the order of the search.
+ *
+ * All time events - input and output - are in Universal Time (UT).
+ * This class should not be used alone. Use {@link cz.kibo.api.astrology.builder.TransitBuilder#range(LocalDateTime)} to create the correct instance of this class.
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class TransitSeries extends Ephemeris implements Iterable<Transit>{
+
+	// Hits of two neighbouring windows closer than this are one transit found twice, about 1.5 minute.
+	private static final double SAME_TRANSIT = 1e-3;
+	private static final int WINDOWS_PER_THREAD = 4;
+
+	private final LocalDateTime start;
+	private final LocalDateTime end;
+	private final Integer planet;
+	private final Integer planet2;
+	private final Double point;
+	private final Double offset;
+	private final Coordinates coords;
+	private final int iflag;
+
+	/**
+	 * All transits of the planet to point in zodiac.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param planet The transiting planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param point The desired transit degree.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public TransitSeries( LocalDateTime start, LocalDateTime end, Integer planet, Double point, Coordinates coords, int iflag) {
+		this( start, end, planet, null, point, null, coords, iflag);
+	}
+
+	/**
+	 * All transits of two different planets to each other.
+	 *
+	 * @param start Start date in Universal Time (UT).
+	 * @param end End date in Universal Time (UT), inclusive.
+	 * @param planet The transiting planet. Constants of planets are in {@link swisseph.SweConst}.
+	 * @param planet2 The second planet that will be transited by the first planet.
+	 * @param offset The desired transit degree.
+	 * @param coords longitude, latitude, geoalt for topocentric. Null for geocentric.
+	 * @param iflag Options for sidereal or tropical calculation. 0 - tropical, SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_* - for sidereal .Dont use other flags!.
+	 * @see swisseph.SweConst
+	 */
+	public TransitSeries( LocalDateTime start, LocalDateTime end, Integer planet, Integer planet2, double offset, Coordinates coords, int iflag) {
+		this( start, end, planet, planet2, null, offset, coords, iflag);
+	}
+
+	private TransitSeries( LocalDateTime start, LocalDateTime end, Integer planet, Integer planet2, Double point, Double offset, Coordinates coords, int iflag) {
+		super();
+		this.start = start;
+		this.end = end;
+		this.planet = planet;
+		this.planet2 = planet2;
+		this.point = point;
+		this.offset = offset;
+		this.coords = coords;
+		this.iflag = iflag;
+	}
+
+	/**
+	 * Returns the iterator over the transits. No engine is held between two searches, so the walk may stop at any time.
+	 */
+	@Override
+	public Iterator<Transit> iterator() {
+		return new SeriesIterator(getJulianDay(start), getJulianDay(end));
+	}
+
+	/**
+	 * Finds all transits in parallel, the range is cut into four windows per thread of the executor.
+	 *
+	 * @param executor The executor running the windows.
+	 * @return Returns the transits in the order of the search.
+	 */
+	public List<Transit> calculate(ChartExecutor executor) {
+		return calculate(executor, executor.getParallelism() * WINDOWS_PER_THREAD);
+	}
+
+	/**
+	 * Finds all transits in parallel. Every window is searched on its own engine, the hits on the border
+	 * of two windows are reported once.
+	 *
+	 * @param executor The executor running the windows.
+	 * @param windows The number of windows.
+	 * @return Returns the transits in the order of the search.
+	 */
+	public List<Transit> calculate(ChartExecutor executor, int windows) {
+		if( windows < 1 ) {
+			throw new IllegalArgumentException( "Number of windows must be positive: " + windows);
+		}
+
+		double jdStart = getJulianDay(start);
+		double jdEnd = getJulianDay(end);
+
+		List<double[]> ranges = new ArrayList<double[]>(windows);
+		for(int i = 0; i < windows; i++) {
+			ranges.add( new double[] {
+					jdStart + (jdEnd - jdStart) * i / windows,
+					i + 1 == windows ? jdEnd : jdStart + (jdEnd - jdStart) * (i + 1) / windows} );
+		}
+
+		List<List<Transit>> hits = executor.calculate(ranges, range -> {
+			List<Transit> window = new ArrayList<Transit>();
+			SeriesIterator it = new SeriesIterator(range[0], range[1]);
+			while( it.hasNext() ) {
+				window.add( it.next() );
+			}
+			return window;
+		});
+
+		// The windows are in the order of the search, only the borders can repeat a hit.
+		List<Transit> transits = new ArrayList<Transit>();
+		for(List<Transit> window : hits) {
+			for(Transit transit : window) {
+				if( transits.isEmpty() || Math.abs(transit.transit() - transits.get(transits.size() - 1).transit()) > SAME_TRANSIT ) {
+					transits.add( transit );
+				}
+			}
+		}
+		return transits;
+	}
+
+	public LocalDateTime getStart() {
+		return this.start;
+	}
+
+	public LocalDateTime getEnd() {
+		return this.end;
+	}
+
+	public boolean isBackwards() {
+		return this.end.isBefore(this.start);
+	}
+
+	@Override
+	public String toString() {
+		return "[ UTC: " + this.start + " - " + this.end + " ]";
+	}
+
+	private class SeriesIterator implements Iterator<Transit> {
+
+		private final boolean backwards = isBackwards();
+		private final double jdStart;
+		private final double jdEnd;
+		private SwissEph engine;
+		private TransitCalculator tc;
+		private int flags;
+		private double last = Double.NaN;
+		private double next = Double.NaN;
+		private boolean done = false;
+
+		SeriesIterator(double jdStart, double jdEnd) {
+			this.jdStart = jdStart;
+			this.jdEnd = jdEnd;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if( done ) {
+				return false;
+			}
+
+			if( Double.isNaN(next) ) {
+				search();
+			}
+
+			return !done;
+		}
+
+		@Override
+		public Transit next() {
+			if( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+
+			last = next;
+			next = Double.NaN;
+			return new Transit(start, planet, planet2, point, offset, coords, flags, last);
+		}
+
+		private void search() {
+			SwissEph sw = open();
+			try {
+				double jd = Double.isNaN(last)
+						? sw.getTransitUT(tc, jdStart, backwards, jdEnd)
+						: sw.getNextTransitUT(tc, last, backwards, jdEnd);
+
+				if( backwards ? jd < jdEnd : jd > jdEnd ) {
+					done = true;
+				} else {
+					next = jd;
+				}
+
+			} catch (SwissephException e) {
+				done = true;
+				if( e.getType() != SwissephException.BEYOND_USER_TIME_LIMIT ) {
+					throw e;
+				}
+			} catch (RuntimeException e) {
+				done = true;
+				throw e;
+			} finally {
+				releaseEngine(sw);
+			}
+		}
+
+		// Borrows the engine, the transit calculator is kept as long as the pool returns the same engine.
+		private SwissEph open() {
+			SwissEph sw = borrowEngine();
+			flags = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE;
+
+			if( coords != null ) {
+				sw.swe_set_topo(coords.getLongitude(), coords.getLatitude(), coords.getGeoalt());
+				flags |= SweConst.SEFLG_TOPOCTR;
+			}
+
+			if( (iflag & 0xF0000) ==  SweConst.SEFLG_SIDEREAL ) {
+				sw.swe_set_sid_mode( iflag & 0x00FF );
+				flags |= SweConst.SEFLG_SIDEREAL;
+			}
+
+			if( sw != engine ) {
+				try {
+					tc = planet2 == null
+							? new TCPlanet(sw, planet, flags, point)
+							: new TCPlanetPlanet(sw, planet, planet2, flags, offset);
+				} catch (RuntimeException e) {
+					releaseEngine(sw);
+					throw e;
+				}
+				engine = sw;
+			}
+			return sw;
+		}
+	}
+}
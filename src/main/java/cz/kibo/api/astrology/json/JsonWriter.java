@@ -0,0 +1,289 @@
+package cz.kibo.api.astrology.json;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import cz.kibo.api.astrology.domain.Chart;
+import cz.kibo.api.astrology.domain.Cusp;
+import cz.kibo.api.astrology.domain.Planet;
+
+/**
+ * Streaming writer of planets and cusps positions and whole charts.
+ *
+ * Writes the same JSON as {@link Convertor} straight to the output, without building a JSON tree
+ * and without allocation per value. Several charts can be written as one JSON array.
+ *
+ * @example
+ * <pre>
+ *	JsonWriter writer = new JsonWriter(response.getOutputStream());
+ *	writer.beginArray();
+ *	for (Planet chart : charts) {
+ *		writer.write(chart);
+ *	}
+ *	writer.endArray();
+ *	writer.flush();
+ * </pre>
+ *
+ * @author Tomas Jurman tomasjurman@gmail.com
+ *
+ */
+public class JsonWriter {
+
+	private static final String PLANETS_KEY_NAME = "planets";
+	private static final String CUSPS_KEY_NAME = "cusps";
+	private static final String ANGLES_KEY_NAME = "angles";
+	private static final String AYANAMSA_KEY_NAME = "ayanamsa";
+
+	private final Appendable out;
+	private final StringBuilder number = new StringBuilder(32);
+
+	// Whether the current array has an element already, one level of nesting is enough
+	private boolean inArray = false;
+	private boolean firstInArray = true;
+
+	/**
+	 * Creates writer.
+	 *
+	 * @param out The output, for example StringBuilder or Writer.
+	 */
+	public JsonWriter(Appendable out) {
+		this.out = out;
+	}
+
+	/**
+	 * Creates writer of UTF-8 encoded JSON. Call {@link #flush()} at the end.
+	 *
+	 * @param out The output stream.
+	 */
+	public JsonWriter(OutputStream out) {
+		this( new BufferedWriter( new OutputStreamWriter(out, StandardCharsets.UTF_8) ) );
+	}
+
+	/**
+	 * Starts JSON array of charts.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public JsonWriter beginArray() throws IOException {
+		if( inArray ) {
+			throw new IllegalStateException( "Nested arrays are not supported.");
+		}
+		out.append('[');
+		inArray = true;
+		firstInArray = true;
+		return this;
+	}
+
+	/**
+	 * Ends JSON array of charts.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public JsonWriter endArray() throws IOException {
+		if( !inArray ) {
+			throw new IllegalStateException( "No array to end.");
+		}
+		out.append(']');
+		inArray = false;
+		return this;
+	}
+
+	/**
+	 * Writes planets positions as <code>{"planets":{"Sun":[longitude, speed],...}}</code>.
+	 *
+	 * @param planet
+	 * @return
+	 * @throws IOException
+	 */
+	public JsonWriter write(Planet planet) throws IOException {
+		separate();
+		out.append('{');
+		writePlanets(planet);
+		out.append('}');
+		return this;
+	}
+
+	/**
+	 * Writes cusps positions as <code>{"cusps":[...]}</code>.
+	 *
+	 * @param cusp
+	 * @return
+	 * @throws IOException
+	 */
+	public JsonWriter write(Cusp cusp) throws IOException {
+		separate();
+		out.append('{');
+		writeCusps(cusp);
+		out.append('}');
+		return this;
+	}
+
+	/**
+	 * Writes the whole chart as <code>{"planets":{...},"cusps":[...],"angles":{"Asc":..,"MC":..,"ARMC":..,"Vertex":..},"ayanamsa":..}</code>.
+	 *
+	 * @param chart
+	 * @return
+	 * @throws IOException
+	 */
+	public JsonWriter write(Chart chart) throws IOException {
+		separate();
+		out.append('{');
+		writePlanets( chart.getPlanet() );
+		out.append(',');
+		writeCusps( chart.getCusp() );
+		out.append(',');
+		writeString(ANGLES_KEY_NAME);
+		out.append(":{");
+		writeString("Asc");
+		out.append(':');
+		writeNumber( chart.getAscendant() );
+		out.append(',');
+		writeString("MC");
+		out.append(':');
+		writeNumber( chart.getMC() );
+		out.append(',');
+		writeString("ARMC");
+		out.append(':');
+		writeNumber( chart.getARMC() );
+		out.append(',');
+		writeString("Vertex");
+		out.append(':');
+		writeNumber( chart.getVertex() );
+		out.append("},");
+		writeString(AYANAMSA_KEY_NAME);
+		out.append(':');
+		writeNumber( chart.getAyanamsa() );
+		out.append('}');
+		return this;
+	}
+
+	/**
+	 * Flushes the output, if it is possible.
+	 *
+	 * @throws IOException
+	 */
+	public void flush() throws IOException {
+		if( out instanceof Flushable ) {
+			((Flushable)out).flush();
+		}
+	}
+
+	private void writePlanets(Planet planet) throws IOException {
+		writeString(PLANETS_KEY_NAME);
+		out.append(":{");
+
+		for(int i = 0, ln = planet.size(); i < ln; i++) {
+			if( i > 0 ) {
+				out.append(',');
+			}
+			writeString( planet.getPlanetName(i) );
+			out.append(":[");
+			writeNumber( planet.getPosition(i, Planet.LONGITUDE) );
+			out.append(',');
+			writeNumber( planet.getPosition(i, Planet.LONGITUDE_SPEED) );
+			out.append(']');
+		}
+
+		out.append('}');
+	}
+
+	private void writeCusps(Cusp cusp) throws IOException {
+		writeString(CUSPS_KEY_NAME);
+		out.append(":[");
+
+		for(int i = 0, ln = cusp.size(); i < ln; i++) {
+			if( i > 0 ) {
+				out.append(',');
+			}
+			writeNumber( cusp.getCusp(i) );
+		}
+
+		out.append(']');
+	}
+
+	private void separate() throws IOException {
+		if( inArray ) {
+			if( !firstInArray ) {
+				out.append(',');
+			}
+			firstInArray = false;
+		}
+	}
+
+	/*
+	 * The same format as org.json: Double.toString without trailing zeros.
+	 */
+	private void writeNumber(double value) throws IOException {
+		if( Double.isNaN(value) || Double.isInfinite(value) ) {
+			throw new IllegalArgumentException( "JSON does not allow non-finite numbers: " + value);
+		}
+
+		number.setLength(0);
+		number.append(value);
+
+		int ln = number.length();
+		if( indexOf('.') > 0 && indexOf('e') < 0 && indexOf('E') < 0 ) {
+			while( number.charAt(ln - 1) == '0' ) {
+				ln--;
+			}
+			if( number.charAt(ln - 1) == '.' ) {
+				ln--;
+			}
+		}
+
+		for(int i = 0; i < ln; i++) {
+			out.append( number.charAt(i) );
+		}
+	}
+
+	private int indexOf(char ch) {
+		for(int i = 0, ln = number.length(); i < ln; i++) {
+			if( number.charAt(i) == ch ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void writeString(String value) throws IOException {
+		out.append('"');
+		for(int i = 0, ln = value.length(); i < ln; i++) {
+			char ch = value.charAt(i);
+			switch (ch) {
+				case '"':
+				case '\\':
+					out.append('\\').append(ch);
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					if( ch < 0x20 ) {
+						out.append("\\u00");
+						out.append( Character.forDigit(ch >> 4, 16) );
+						out.append( Character.forDigit(ch & 0xF, 16) );
+					}else {
+						out.append(ch);
+					}
+			}
+		}
+		out.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return "JsonWriter [out=" + out.getClass().getName() + "]";
+	}
+}
@@ -0,0 +1,93 @@
+package swisseph;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+* Chebyshev segments of a time window decoded in advance by
+* SwissEph.swe_preload().<p>
+* The segments are pinned in the segment cache shared by all SwissEph
+* objects, so calculations within the window do not read any segment from
+* the ephemeris files, in any thread. Every SwissEph object still reads the
+* header of an ephemeris file once, when it opens the file. The segments
+* stay in memory until the window is released.
+* @see swisseph.SwissEph#swe_preload(double, double, int[])
+*/
+public class EphemerisWindow {
+
+  private final double tjdStart;
+  private final double tjdEnd;
+  private final Set<SegmentCache.Key> keys = new HashSet<SegmentCache.Key>();
+  private long bytes = 0;
+  private boolean released = false;
+
+
+  EphemerisWindow(double tjdStart, double tjdEnd) {
+    this.tjdStart = tjdStart;
+    this.tjdEnd = tjdEnd;
+  }
+
+  // Pins the segment, a segment pinned by this window already is ignored:
+  synchronized void add(SegmentCache.Key key, SegmentCache.Segment seg) {
+    if (released || !keys.add(key)) {
+      return;
+    }
+    bytes += SegmentCache.pin(key, seg).size();
+  }
+
+  /**
+  * Releases the segments of the window. They stay in the segment cache as
+  * long as it has space for them.
+  */
+  public synchronized void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    for (SegmentCache.Key key : keys) {
+      SegmentCache.unpin(key);
+    }
+    keys.clear();
+  }
+
+  /**
+  * @return Returns the start of the window as a julian day number in ET.
+  */
+  public double getStart() {
+    return tjdStart;
+  }
+
+  /**
+  * @return Returns the end of the window as a julian day number in ET.
+  */
+  public double getEnd() {
+    return tjdEnd;
+  }
+
+  /**
+  * @return Returns the number of decoded segments in the window.
+  */
+  public synchronized int getSegmentCount() {
+    return keys.size();
+  }
+
+  /**
+  * @return Returns the approximate memory used by the decoded segments in
+  * bytes.
+  */
+  public synchronized long getMemoryUsed() {
+    return released ? 0 : bytes;
+  }
+
+  /**
+  * @return Returns true, if the window has been released.
+  */
+  public synchronized boolean isReleased() {
+    return released;
+  }
+
+  public String toString() {
+    return "EphemerisWindow[" + tjdStart + " - " + tjdEnd + ", " +
+           getSegmentCount() + " segments, " + getMemoryUsed() + " bytes]";
+  }
+}
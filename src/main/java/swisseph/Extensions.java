@@ -53,6 +53,10 @@ class Extensions
                     double jdMax)
          throws IllegalArgumentException, SwissephException {
     jdET = tc.preprocessDate(jdET, back);
+    tc.iterations = 0;
+    if (tc instanceof TCPlanet && ((TCPlanet)tc).isRootFinding()) {
+      return getTransitRoot((TCPlanet)tc, jdET, back, jdMax);
+    }
     double max = tc.getMaxSpeed();
     double min = tc.getMinSpeed();
 
@@ -77,10 +81,11 @@ class Extensions
 
 
     val = tc.calc(jdET);
+    tc.iterations++;
     if (tc.checkIdenticalResult(offset, val)) { // If not 0.0 but "very small", then
                             // interpolate after another calculation
                             // in the calculation loop below
-      return val;
+      return jdET;
     }
 
 
@@ -113,6 +118,7 @@ class Extensions
         return jdET;
       }
       val = tc.calc(jdET);
+      tc.iterations++;
       if (val == Double.POSITIVE_INFINITY) {
         return jdET;
       }
@@ -121,7 +127,7 @@ class Extensions
 
       // Hits the transiting point exactly...:
       if(tc.checkIdenticalResult(offset, val)) {
-        return val;
+        return jdET;
       }
 
       // The planet may have moved forward or backward, in one of these
@@ -175,6 +181,180 @@ class Extensions
 
 
 
+  // Root finding search of TCPlanet longitudinal transits.
+  //
+  // Instead of stepping with the extreme speeds of the planet only, it
+  // steps with the actual position and speed as well. As long as the extreme
+  // speeds do not allow the planet to reach the transit point, it jumps as
+  // far as the default search. Near the transit point it steps straight to
+  // the transit point, if the planet moves towards it, or by the maximum step
+  // of the planet, if it moves away. The maximum step is short enough for
+  // at most one station per step, so a station between two steps is
+  // recognized by the sign of the speed. It is located and splits the step
+  // into two monotonic parts. A bracketed transit is refined by Newton
+  // iterations, which fall back to the false position if they leave the
+  // bracket.
+  double getTransitRoot(TCPlanet tc, double jdET, boolean back, double jdMax)
+         throws SwissephException {
+    double dir = (back ? -1. : 1.);
+    double maxStep = tc.getRootStep();
+    double offset = tc.getOffset();
+    // The fastest change of the longitude upwards and downwards in the
+    // direction of the search:
+    double up = (back ? -tc.getMinSpeed() : tc.getMaxSpeed());
+    double down = (back ? tc.getMaxSpeed() : -tc.getMinSpeed());
+    if (up <= 0. && down <= 0.) {
+      throw new SwissephException(jdET, SwissephException.OUT_OF_TIME_RANGE,
+          "No transit possible due to lack of variation of speed or position.");
+    }
+    double[] fv = new double[2];
+
+    rootCalc(tc, jdET, offset, fv);
+    double f = fv[0], v = fv[1];
+    if (f == 0.) {
+      return jdET;
+    }
+
+    while (true) {
+      // Time, in which the planet cannot reach the transit point:
+      double safe = Double.MAX_VALUE;
+      if (up > 0.) { safe = SMath.min(safe, (f <= 0. ? -f : 360. - f) / up); }
+      if (down > 0.) { safe = SMath.min(safe, (f >= 0. ? f : 360. + f) / down); }
+
+      // Time to the transit point at the current speed, if approaching:
+      double h = maxStep;
+      if (f * v * dir < 0.) {
+        h = SMath.min(maxStep, SMath.abs(f / v) * 1.1 + ROOT_PRECISION);
+      }
+      boolean crossing = (h > safe);
+      if (!crossing) {
+        h = safe;
+      }
+
+      double jdNext = jdET + dir * h;
+      rootCalc(tc, jdNext, offset, fv);
+      double fNext = fv[0], vNext = fv[1];
+
+      if (crossing) {
+        if ((v < 0.) != (vNext < 0.)) { // Station between the steps
+          double jdStat = rootStation(tc, jdET, v, jdNext, vNext, offset, fv);
+          double fStat = fv[0];
+          if (rootBracket(f, fStat)) {
+            return rootRefine(tc, jdET, f, jdStat, fStat, offset, fv);
+          }
+          if (rootBracket(fStat, fNext)) {
+            return rootRefine(tc, jdStat, fStat, jdNext, fNext, offset, fv);
+          }
+        } else if (rootBracket(f, fNext)) {
+          return rootRefine(tc, jdET, f, jdNext, fNext, offset, fv);
+        }
+      }
+
+      if ((back && jdNext < jdMax) ||
+          (!back && jdNext > jdMax)) {
+        throw new SwissephException(jdNext, SwissephException.BEYOND_USER_TIME_LIMIT,
+            -1, "User time limit of " + jdMax + " has been reached.");
+      }
+      jdET = jdNext;
+      f = fNext;
+      v = vNext;
+      if (f == 0.) {
+        return jdET;
+      }
+    }
+  }
+
+  // Precision of the root finding search in days, about 0.01 seconds:
+  static final double ROOT_PRECISION = 1e-7;
+  private static final int ROOT_MAX_ITERATIONS = 50;
+  // The station splits the step only, it does not need the full precision:
+  private static final double STATION_PRECISION = 1e-4;
+
+  // Signed distance to the offset from -180 to +180 degrees and the speed:
+  private void rootCalc(TCPlanet tc, double jdET, double offset, double[] fv) {
+    tc.calcWithSpeed(jdET, fv);
+    tc.iterations++;
+    double d = fv[0] - offset;
+    fv[0] = d - 360. * SMath.floor((d + 180.) / 360.);
+  }
+
+  // The transit point is between two values, which are not on the opposite
+  // side of the zodiac:
+  private boolean rootBracket(double f1, double f2) {
+    return (f1 < 0.) != (f2 < 0.) && SMath.abs(f2 - f1) < 180.;
+  }
+
+  // False position on the speed (Illinois). Leaves the distance at the
+  // station in fv[0].
+  private double rootStation(TCPlanet tc, double a, double va, double b,
+                             double vb, double offset, double[] fv) {
+    int side = 0;
+    double jd = a + (b - a) * va / (va - vb);
+    for (int i = 0; i < ROOT_MAX_ITERATIONS; i++) {
+      rootCalc(tc, jd, offset, fv);
+      if (fv[1] == 0.) {
+        break;
+      }
+      if ((fv[1] < 0.) == (va < 0.)) {
+        a = jd; va = fv[1];
+        if (side == -1) { vb /= 2.; }
+        side = -1;
+      } else {
+        b = jd; vb = fv[1];
+        if (side == 1) { va /= 2.; }
+        side = 1;
+      }
+      double next = a + (b - a) * va / (va - vb);
+      if (SMath.abs(next - jd) < STATION_PRECISION) {
+        break;
+      }
+      jd = next;
+    }
+    return jd;
+  }
+
+  // Newton iterations inside of the bracket [a, b] (a may be after b).
+  private double rootRefine(TCPlanet tc, double a, double fa, double b,
+                            double fb, double offset, double[] fv) {
+    double jd = a + (b - a) * fa / (fa - fb);
+    for (int i = 0; i < ROOT_MAX_ITERATIONS && SMath.abs(b - a) > ROOT_PRECISION; i++) {
+      rootCalc(tc, jd, offset, fv);
+      double f = fv[0];
+      if (f == 0.) {
+        return jd;
+      }
+      if ((f < 0.) == (fa < 0.)) {
+        a = jd; fa = f;
+      } else {
+        b = jd; fb = f;
+      }
+      double newton = (fv[1] != 0. ? jd - f / fv[1] : Double.NaN);
+      if (SMath.abs(newton - jd) < ROOT_PRECISION) {
+        return newton;
+      }
+      if (newton > SMath.min(a, b) && newton < SMath.max(a, b)) {
+        jd = newton;
+      } else {
+        jd = a + (b - a) * fa / (fa - fb);
+      }
+    }
+    return jd;
+  }
+
+
+
+  // Continues the search after the transit found at jdPrevET. The search
+  // starts one time precision behind the previous transit, so the same
+  // transit is not found again, and reuses the speeds of the calculator.
+  double getNextTransit(TransitCalculator tc, double jdPrevET, boolean back,
+                        double jdMax)
+         throws IllegalArgumentException, SwissephException {
+    double timePrec = tc.getTimePrecision(tc.getDegreePrecision(jdPrevET));
+    return getTransit(tc, jdPrevET + (back?-timePrec:+timePrec), back, jdMax);
+  }
+
+
+
   // The precision of a distance calculation is related to the barycentric
   // distance
   // E.g.: java Swetest -b1.1.0 -p0 -n100000 -fR -bary | sort -n
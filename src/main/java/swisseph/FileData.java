@@ -92,6 +92,7 @@ class FileData
   int iflg;             /* byte reorder flag and little/bigendian flag */
   short npl;            /* how many planets in file */
   int ipl[] = new int[SEI_FILE_NMAXPLAN]; /* planet numbers */
+  byte segbuf[] = null; /* Java only: packed coefficients of one segment */
 
   void clearData() {
     int j;
@@ -528,8 +529,10 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
     if (fpos >= 0) {
       fp.seek(fpos);
     }
-    short val=(short)fp.readShort();
+    return reord2((short)fp.readShort(), freord);
+  }
 
+  private static short reord2(short val, int freord) {
     if (freord != 0) {
       val = (short)(
                  (
@@ -548,7 +551,10 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
     int val=(int)fp.readUnsignedByte();
     int i2=(int)fp.readShort(); if(i2<0){i2&=0xffff;}
     val=(val<<16)+i2;
+    return reord3(val, freord, fendian);
+  }
 
+  private static int reord3(int val, int freord, int fendian) {
     if (freord != 0) {
       val = (( val & 0x000000ff ) << 24) +
             (( val & 0x0000ff00 ) <<  8) +
@@ -568,8 +574,10 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
     if (fpos >= 0) {
       fp.seek(fpos);
     }
-    int val=(int)fp.readInt();
+    return reord4((int)fp.readInt(), unsigned, freord);
+  }
 
+  private static int reord4(int val, boolean unsigned, int freord) {
     if (freord != 0) {
       if (unsigned) {
         val = (( val & 0x000000ff ) << 24) +
@@ -619,7 +627,7 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
    */
   int get_new_segment(SwissData swed, double tjd, int ipli, int ifno,
                       StringBuffer serr) {
-    int i, j, k, m, n, o, icoord;
+    int i, m, icoord;
     int iseg;
     int fpos;
     int nsizes, nsize[]=new int[6];
@@ -631,7 +639,6 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
     FileData fdp = swed.fidat[ifno];
     int freord  = (int) (fdp.iflg & SwephData.SEI_FILE_REORD);
     int fendian = (int) (fdp.iflg & SwephData.SEI_FILE_LITENDIAN);
-    /* unsigned long */ long longs[]=new long[SwephData.MAXORD+1]; // unsigned ist wichtig?
     /* compute segment number */
 
 
@@ -644,23 +651,42 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
     fpos = (int)pdp.lndx0 + iseg * 3;
     try {
       fpos = read3(fptr, fpos, freord, fendian);
-      fptr.seek(fpos);
+      /* read the whole segment with one read operation: each coordinate
+       * has at most 4 header bytes and 4 bytes per coefficient */
+      int len = 3 * (4 + 4 * pdp.ncoe);
+      if (segbuf == null || segbuf.length < len) {
+        segbuf = new byte[len];
+      }
+      byte b[] = segbuf;
+      int cnt = fptr.readFully(fpos, b, len);
+      int p = 0;
+      long lng;
       /* clear space of chebyshew coefficients */
       if (pdp.segp == null) {
         pdp.segp = new double[pdp.ncoe*3];
       }
-      for(i=0;i<pdp.segp.length;i++) { pdp.segp[i]=0.; }
+      double segp[] = pdp.segp;
+      double rmax = pdp.rmax;
+      for(i=0;i<segp.length;i++) { segp[i]=0.; }
       /* read coefficients for 3 coordinates */
       for (icoord = 0; icoord < 3; icoord++) {
         idbl = icoord * pdp.ncoe;
         /* first read header */
         /* first bit indicates number of sizes of packed coefficients */
-        c[0]=(short)fptr.readUnsignedByte();
-        c[1]=(short)fptr.readUnsignedByte();
+        if (p + 2 > cnt) {
+          throw new java.io.EOFException("Segment at file position " + fpos +
+                                         " is truncated.");
+        }
+        c[0]=(short)(b[p++] & 0xff);
+        c[1]=(short)(b[p++] & 0xff);
         if ((c[0] & 128)!=0) {
+          if (p + 2 > cnt) {
+            throw new java.io.EOFException("Segment at file position " + fpos +
+                                           " is truncated.");
+          }
           nsizes = 6;
-          c[2]=(short)fptr.readUnsignedByte();
-          c[3]=(short)fptr.readUnsignedByte();
+          c[2]=(short)(b[p++] & 0xff);
+          c[3]=(short)(b[p++] & 0xff);
           nsize[0] = (int) c[1] / 16;
           nsize[1] = (int) c[1] % 16;
           nsize[2] = (int) c[2] / 16;
@@ -674,6 +700,8 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
           nsize[1] = (int) c[0] % 16;
           nsize[2] = (int) c[1] / 16;
           nsize[3] = (int) c[1] % 16;
+          nsize[4] = 0;
+          nsize[5] = 0;
           nco = nsize[0] + nsize[1] + nsize[2] + nsize[3];
         }
         /* there may not be more coefficients than interpolation
@@ -691,79 +719,72 @@ byte[] ba=new byte[2*SwissData.AS_MAXCH];
           throw new SwissephException(tfstart, SwissephException.DAMAGED_FILE_ERROR,
               SweConst.ERR, serr);
         }
-        /* now unpack */
-int kCnt;
-        for (i = 0; i < nsizes; i++) {
-          if (nsize[i] == 0) {
-            continue;
+        if (p + nsize[0] * 4 + nsize[1] * 3 + nsize[2] * 2 + nsize[3] +
+            (nsize[4] + 1) / 2 + (nsize[5] + 3) / 4 > cnt) {
+          throw new java.io.EOFException("Segment at file position " + fpos +
+                                         " is truncated.");
+        }
+        /* now unpack; the divisions of the C code by 2, 16, 64 are shifts
+         * here, as the dividends are even or the packed values unsigned */
+        /* 4 byte packing */
+        for (m = 0; m < nsize[0]; m++, idbl++, p += 4) {
+          lng = reord4(((b[p] & 0xff) << 24) | ((b[p+1] & 0xff) << 16) |
+                       ((b[p+2] & 0xff) << 8) | (b[p+3] & 0xff), false, freord);
+          if ((lng & 1)!=0) {   /* will be negative */
+            segp[idbl] = -((((lng+1) >> 1)&0x7fffffffL) / 1e+9 * rmax / 2);
+          } else {
+            segp[idbl] = ((lng >> 1)&0x7fffffffL) / 1e+9 * rmax / 2;
           }
-          if (i < 4) {
-            j = (4 - i);
-            k = nsize[i];
-            for(kCnt=0; kCnt<k; kCnt++) {
-              switch(j) {
-                case 1: longs[kCnt]=(int)fptr.readUnsignedByte();
-                        break;
-                case 2: longs[kCnt]=(int)read2(fptr, SwephData.SEI_CURR_FPOS, freord, fendian);
-                        if(longs[kCnt]<0){longs[kCnt]&=0xffff;}
-                        break;
-                case 3: longs[kCnt]=read3(fptr, SwephData.SEI_CURR_FPOS, freord, fendian);
-                        if(longs[kCnt]<0){longs[kCnt]&=0xffffff;}
-                        break;
-                case 4: longs[kCnt]=read4(fptr, SwephData.SEI_CURR_FPOS, false, freord, fendian);
-                        if(longs[kCnt]<0){longs[kCnt]&=0xffffffff;}
-                        break;
-              }
-            }
-            for (m = 0; m < k; m++, idbl++) {
-              if ((longs[m] & 1)!=0) {   /* will be negative */
-                pdp.segp[idbl] = -((((longs[m]+1) / 2)&0x7fffffffL) / 1e+9 * pdp.rmax / 2);
-              } else {
-                pdp.segp[idbl] = ((longs[m] / 2)&0x7fffffffL) / 1e+9 * pdp.rmax / 2;
-              }
-            }
-          } else if (i == 4) {              /* half byte packing */
-            j = 1;
-            k = (nsize[i] + 1) / 2;
-            for(kCnt=0; kCnt<k; kCnt++) {
-              longs[kCnt]=(int)fptr.readUnsignedByte();
-            }
-            for (m = 0, j = 0;
-                 m < k && j < nsize[i];
-                 m++) {
-              for (n = 0, o = 16;
-                   n < 2 && j < nsize[i];
-                   n++, j++, idbl++, longs[m] %= o, o /= 16) {
-                if ((longs[m] & o)!=0) {
-                  pdp.segp[idbl] = -(((longs[m]+o) / o / 2) * pdp.rmax /
-                                                                    2 / 1e+9);
-                } else {
-                  pdp.segp[idbl] = (longs[m] / o / 2) * pdp.rmax / 2 / 1e+9;
-                }
-              }
-            }
-          } else if (i == 5) {              /* quarter byte packing */
-            j = 1;
-            k = (nsize[i] + 3) / 4;
-            for(kCnt=0; kCnt<k; kCnt++) {
-              longs[kCnt]=(int)fptr.readUnsignedByte();
-            }
-            for (m = 0, j = 0;
-                 m < k && j < nsize[i];
-                 m++) {
-              for (n = 0, o = 64;
-                   n < 4 && j < nsize[i];
-                   n++, j++, idbl++, longs[m] %= o, o /= 4) {
-                if ((longs[m] & o)!=0) {
-                  pdp.segp[idbl] = -(((longs[m]+o) / o / 2) * pdp.rmax /
-                                                                    2 / 1e+9);
-                } else {
-                  pdp.segp[idbl] = (longs[m] / o / 2) * pdp.rmax / 2 / 1e+9;
-                }
-              }
-            }
+        }
+        /* 3 byte packing */
+        for (m = 0; m < nsize[1]; m++, idbl++, p += 3) {
+          lng = reord3(((b[p] & 0xff) << 16) | ((b[p+1] & 0xff) << 8) |
+                       (b[p+2] & 0xff), freord, fendian);
+          if (lng < 0) { lng &= 0xffffff; }
+          if ((lng & 1)!=0) {
+            segp[idbl] = -((((lng+1) >> 1)&0x7fffffffL) / 1e+9 * rmax / 2);
+          } else {
+            segp[idbl] = ((lng >> 1)&0x7fffffffL) / 1e+9 * rmax / 2;
+          }
+        }
+        /* 2 byte packing */
+        for (m = 0; m < nsize[2]; m++, idbl++, p += 2) {
+          lng = reord2((short)(((b[p] & 0xff) << 8) | (b[p+1] & 0xff)), freord) & 0xffff;
+          if ((lng & 1)!=0) {
+            segp[idbl] = -(((lng+1) >> 1) / 1e+9 * rmax / 2);
+          } else {
+            segp[idbl] = (lng >> 1) / 1e+9 * rmax / 2;
+          }
+        }
+        /* 1 byte packing */
+        for (m = 0; m < nsize[3]; m++, idbl++, p++) {
+          lng = b[p] & 0xff;
+          if ((lng & 1)!=0) {
+            segp[idbl] = -(((lng+1) >> 1) / 1e+9 * rmax / 2);
+          } else {
+            segp[idbl] = (lng >> 1) / 1e+9 * rmax / 2;
+          }
+        }
+        /* half byte packing, high half first */
+        for (m = 0; m < nsize[4]; m++, idbl++) {
+          lng = (b[p + (m >> 1)] >> (4 - 4 * (m & 1))) & 0xf;
+          if ((lng & 1)!=0) {
+            segp[idbl] = -(((lng+1) >> 1) * rmax / 2 / 1e+9);
+          } else {
+            segp[idbl] = (lng >> 1) * rmax / 2 / 1e+9;
+          }
+        }
+        p += (nsize[4] + 1) / 2;
+        /* quarter byte packing, high bits first */
+        for (m = 0; m < nsize[5]; m++, idbl++) {
+          lng = (b[p + (m >> 2)] >> (6 - 2 * (m & 3))) & 0x3;
+          if ((lng & 1)!=0) {
+            segp[idbl] = -(((lng+1) >> 1) * rmax / 2 / 1e+9);
+          } else {
+            segp[idbl] = (lng >> 1) * rmax / 2 / 1e+9;
           }
         }
+        p += (nsize[5] + 3) / 4;
       }
       return SweConst.OK;
     } catch (java.io.IOException e) {
@@ -0,0 +1,110 @@
+package swisseph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+* Read only memory mappings of data files, shared by all SwissEph objects.<p>
+* A file is mapped on the first request and the mapping is shared as long
+* as a FilePtr reads it. Closing the last FilePtr of a file releases the
+* mapping, e.g. by swe_close() or swe_set_ephe_path(). A file changed in
+* size or modification time is mapped again on the next request, the old
+* mapping is left to the FilePtr objects still reading it. Every FilePtr
+* gets its own view of the shared mapping, so it keeps its own byte order
+* and reads the file without any synchronization or system call.
+* @see swisseph.SwissEph#setFileMapping(boolean)
+*/
+class FileMapping {
+
+  private static final Map<String, FileMapping> mappings =
+                                        new HashMap<String, FileMapping>();
+
+  private final MappedByteBuffer mbb;
+  private final long length;           // size of the mapped file
+  private final long modified;         // modification time of the mapped file
+  private final Set<ByteBuffer> views = // views not yet released
+      Collections.newSetFromMap(new IdentityHashMap<ByteBuffer, Boolean>());
+
+
+  private FileMapping(MappedByteBuffer mbb, long length, long modified) {
+    this.mbb = mbb;
+    this.length = length;
+    this.modified = modified;
+  }
+
+  /**
+  * Returns a new view of the mapped file. The file is mapped on the first
+  * request only, or again, if it has been changed. Give the view back by
+  * release(), FilePtr.close() does it.
+  * @param fname The name of the file.
+  * @return A read only buffer over the whole file, positioned at 0.
+  * @throws IOException if the file cannot be opened or mapped.
+  */
+  static ByteBuffer map(String fname) throws IOException {
+    File file = new File(fname).getAbsoluteFile();
+    String key = file.getCanonicalPath();
+    long length = file.length();
+    long modified = file.lastModified();
+
+    synchronized (mappings) {
+      FileMapping mapping = mappings.get(key);
+      if (mapping == null || mapping.length != length ||
+          mapping.modified != modified) {
+        try (RandomAccessFile raf =
+                 new RandomAccessFile(file, SwissData.BFILE_R_ACCESS)) {
+          FileChannel fc = raf.getChannel();
+          if (fc.size() > Integer.MAX_VALUE) {
+            throw new IOException("File " + fname + " is too large to be " +
+                                  "mapped: " + fc.size() + " bytes.");
+          }
+          // The mapping stays valid after the channel has been closed:
+          mapping = new FileMapping(
+              fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size()),
+              fc.size(), modified);
+        }
+        mappings.put(key, mapping);
+      }
+      ByteBuffer view = mapping.mbb.duplicate();
+      mapping.views.add(view);
+      return view;
+    }
+  }
+
+  /**
+  * Gives the view back. The mapping is released with its last view.
+  * @param view The buffer returned by map().
+  */
+  static void release(ByteBuffer view) {
+    synchronized (mappings) {
+      Iterator<FileMapping> it = mappings.values().iterator();
+      while (it.hasNext()) {
+        FileMapping mapping = it.next();
+        if (mapping.views.remove(view)) {
+          if (mapping.views.isEmpty()) {
+            it.remove();
+          }
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+  * @return Returns the number of mapped files.
+  */
+  static int size() {
+    synchronized (mappings) {
+      return mappings.size();
+    }
+  }
+}
@@ -74,6 +74,8 @@ package swisseph;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 
 /**
@@ -96,6 +98,8 @@ public class FilePtr
   transient Socket sk;
   transient InputStream is;
   transient BufferedOutputStream os;
+  // View of a file mapping shared by all FilePtr objects of the same file:
+  private transient ByteBuffer mapped;
   String fnamp;
   private long fpos = 0;
   private String host;
@@ -152,8 +156,25 @@ public class FilePtr
   }
 
 
+  /**
+  * Creates a new FilePtr instance reading from a memory mapped file. All
+  * reads are plain buffer reads without any system call.
+  * @param mapped The view of the mapped file. It must not be shared with
+  * other FilePtr objects, as the byte order is set on the view.
+  * @param fnamp The name of the file.
+  * @see swisseph.FileMapping#map(String)
+  */
+  FilePtr(ByteBuffer mapped, String fnamp) throws IOException {
+    this(null, null, null, null, fnamp, mapped.limit(), 0);
+    this.mapped = mapped;
+    mapped.order(ByteOrder.BIG_ENDIAN);
+  }
+
   public void setBigendian(boolean bigendian) {
     this.bigendian = bigendian;
+    if (mapped != null) {
+      mapped.order(bigendian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    }
   }
 
 
@@ -165,6 +186,13 @@ public class FilePtr
   * byte could be read.
   */
   public byte readByte() throws IOException, EOFException {
+    if (mapped != null) {
+      if (fpos < 0 || fpos >= savedLength) {
+        throw new EOFException("Filepointer position " + fpos + " exceeds file"+
+                               " length by " + (fpos-savedLength+1) + " byte(s).");
+      }
+      return mapped.get((int)fpos++);
+    }
     if (startIdx<0 || fpos<startIdx || fpos>endIdx) {
       readToBuffer();
     }
@@ -193,6 +221,10 @@ public class FilePtr
   * 2 bytes could be read completely.
   */
   public short readShort() throws IOException, EOFException {
+    if (mapped != null && fpos >= 0 && fpos + 2 <= savedLength) {
+      fpos += 2;
+      return mapped.getShort((int)fpos - 2);
+    }
     if (bigendian) {
       return (short)((readByte()<<8)+readUnsignedByte());
     }
@@ -208,6 +240,10 @@ public class FilePtr
   * 4 bytes could be read completely.
   */
   public int readInt() throws IOException, EOFException {
+    if (mapped != null && fpos >= 0 && fpos + 4 <= savedLength) {
+      fpos += 4;
+      return mapped.getInt((int)fpos - 4);
+    }
     if (bigendian) {
       return (((int)readByte())<<24)+
              (((int)readUnsignedByte())<<16)+
@@ -229,6 +265,10 @@ public class FilePtr
   * 8 bytes could be read completely.
   */
   public double readDouble() throws IOException, EOFException {
+    if (mapped != null && fpos >= 0 && fpos + 8 <= savedLength) {
+      fpos += 8;
+      return mapped.getDouble((int)fpos - 8);
+    }
     long ldb = (bigendian?
                    (
                        (((long)readUnsignedByte())<<56)+
@@ -291,6 +331,10 @@ public class FilePtr
   public void close() throws IOException {
     try {
       fnamp = "";
+      if (mapped != null) {
+        FileMapping.release(mapped);
+        mapped = null;
+      }
       if (fp != null) {
         fp.close();
       }
@@ -312,6 +356,52 @@ public class FilePtr
     }
   }
 
+  /**
+  * Reads up to len bytes from the position pos with one read operation
+  * of the underlying file or mapping. Less bytes are read only at the end
+  * of the file. The file pointer is set behind the last byte read.
+  * @param pos The position of the first byte.
+  * @param b The buffer for the bytes.
+  * @param len The maximum number of bytes to read.
+  * @return The number of bytes read.
+  * @throws IOException if an I/O error occurs.
+  * @throws EOFException if pos is at or behind the end of the file.
+  */
+  public int readFully(long pos, byte[] b, int len)
+      throws IOException, EOFException {
+    fpos = pos;
+    if (mapped != null || fp != null) {
+      long cnt = SMath.min(len, length() - pos);
+      if (cnt <= 0 || pos < 0) {
+        throw new EOFException("Filepointer position " + pos + " exceeds file"+
+                               " length by " + (pos-length()+1) + " byte(s).");
+      }
+      if (mapped != null) {
+        ByteBuffer view = mapped.duplicate();
+        view.position((int)pos);
+        view.get(b, 0, (int)cnt);
+      } else {
+        fp.seek(pos);
+        fp.readFully(b, 0, (int)cnt);
+      }
+      fpos += cnt;
+      return (int)cnt;
+    }
+    // Via http, the data comes in chunks of the buffer size anyway:
+    int cnt = 0;
+    try {
+      while (cnt < len) {
+        b[cnt] = readByte();
+        cnt++;
+      }
+    } catch (EOFException e) {
+      if (cnt == 0) {
+        throw e;
+      }
+    }
+    return cnt;
+  }
+
   /**
   * Returns the current position of the file pointer.
   * @return the current position of the file pointer.
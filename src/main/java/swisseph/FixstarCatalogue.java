@@ -0,0 +1,227 @@
+package swisseph;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+* Immutable in-memory index of a fixed star file (sefstars.txt or
+* fixstars.cat), shared by all SwissEph objects.<p>
+* The file is read once. Each SwissEph object takes the index when it
+* opens the star file and keeps it until the file is closed, so a lookup
+* neither locks nor checks the file again. The stars can be found by their sequence number
+* (counted without comment lines), by their traditional name (case
+* insensitive) or by their nomenclature name, e.g. ",alVir" (case
+* sensitive). As in the line by line search of the C code, a name may be
+* abbreviated and the first star in the file starting with the name is
+* returned. Full names are found by one hash lookup, abbreviations by a
+* binary search.
+* @see swisseph.SwissEph#swe_fixstar(StringBuffer, double, int, double[], StringBuffer)
+*/
+class FixstarCatalogue {
+  /** Returned by find(), if a damaged line is in front of the star. */
+  static final int DAMAGED = -2;
+  static final int NOT_FOUND = -1;
+
+  private static final Map<String, FixstarCatalogue> catalogues =
+                                        new HashMap<String, FixstarCatalogue>();
+
+  private final long length;           // size of the file read
+  private final long modified;         // modification time of the file read
+  private final String lines[];        // lines without comments
+  private final int flines[];          // line numbers in the file
+  private final int damaged;           // first line without a comma
+  private final Index names;
+  private final Index nomenclatures;
+
+
+  private FixstarCatalogue(List<String> lines, List<Integer> flines,
+                           long length, long modified) {
+    this.length = length;
+    this.modified = modified;
+    this.lines = lines.toArray(new String[lines.size()]);
+    this.flines = new int[flines.size()];
+    for (int i = 0; i < this.flines.length; i++) {
+      this.flines[i] = flines.get(i);
+    }
+
+    int d = this.lines.length;
+    String tnames[] = new String[d];
+    String nnames[] = new String[d];
+    for (int i = 0; i < this.lines.length; i++) {
+      String s = this.lines[i];
+      int ic = s.indexOf(',');
+      if (ic < 0) {
+        d = i;
+        break;
+      }
+      tnames[i] = s.substring(0, ic).toLowerCase();
+      int ic2 = s.indexOf(',', ic + 1);
+      nnames[i] = (ic2 < 0 ? s.substring(ic).trim() : s.substring(ic, ic2));
+    }
+    damaged = d;
+    names = new Index(Arrays.copyOf(tnames, d));
+    nomenclatures = new Index(Arrays.copyOf(nnames, d));
+  }
+
+  /**
+  * Returns the shared index of the star file. The file is read on the
+  * first request only, or again, if it has been changed. The index of a
+  * changed file replaces the old one. Call it once per opened file and
+  * keep the index, see SwissData.fixcat.
+  * @param fp The opened star file.
+  */
+  static FixstarCatalogue get(FilePtr fp) throws IOException {
+    long length = fp.length();
+    long modified = new File(fp.fnamp).lastModified();
+
+    synchronized (catalogues) {
+      FixstarCatalogue cat = catalogues.get(fp.fnamp);
+      if (cat == null || cat.length != length || cat.modified != modified) {
+        cat = read(fp, length, modified);
+        catalogues.put(fp.fnamp, cat);
+      }
+      return cat;
+    }
+  }
+
+  private static FixstarCatalogue read(FilePtr fp, long length, long modified)
+                                                         throws IOException {
+    List<String> lines = new ArrayList<String>();
+    List<Integer> flines = new ArrayList<Integer>();
+    int fline = 0;
+    String s;
+    fp.seek(0);
+    try {
+      while ((s = fp.readLine()) != null) {
+        fline++;
+        if (s.startsWith("#")) { continue; }
+        lines.add(s);
+        flines.add(fline);
+      }
+    } catch (EOFException e) {
+    }
+    return new FixstarCatalogue(lines, flines, length, modified);
+  }
+
+  /**
+  * Finds a star by its name.
+  * @param sstar The lower case traditional name or the nomenclature name
+  * starting with a comma. Both may be abbreviated.
+  * @param isnomclat true, if sstar is a nomenclature name.
+  * @return The index of the star, NOT_FOUND or DAMAGED.
+  */
+  int find(String sstar, boolean isnomclat) {
+    int idx;
+    if (!isnomclat) {
+      idx = names.find(sstar);
+    } else if (sstar.indexOf(',', 1) < 0) {
+      idx = nomenclatures.find(sstar);
+    } else {
+      // More than the nomenclature name, compare with the whole lines:
+      idx = NOT_FOUND;
+      for (int i = 0; i < damaged; i++) {
+        String s = lines[i];
+        if (s.substring(s.indexOf(',')).trim().startsWith(sstar)) {
+          idx = i;
+          break;
+        }
+      }
+    }
+    if (damaged < lines.length && (idx == NOT_FOUND || idx > damaged)) {
+      return DAMAGED;
+    }
+    return idx;
+  }
+
+  /**
+  * @param star_nr The sequence number of the star, starting with 1.
+  * @return The index of the star or NOT_FOUND.
+  */
+  int number(int star_nr) {
+    return (star_nr >= 1 && star_nr <= lines.length ? star_nr - 1 : NOT_FOUND);
+  }
+
+  /**
+  * @return The line of the star including the line separator.
+  */
+  String getLine(int idx) {
+    return lines[idx];
+  }
+
+  /**
+  * @return The line number of the star in the file.
+  */
+  int getFileLine(int idx) {
+    return flines[idx];
+  }
+
+  /**
+  * @return The line number of the first damaged line in the file.
+  */
+  int getDamagedFileLine() {
+    return (damaged < lines.length ? flines[damaged] : -1);
+  }
+
+  int size() {
+    return lines.length;
+  }
+
+
+  // Names mapped to the first star starting with that name:
+  private static final class Index {
+    private final Map<String, Integer> first = new HashMap<String, Integer>();
+    private final String sorted[];
+    private final int sortedIdx[];
+
+    Index(final String names[]) {
+      Integer order[] = new Integer[names.length];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, new Comparator<Integer>() {
+        public int compare(Integer i1, Integer i2) {
+          int c = names[i1].compareTo(names[i2]);
+          return (c != 0 ? c : i1.compareTo(i2));
+        }
+      });
+      sorted = new String[order.length];
+      sortedIdx = new int[order.length];
+      for (int i = 0; i < order.length; i++) {
+        sorted[i] = names[order[i]];
+        sortedIdx[i] = order[i];
+      }
+      for (int i = 0; i < sorted.length; i++) {
+        if (!first.containsKey(sorted[i])) {
+          first.put(sorted[i], scan(sorted[i], i));
+        }
+      }
+    }
+
+    int find(String name) {
+      Integer idx = first.get(name);
+      if (idx != null) {
+        return idx;
+      }
+      int lo = Arrays.binarySearch(sorted, name);
+      return scan(name, (lo < 0 ? -lo - 1 : lo));
+    }
+
+    // The first star among the sorted names from lo starting with name:
+    private int scan(String name, int lo) {
+      int idx = NOT_FOUND;
+      for (int i = lo; i < sorted.length && sorted[i].startsWith(name); i++) {
+        if (idx == NOT_FOUND || sortedIdx[i] < idx) {
+          idx = sortedIdx[i];
+        }
+      }
+      return idx;
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package swisseph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Process wide cache of decoded Chebyshev segments, shared by all SwissEph
+* objects.<p>
+* The segments are keyed by the ephemeris file, the internal planet number
+* and the segment number in the file. A cached segment holds the
+* coefficients after rot_back(), so it can be used directly for the
+* evaluation of the polynomial. The coefficients are never modified after
+* the segment has been put into the cache.<p>
+* Lookups do not lock, puts do. When the coefficients in the cache exceed
+* the maximum size, the least recently used segments are evicted until a
+* quarter of the space is free again.<p>
+* Segments of a preloaded window are pinned: they are never evicted and
+* they do not count for the maximum size, until the window is released.
+* @see swisseph.SwissEph#setSegmentCacheSize(long)
+* @see swisseph.SwissEph#swe_preload(double, double, int[])
+*/
+class SegmentCache {
+  static final long DEFAULT_SIZE = 16L * 1024 * 1024;
+
+  // Approximate size of a segment without its coefficients:
+  private static final int SEGMENT_OVERHEAD = 96;
+
+  private static final Map<Key, Segment> segments =
+                                  new ConcurrentHashMap<Key, Segment>();
+  private static final AtomicLong clock = new AtomicLong();
+  private static final AtomicLong bytes = new AtomicLong();
+  private static final AtomicLong pinnedBytes = new AtomicLong();
+  private static final AtomicLong hits = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+  private static volatile long maxBytes = DEFAULT_SIZE;
+
+
+  private SegmentCache() {
+  }
+
+  /**
+  * Returns the cached segment and marks it as recently used.
+  * @return The segment or null, if it is not cached.
+  */
+  static Segment get(String fnam, int ipl, int iseg, double seps2000) {
+    Segment seg = segments.get(new Key(fnam, ipl, iseg, seps2000));
+    if (seg == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    seg.used = clock.incrementAndGet();
+    return seg;
+  }
+
+  /**
+  * Puts a decoded segment into the cache. If another SwissEph object has
+  * put the same segment already, the cache keeps the first one. The size
+  * is accounted under the same lock as in pin() and unpin(), so a segment
+  * pinned in between is never counted twice.
+  */
+  static synchronized void put(String fnam, int ipl, int iseg, double seps2000,
+                  Segment seg) {
+    if (maxBytes <= 0) {
+      return;
+    }
+    seg.used = clock.incrementAndGet();
+    if (segments.putIfAbsent(new Key(fnam, ipl, iseg, seps2000), seg) == null &&
+        bytes.addAndGet(seg.size()) > maxBytes) {
+      evict(maxBytes - maxBytes / 4);
+    }
+  }
+
+  /**
+  * Pins the segment, so it is kept in the cache until it is unpinned as
+  * many times as it has been pinned. If the cache holds the same segment
+  * already, the cached one is pinned.
+  * @return The pinned segment.
+  */
+  static synchronized Segment pin(Key key, Segment seg) {
+    Segment cached = segments.get(key);
+    if (cached == null) {
+      segments.put(key, seg);
+      cached = seg;
+    } else if (cached.pins == 0) {
+      bytes.addAndGet(-cached.size());
+    }
+    if (cached.pins++ == 0) {
+      pinnedBytes.addAndGet(cached.size());
+    }
+    return cached;
+  }
+
+  /**
+  * Releases one pin of the segment. A segment without pins is subject to
+  * eviction again.
+  */
+  static synchronized void unpin(Key key) {
+    Segment seg = segments.get(key);
+    if (seg == null || seg.pins == 0 || --seg.pins > 0) {
+      return;
+    }
+    pinnedBytes.addAndGet(-seg.size());
+    if (maxBytes <= 0) {
+      segments.remove(key);
+      return;
+    }
+    seg.used = clock.incrementAndGet();
+    if (bytes.addAndGet(seg.size()) > maxBytes) {
+      evict(maxBytes - maxBytes / 4);
+    }
+  }
+
+  static void setMaxSize(long size) {
+    maxBytes = size;
+    evict(size);
+  }
+
+  static long getMaxSize() {
+    return maxBytes;
+  }
+
+  /**
+  * @return Returns the approximate memory used by the cached segments
+  * without the pinned ones in bytes.
+  */
+  static long size() {
+    return bytes.get();
+  }
+
+  /**
+  * @return Returns the approximate memory used by the pinned segments in bytes.
+  */
+  static long pinnedSize() {
+    return pinnedBytes.get();
+  }
+
+  static int count() {
+    return segments.size();
+  }
+
+  static long getHits() {
+    return hits.get();
+  }
+
+  static long getMisses() {
+    return misses.get();
+  }
+
+  /**
+  * Removes all segments which are not pinned.
+  */
+  static synchronized void clear() {
+    for (Map.Entry<Key, Segment> e : segments.entrySet()) {
+      if (e.getValue().pins == 0) {
+        segments.remove(e.getKey());
+      }
+    }
+    bytes.set(0);
+  }
+
+  // Removes the least recently used segments, until the cache has at most
+  // size bytes:
+  private static synchronized void evict(long size) {
+    if (bytes.get() <= size) {
+      return;
+    }
+    List<Map.Entry<Key, Segment>> entries =
+                       new ArrayList<Map.Entry<Key, Segment>>(segments.entrySet());
+    Collections.sort(entries, new Comparator<Map.Entry<Key, Segment>>() {
+      public int compare(Map.Entry<Key, Segment> e1, Map.Entry<Key, Segment> e2) {
+        return Long.compare(e1.getValue().used, e2.getValue().used);
+      }
+    });
+    for (int i = 0; i < entries.size() && bytes.get() > size; i++) {
+      Map.Entry<Key, Segment> e = entries.get(i);
+      if (e.getValue().pins == 0 && segments.remove(e.getKey(), e.getValue())) {
+        bytes.addAndGet(-e.getValue().size());
+      }
+    }
+  }
+
+
+  /**
+  * Immutable Chebyshev coefficients of one segment of a planet.
+  */
+  static final class Segment {
+    final double tseg0;
+    final double tseg1;
+    final double coefficients[];
+    final int neval;
+    volatile long used;
+    int pins;                 // guarded by SegmentCache.class
+
+    Segment(double tseg0, double tseg1, double coefficients[], int neval) {
+      this.tseg0 = tseg0;
+      this.tseg1 = tseg1;
+      this.coefficients = coefficients;
+      this.neval = neval;
+    }
+
+    long size() {
+      return SEGMENT_OVERHEAD + 8L * coefficients.length;
+    }
+  }
+
+
+  // The rotated coefficients depend on the obliquity of J2000 of the
+  // selected astronomical models, so it is part of the key:
+  static final class Key {
+    private final String fnam;
+    private final int ipl;
+    private final int iseg;
+    private final long seps2000;
+
+    Key(String fnam, int ipl, int iseg, double seps2000) {
+      this.fnam = fnam;
+      this.ipl = ipl;
+      this.iseg = iseg;
+      this.seps2000 = Double.doubleToLongBits(seps2000);
+    }
+
+    public int hashCode() {
+      int result = fnam.hashCode();
+      result = 31 * result + ipl;
+      result = 31 * result + iseg;
+      return 31 * result + (int)(seps2000 ^ (seps2000 >>> 32));
+    }
+
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key)obj;
+      return iseg == other.iseg && ipl == other.ipl &&
+             seps2000 == other.seps2000 && fnam.equals(other.fnam);
+    }
+  }
+}
@@ -889,7 +889,17 @@ public class SweDate
   * @see #setGlobalTidalAcc(double, int, int)
   */
   static void swi_set_tid_acc(double tjd_ut, int iflag, int denum) {
-    setGlobalTidalAcc(tjd_ut, iflag, denum);
+    setGlobalTidalAcc(sw, tjd_ut, iflag, denum);
+  }
+  /**
+  * Same as swi_set_tid_acc(double, int, int), but any ephemeris lookup
+  * needed to find the DE number runs on the given SwissEph object instead
+  * of the global default one. Use it when several SwissEph objects are used
+  * from different threads.
+  * @see #setGlobalTidalAcc(SwissEph, double, int, int)
+  */
+  static void swi_set_tid_acc(SwissEph swiss, double tjd_ut, int iflag, int denum) {
+    setGlobalTidalAcc(swiss, tjd_ut, iflag, denum);
   }
   /**
   * Sets the tidal acceleration used in calculations of delta T.
@@ -912,6 +922,18 @@ public class SweDate
   * @see swisseph.SweConst#SE_TIDAL_DEFAULT
   */
   static void setGlobalTidalAcc(double tjd_ut, int iflag, int denum) {
+    setGlobalTidalAcc(sw, tjd_ut, iflag, denum);
+  }
+  /**
+  * Sets the tidal acceleration used in calculations of delta T. The
+  * ephemeris files are looked up on the given SwissEph object.
+  * @param sw the SwissEph object to query for the DE number
+  * @param tjd_ut
+  * @param iflag
+  * @param denum
+  * @see #setGlobalTidalAcc(double, int, int)
+  */
+  static void setGlobalTidalAcc(SwissEph sw, double tjd_ut, int iflag, int denum) {
     double xx[] = new double[6];
     double tjd_et;
     int retval = 0;
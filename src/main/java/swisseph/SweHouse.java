@@ -258,10 +258,13 @@ class SweHouse
     if ((iflag & SweConst.SEFLG_SIDEREAL)!=0 && !swed.ayana_is_set) {
       sw.swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0, 0);
     }
-    eps_mean = sl.swi_epsiln(tjde, 0) * SwissData.RADTODEG;
-    sl.swi_nutation(tjde, 0, nutlo);
+    /* obliquity and nutation of this instant are shared with the planets
+     * calculated by the same SwissEph object, see swi_check_ecliptic() */
+    sw.swi_check_ecliptic(tjde, 0);
+    sw.swi_check_nutation(tjde, 0);
+    eps_mean = swed.oec.eps * SwissData.RADTODEG;
     for (i = 0; i < 2; i++)
-      nutlo[i] *= SwissData.RADTODEG;
+      nutlo[i] = swed.nut.nutlo[i] * SwissData.RADTODEG;
       /*houses_to_sidereal(tjde, geolat, hsys, eps, cusp, ascmc, iflag);*/
     armc = sl.swe_degnorm(sl.swe_sidtime0(tjd_ut, eps_mean + nutlo[1], nutlo[0]) * 15 + geolon);
     if ((iflag & SweConst.SEFLG_SIDEREAL)!=0) {
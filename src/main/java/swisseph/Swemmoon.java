@@ -686,21 +686,21 @@ class Swemmoon
   double T;
   double T2;
 
-  static double T3;
-  static double T4;
-  static double f;
-  static double g;
-  static double Ve;
-  static double Ea;
-  static double Ma;
-  static double Ju;
-  static double Sa;
-  static double cg;
-  static double sg;
-  static double l1;
-  static double l2;
-  static double l3;
-  static double l4;
+  double T3;
+  double T4;
+  double f;
+  double g;
+  double Ve;
+  double Ea;
+  double Ma;
+  double Ju;
+  double Sa;
+  double cg;
+  double sg;
+  double l1;
+  double l2;
+  double l3;
+  double l4;
 
   /* Calculate geometric coordinates of Moon
    * without light time or nutation correction.
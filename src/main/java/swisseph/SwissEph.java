@@ -107,6 +107,7 @@ public class SwissEph
   Swemmoon sm;
   SweHouse sh=null;
   Extensions ext=null;
+  TransitSpeedsFile tsf=null;
 
   double lastLat=0.;
   double lastLong=0.;
@@ -158,6 +159,7 @@ public class SwissEph
     swed.ephe_path_is_set=false;
     swed.jpl_file_is_open=false;
     swed.fixfp=null;
+    swed.fixcat=null;
     swed.ephepath=SweConst.SE_EPHE_PATH;
     swed.jplfnam=SweConst.SE_FNAME_DFT;
     swed.geopos_is_set=false;
@@ -210,6 +212,197 @@ public class SwissEph
     swe_close();
   }
 
+  private boolean fileMapping=false;
+
+  /**
+  * This switches the access to local data files between RandomAccessFile
+  * and memory mapped files. A mapped file is mapped once and the mapping is
+  * shared by all SwissEph objects in all threads, so the headers and the
+  * segments of the Swiss Ephemeris files are read from memory without any
+  * system call. The mapping is released when the last object reading it
+  * closes the file, and a file changed in size or modification time is
+  * mapped again. Files accessed via http:// are never mapped.<P>
+  * Open files are closed, the new access is used when they are opened again.
+  * @param mapping true to map the data files, false to read them via
+  * RandomAccessFile. It defaults to false.
+  * @see SwissEph#swe_close()
+  */
+  public void setFileMapping(boolean mapping) {
+    fileMapping=mapping;
+    swe_close();
+  }
+
+  /**
+  * Returns true, if the local data files are memory mapped.
+  * @return true, if the data files are memory mapped.
+  * @see SwissEph#setFileMapping(boolean)
+  */
+  public boolean isFileMapping() {
+    return fileMapping;
+  }
+
+  /**
+  * This sets the maximum size of the cache of decoded Chebyshev segments.
+  * The cache is shared by all SwissEph objects in all threads, so a segment
+  * decoded by one object is reused by all others, e.g. by the engines of
+  * a thread pool. When the cache is full, the least recently used segments
+  * are evicted.
+  * @param bytes The maximum memory used by the cached segments in bytes.
+  * It defaults to 16 MB. 0 switches the cache off.
+  */
+  public static void setSegmentCacheSize(long bytes) {
+    SegmentCache.setMaxSize(SMath.max(0, bytes));
+  }
+
+  /**
+  * Returns the maximum size of the cache of decoded Chebyshev segments.
+  * @return The maximum memory used by the cached segments in bytes.
+  * @see SwissEph#setSegmentCacheSize(long)
+  */
+  public static long getSegmentCacheSize() {
+    return SegmentCache.getMaxSize();
+  }
+
+  // Days added to both ends of a preloaded window for light-time and speed:
+  private static final double PRELOAD_MARGIN = 1.;
+
+  /**
+  * Reads and decodes all Chebyshev segments of the Swiss Ephemeris files,
+  * which are needed to calculate the planets in a time window. The files
+  * are opened as swe_calc() would open them, e.g. semo_*.se1 and
+  * sepl_*.se1 for the moon, and all planets of the opened files are
+  * decoded, as the planets depend on each other (earth, sun, EMB).<P>
+  * The segments are kept in the segment cache shared by all SwissEph
+  * objects, until the window is released. Calculations with
+  * SEFLG_SWIEPH within the window do not read any segment from a file
+  * after that, only the header of a file is read once by every SwissEph
+  * object which opens it.
+  * @param tjd_start The start of the window as a julian day number in ET.
+  * @param tjd_end The end of the window as a julian day number in ET.
+  * @param ipl The planets, e.g. SweConst.SE_MOON, SweConst.SE_AST_OFFSET + 433.
+  * @return The window with the decoded segments and the memory used.
+  * @throws SwissephException if an ephemeris file is not available.
+  * @see EphemerisWindow#release()
+  * @see SwissEph#setSegmentCacheSize(long)
+  */
+  public EphemerisWindow swe_preload(double tjd_start, double tjd_end,
+                                     int ipl[]) {
+    if (tjd_end < tjd_start) {
+      throw new IllegalArgumentException("The end of the window " + tjd_end +
+          " is before its start " + tjd_start + ".");
+    }
+    EphemerisWindow win = new EphemerisWindow(tjd_start, tjd_end);
+    double t0 = tjd_start - PRELOAD_MARGIN;
+    double t1 = tjd_end + PRELOAD_MARGIN;
+    double xx[] = new double[6];
+    StringBuffer serr = new StringBuffer();
+    try {
+      for (int i = 0; i < ipl.length; i++) {
+        double t = t0;
+        while (t <= t1) {
+          serr.setLength(0);
+          /* opens the files of the planet for t */
+          int retflag = swe_calc(t, ipl[i], SweConst.SEFLG_SWIEPH, xx, serr);
+          /* a missing file is silently replaced by the Moshier ephemeris,
+           * so the files of the planet have to be checked */
+          if (retflag == SweConst.ERR || !preload_files_open(t, ipl[i])) {
+            throw new SwissephException(t, SwissephException.FILE_NOT_FOUND,
+                SweConst.ERR, "Planet " + ipl[i] + " is not available " +
+                "from the Swiss Ephemeris files at jd " + t + ". " + serr);
+          }
+          /* the next files start behind the earliest end of the open files */
+          double next = preload_open_files(win, t0, t1);
+          if (next <= t) {
+            break;
+          }
+          t = next + 1e-3;
+        }
+      }
+    } catch (RuntimeException e) {
+      win.release();
+      throw e;
+    }
+    return win;
+  }
+
+  /* Java only:
+   * checks, that the ephemeris files needed by swe_calc() for the planet
+   * ipl at tjd are open: the moon file for the moon, the lunar node and
+   * apogee, the moon and planet files for the planets and the earth, and
+   * the asteroid file in addition for an asteroid. Planets which are not
+   * calculated from the files need none.
+   */
+  boolean preload_files_open(double tjd, int ipl) {
+    if (ipl == SweConst.SE_TRUE_NODE || ipl == SweConst.SE_OSCU_APOG) {
+      return preload_file_open(tjd, SwephData.SEI_FILE_MOON);
+    }
+    if (ipl < SweConst.SE_SUN ||
+        (ipl > SweConst.SE_PLUTO && ipl < SweConst.SE_EARTH) ||
+        (ipl > SweConst.SE_VESTA && ipl <= SweConst.SE_AST_OFFSET)) {
+      return true;
+    }
+    if (!preload_file_open(tjd, SwephData.SEI_FILE_PLANET) ||
+        !preload_file_open(tjd, SwephData.SEI_FILE_MOON)) {
+      return false;
+    }
+    if (ipl > SweConst.SE_AST_OFFSET + SwephData.MPC_VESTA) {
+      return preload_file_open(tjd, SwephData.SEI_FILE_ANY_AST) &&
+             swed.fidat[SwephData.SEI_FILE_ANY_AST].ipl[0] == ipl;
+    }
+    if (ipl >= SweConst.SE_CHIRON) {
+      return preload_file_open(tjd, SwephData.SEI_FILE_MAIN_AST);
+    }
+    return true;
+  }
+
+  private boolean preload_file_open(double tjd, int ifno) {
+    FileData fdp = swed.fidat[ifno];
+    return fdp.fptr != null && tjd >= fdp.tfstart && tjd <= fdp.tfend;
+  }
+
+  /* Java only:
+   * pins all segments between tjd_start and tjd_end of all planets of the
+   * open ephemeris files. Returns the earliest end of the open files.
+   */
+  double preload_open_files(EphemerisWindow win, double tjd_start,
+                            double tjd_end) {
+    double next = Double.NEGATIVE_INFINITY;
+    StringBuffer serr = new StringBuffer();
+    for (int ifno = SwephData.SEI_FILE_PLANET;
+         ifno <= SwephData.SEI_FILE_ANY_AST; ifno++) {
+      FileData fdp = swed.fidat[ifno];
+      if (fdp.fptr == null) {
+        continue;
+      }
+      next = (next == Double.NEGATIVE_INFINITY ? fdp.tfend :
+                                                 SMath.min(next, fdp.tfend));
+      for (int kpl = 0; kpl < fdp.npl; kpl++) {
+        int ipli = (fdp.ipl[kpl] >= SweConst.SE_AST_OFFSET ?
+                    SwephData.SEI_ANYBODY : fdp.ipl[kpl]);
+        PlanData pdp = swed.pldat[ipli];
+        if (pdp.dseg <= 0) {
+          continue;
+        }
+        double t1 = SMath.min(tjd_end, pdp.tfend);
+        int iseg = (int) ((SMath.max(tjd_start, pdp.tfstart) - pdp.tfstart) /
+                          pdp.dseg);
+        for (; pdp.tfstart + iseg * pdp.dseg <= t1 &&
+               pdp.tfstart + iseg * pdp.dseg < pdp.tfend; iseg++) {
+          int retc = get_segment(pdp.tfstart + (iseg + 0.5) * pdp.dseg,
+                                 ipli, ifno, serr);
+          if (retc != SweConst.OK) {
+            throw new SwissephException(pdp.tfstart + iseg * pdp.dseg,
+                SwissephException.DAMAGED_FILE_ERROR, retc, serr);
+          }
+          win.add(new SegmentCache.Key(fdp.fnam, ipli, iseg, swed.oec2000.seps),
+              new SegmentCache.Segment(pdp.tseg0, pdp.tseg1, pdp.segp,
+                                       pdp.neval));
+        }
+      }
+    }
+    return next;
+  }
+
   /**
   * Returns the version information of this swisseph package.
   * @return package information in the form x.yy.zz
@@ -268,7 +461,7 @@ public class SwissEph
                          StringBuffer serr) {
     double deltat;
     int retval = SweConst.OK;
-    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0);  
+    SweDate.swi_set_tid_acc(this, tjd_ut, iflag, 0);  
     deltat = SweDate.getDeltaT(tjd_ut);
     retval = swe_calc(tjd_ut + deltat, ipl, iflag, xx, serr);
     return retval;
@@ -540,6 +733,7 @@ public class SwissEph
         swed.fixfp.close();
         swed.fixfp=null;
       }
+      swed.fixcat=null;
     } catch (java.io.IOException e) {
 // NBT
     }
@@ -581,6 +775,7 @@ public class SwissEph
       }
       swed.fixfp = null;
     }
+    swed.fixcat = null;
     SweDate.swe_set_tid_acc(SweConst.SE_TIDAL_AUTOMATIC);
     swed.geopos_is_set = false;
     swed.ayana_is_set = false;
@@ -1053,7 +1248,6 @@ String slast_starname;
     int star_nr = 0;
     String s  ; //, sp;
     int fline = 0;
-    int line = 0;
     boolean isnomclat = false;
 
 
@@ -1131,43 +1325,30 @@ String slast_starname;
         }
       }
     }
-    swed.fixfp.seek(0);
+    // The star file is indexed once for all SwissEph objects and
+    // looked up once per opened file:
     try {
-      while ((s=swed.fixfp.readLine())!=null) {
-        fline++;
-        if (s.startsWith("#")) { continue; }
-        line++;
-        // The name can be a line number, counted without(!!!) comment lines:
-        if (star_nr == line) {	// goto found:
-          slast_stardata = s;
-          slast_starname = sstar;
-          return new String[] { ""+fline, s };
-        } else if (star_nr > 0) {
-          continue;
-        }
-
-        if (s.indexOf(',') < 0) {
-          if (serr != null) {
-            serr.setLength(0);
-            serr.append("star file " + SweConst.SE_STARFILE + " damaged at line " + fline);
-          }
-          return null;
-        }
-
-        // The name can be before the first comma (case insensitive),
-        // or case sensitive after the comma (and including the comma):
-        if (!isnomclat && s.toLowerCase().startsWith(sstar)) {
-          slast_stardata = s;
-          slast_starname = sstar;
-          return new String[] { ""+fline, s };
-        } else if (isnomclat) {
-          String fstar=s.substring(s.indexOf(',')).trim();
-          if (fstar.startsWith(sstar)) {
-            slast_stardata = s;
-            slast_starname = sstar;
-            return new String[] { ""+fline, s };
-          }
+      if (swed.fixcat == null) {
+        swed.fixcat = FixstarCatalogue.get(swed.fixfp);
+      }
+      FixstarCatalogue cat = swed.fixcat;
+      // The name can be a line number, counted without(!!!) comment lines,
+      // a name before the first comma (case insensitive), or case sensitive
+      // after the comma (and including the comma):
+      int idx = (star_nr > 0 ? cat.number(star_nr) : cat.find(sstar, isnomclat));
+      if (idx == FixstarCatalogue.DAMAGED) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append("star file " + SweConst.SE_STARFILE + " damaged at line " +
+                      cat.getDamagedFileLine());
         }
+        return null;
+      }
+      if (idx >= 0) {	// goto found:
+        s = cat.getLine(idx);
+        slast_stardata = s;
+        slast_starname = sstar;
+        return new String[] { ""+cat.getFileLine(idx), s };
       }
     } catch (java.io.IOException ioe) {
     }
@@ -1222,7 +1403,7 @@ String slast_starname;
   */
   public int swe_fixstar_ut(StringBuffer star, double tjd_ut, int iflag,
                             double[] xx, StringBuffer serr) {
-    SweDate.swi_set_tid_acc(tjd_ut, iflag, 0);  
+    SweDate.swi_set_tid_acc(this, tjd_ut, iflag, 0);  
     return swe_fixstar(star, tjd_ut + SweDate.getDeltaT(tjd_ut),
                        iflag, xx, serr);
   }
@@ -2666,7 +2847,7 @@ String slast_starname;
 
 
   /**
-  * -- NOT YET IMPLEMENTED -- File to read from and write to the maximum and minimum speeds of planets
+  * File to read from and write to the maximum and minimum speeds of planets
   * and other objects.<br>
   * If the maximum and minimum speeds of a transit object is not know, the
   * routines calculate some number of random speeds to get an idea of the
@@ -2677,17 +2858,34 @@ String slast_starname;
   * calculations done on initialization of the TransitCalculator to this
   * file, so the results may become more reliable and the calculations
   * faster.<br>
-  * This method throws IOException if the file cannot be read (or found) or
-  * isn't writeable, if param <code>writeable</code> is true.
+  * The file is binary and keyed by the object number, the calculation flags
+  * and the transit type (longitude, latitude, distance). It is read once and
+  * shared by all SwissEph objects using the same file.<br>
+  * This method throws SwissephException if the file cannot be read (or found) or
+  * isn't writeable, if param <code>writeable</code> is true. A missing file
+  * is created, if param <code>writeable</code> is true.
   * @param fname The filename to be used. It should be writable, so the
-  * extreme speed values can be further improved.
+  * extreme speed values can be further improved. Null switches the
+  * speeds file off.
   * @param writeable Say true here, if the file should be improved by newly
   * calculated values, false otherwise. It will be a good idea to keep it
   * writeable.
   */
   public void setTransitSpeedsfile(String fname, boolean writeable)
-// throws IOException
-{
+         throws SwissephException {
+    tsf = (fname == null ? null : TransitSpeedsFile.open(fname, writeable));
+  }
+
+  // Extreme speeds from the transit speeds file, null if not available:
+  double[] getTransitSpeeds(int planet, int flags, int idx) {
+    return (tsf == null ? null : tsf.get(planet, flags, idx));
+  }
+
+  // Saves the extreme speeds found by random calculations:
+  void putTransitSpeeds(int planet, int flags, int idx, double[] minmax) {
+    if (tsf != null) {
+      tsf.put(planet, flags, idx, minmax[0], minmax[1]);
+    }
   }
 
   /**
@@ -2801,6 +2999,37 @@ String slast_starname;
                           jdLimit + SweDate.getDeltaT(jdLimit));
     return jdET - SweDate.getDeltaT(jdET);
   }
+  /**
+  * Searches for the transit following the transit found before with the same
+  * TransitCalculator. The search continues right behind the previous transit,
+  * so all transits in a time range can be enumerated with one calculator.
+  * Dates are interpreted as UT (=ET&nbsp;-&nbsp;deltaT).<p>
+  *
+  * @param tc The TransitCalculator that found the previous transit.
+  * @param jdPrevUT The date (and time) in UT of the previous transit.
+  * @param backwards If backward search should be performed.
+  * @param jdLimit This is the date, when the search for transits should be
+  * stopped, even if no transit point had been found up to then. It is
+  * interpreted as UT time as well.
+  * @return return A double containing the julian day number for the next /
+  * previous transit as UT.
+  * @see #getTransitUT(TransitCalculator, double, boolean, double)
+  */
+  public double getNextTransitUT(
+          TransitCalculator tc,
+          double jdPrevUT,
+          boolean backwards,
+          double jdLimit)
+         throws IllegalArgumentException, SwissephException {
+    if (ext==null) { ext=new Extensions(this); }
+    boolean calcUT = (tc instanceof TCHouses);
+    double jdET = ext.getNextTransit(
+                          tc,
+                          jdPrevUT + (calcUT ? 0 : SweDate.getDeltaT(jdPrevUT)),
+                          backwards,
+                          jdLimit + (calcUT ? 0 : SweDate.getDeltaT(jdLimit)));
+    return jdET - (calcUT ? 0 : SweDate.getDeltaT(jdET));
+  }
 //////////////////////////////////////////////////////////////////////////////
 // End of public methods /////////////////////////////////////////////////////
 //////////////////////////////////////////////////////////////////////////////
@@ -4320,17 +4549,10 @@ System.err.println(e);
      ******************************/
     /* get new segment, if necessary */
     if (pdp.segp == null || tjd < pdp.tseg0 || tjd > pdp.tseg1) {
-      retc = swed.fidat[ifno].get_new_segment(swed, tjd, ipl, ifno, serr);
+      retc = get_segment(tjd, ipl, ifno, serr);
       if (retc != SweConst.OK) {
         return(retc);
       }
-      /* rotate cheby coeffs back to equatorial system.
-       * if necessary, add reference orbit. */
-      if ((pdp.iflg & SwephData.SEI_FLG_ROTATE)!=0) {
-        rot_back(ipl); /**/
-      } else {
-        pdp.neval = pdp.ncoe;
-      }
     }
     /* evaluate chebyshew polynomial for tjd */
     t = (tjd - pdp.tseg0) / pdp.dseg;
@@ -4456,12 +4678,17 @@ System.err.println(e);
       }
       fnamp = s;
       try {
-        fp = new java.io.RandomAccessFile(fnamp, SwissData.BFILE_R_ACCESS);
+        FilePtr sfp;
+        if (fileMapping) {
+          sfp = new FilePtr(FileMapping.map(fnamp),fnamp);
+        } else {
+          fp = new java.io.RandomAccessFile(fnamp, SwissData.BFILE_R_ACCESS);
+          sfp = new FilePtr(fp,null,null,null,fnamp,-1,httpBufSize);
+        }
 // In Java only????:
         if (ifno >= 0) {
           swed.fidat[ifno].fnam=fnamp;
         }
-        FilePtr sfp = new FilePtr(fp,null,null,null,fnamp,-1,httpBufSize);
 ////#ifdef TRACE0
 //        Trace.level--;
 ////#endif /* TRACE0 */
@@ -6236,6 +6463,42 @@ System.err.println(e);
    *
    * ipli         planet number
    */
+  /* Java only:
+   * takes the segment of tjd from the process wide segment cache, or
+   * reads it from the file, rotates it back and puts it into the cache.
+   * pdp.segp may refer to cached coefficients, so it is never reused for
+   * reading a new segment.
+   */
+  int get_segment(double tjd, int ipl, int ifno, StringBuffer serr) {
+    PlanData pdp = swed.pldat[ipl];
+    FileData fdp = swed.fidat[ifno];
+    int iseg = (int) ((tjd - pdp.tfstart) / pdp.dseg);
+    SegmentCache.Segment seg = SegmentCache.get(fdp.fnam, ipl, iseg,
+                                                swed.oec2000.seps);
+    if (seg != null) {
+      pdp.segp = seg.coefficients;
+      pdp.neval = seg.neval;
+      pdp.tseg0 = seg.tseg0;
+      pdp.tseg1 = seg.tseg1;
+      return SweConst.OK;
+    }
+    pdp.segp = null;
+    int retc = fdp.get_new_segment(swed, tjd, ipl, ifno, serr);
+    if (retc != SweConst.OK) {
+      return(retc);
+    }
+    /* rotate cheby coeffs back to equatorial system.
+     * if necessary, add reference orbit. */
+    if ((pdp.iflg & SwephData.SEI_FLG_ROTATE)!=0) {
+      rot_back(ipl); /**/
+    } else {
+      pdp.neval = pdp.ncoe;
+    }
+    SegmentCache.put(fdp.fnam, ipl, iseg, swed.oec2000.seps,
+        new SegmentCache.Segment(pdp.tseg0, pdp.tseg1, pdp.segp, pdp.neval));
+    return SweConst.OK;
+  }
+
   void rot_back(int ipli) {
     int i;
     double t, tdiff;
@@ -7876,9 +8139,7 @@ if (false) {
     int cmplen;
     String[] cpos = new String[20];
     String sstar;
-    String fstar;
-    String s="", sp;
-    int line = 0;
+    String s="";
     int fline = 0;
     int retc = SweConst.ERR;
     mag[0] = 0;
@@ -7923,7 +8184,6 @@ if (false) {
         }
       }
     }
-    swed.fixfp.seek(0);
     sstar=star.toString().substring(0,
                                 SMath.min(star.length(),SweConst.SE_MAX_STNAME));
     if (sstar.length()>0) {
@@ -7950,34 +8210,22 @@ if (false) {
     }
 
     try {
-      while ((s=swed.fixfp.readLine())!=null) {
-        fline++;
-        if (s.startsWith("#")) { continue; }
-        line++;
-        if (star_nr == line)
-          break;
-        else if (star_nr > 0)
-          continue;
-        if (s.indexOf(',') < 0) {
-          throw new SwissephException(0./0.,
-              SwissephException.DAMAGED_FILE_ERROR,
-              retc,
-              "star file " + SweConst.SE_STARFILE + " damaged at line " + fline);
-        }
-        sp = s.substring(s.indexOf(','));
-        if (isnomclat) {
-          if (sp.substring(0, SMath.min(sp.length(), cmplen)).equals(sstar.substring(0, SMath.min(sstar.length(), cmplen))))
-            break;
-          else
-            continue;
-        }
-        fstar = s.substring(0, SMath.min(s.length(), SweConst.SE_MAX_STNAME)).trim();	// Left trimming only in original sources
-        i = fstar.length();
-        if (i < cmplen)
-          continue;
-        fstar = fstar.toLowerCase();
-        if (fstar.substring(0, SMath.min(fstar.length(), cmplen)).equals(sstar.substring(0, SMath.min(sstar.length(), cmplen))))
-          break;
+      if (swed.fixcat == null) {
+        swed.fixcat = FixstarCatalogue.get(swed.fixfp);
+      }
+      FixstarCatalogue cat = swed.fixcat;
+      int idx = (star_nr > 0 ? cat.number(star_nr) : cat.find(sstar, isnomclat));
+      if (idx == FixstarCatalogue.DAMAGED) {
+        throw new SwissephException(0./0.,
+            SwissephException.DAMAGED_FILE_ERROR,
+            retc,
+            "star file " + SweConst.SE_STARFILE + " damaged at line " +
+            cat.getDamagedFileLine());
+      }
+      s = null;
+      if (idx >= 0) {
+        s = cat.getLine(idx);
+        fline = cat.getFileLine(idx);
       }
     } catch (java.io.IOException ioe) {
       s = null;
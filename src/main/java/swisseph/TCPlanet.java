@@ -38,6 +38,8 @@ public class TCPlanet extends TransitCalculator
   private  double max = 0;
   // The y = f(x) value to reach, speaking mathematically...
   private double offset = 0.;
+  // Root finding search instead of the stepping with the extreme speeds:
+  private boolean rootFinding = false;
 
 
 
@@ -238,7 +240,11 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
       // Trying to find some reasonable min- and maxSpeed by randomly testing some speed values.
       // Limited to ecliptical(?) non-speed calculations so far:
       if (idx < 3) {
-        double[] minmax = getTestspeed(planet, idx, precalcCount, precalcSafetyfactor);
+        double[] minmax = this.sw.getTransitSpeeds(planet, flags, idx);
+        if (minmax == null) {
+          minmax = getTestspeed(planet, idx, precalcCount, precalcSafetyfactor);
+          this.sw.putTransitSpeeds(planet, flags, idx, minmax);
+        }
         min = minmax[0];
         max = minmax[1];
       }
@@ -296,6 +302,35 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
 
 
 
+  /**
+  * Switches between the default search, which steps with the extreme
+  * speeds of the planet, and the root finding search, which steps with the
+  * actual position and speed of the planet and refines the bracketed
+  * transit by Newton iterations. The root finding search needs less
+  * calculations for slow planets, compare it by getIterationCount().<br>
+  * It is available for longitudinal transits over a position only.
+  * @param rootFinding True for the root finding search.
+  * @see swisseph.TransitCalculator#getIterationCount()
+  */
+  public void setRootFinding(boolean rootFinding) {
+    if (rootFinding && (idx != 0 ||
+        (tflags & SweConst.SEFLG_TRANSIT_LONGITUDE) == 0)) {
+      throw new IllegalArgumentException(
+          "Root finding is available for longitudinal transits only.");
+    }
+    this.rootFinding = rootFinding;
+  }
+  /**
+  * @return Returns true, if the root finding search is used.
+  * @see #setRootFinding(boolean)
+  */
+  public boolean isRootFinding() {
+    return rootFinding;
+  }
+
+
+
+
   //////////////////////////////////////////////////////////////////////////////
 
   protected double calc(double jdET) {
@@ -316,6 +351,40 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
   }
 
 
+  // Calculates the value and its speed into fv[0] and fv[1]:
+  void calcWithSpeed(double jdET, double[] fv) {
+    StringBuffer serr = new StringBuffer();
+    double[] xx = new double[6];
+
+    int ret = sw.swe_calc(jdET, planet, flags | SweConst.SEFLG_SPEED, xx, serr);
+    if (ret<0) {
+      throw new SwissephException(jdET, SwissephException.UNDEFINED_ERROR,
+          "Calculation failed with return code "+ret+":\n"+serr.toString());
+    }
+    fv[0] = xx[idx];
+    fv[1] = xx[idx+3];
+  }
+
+  // Maximum step of the root finding search in days. The planet has to move
+  // less than 90 degrees and may stop only once within one step, so the step
+  // is a half of the shortest retrograde period of the planet:
+  double getRootStep() {
+    double step = 5.;  // Nodes, apogees and asteroids with unknown periods
+    if ((flags & SweConst.SEFLG_HELCTR) != 0 ||
+        planet == SweConst.SE_SUN || planet == SweConst.SE_MOON ||
+        planet == SweConst.SE_MEAN_NODE || planet == SweConst.SE_MEAN_APOG) {
+      step = 1000.;
+    } else if (planet >= SweConst.SE_MERCURY && planet <= SweConst.SE_PLUTO) {
+      step = ROOT_STEPS[planet - SweConst.SE_MERCURY];
+    }
+    double speed = SMath.max(SMath.abs(min), SMath.abs(max));
+    return (speed > 0. ? SMath.min(step, 90. / speed) : step);
+  }
+  // Mercury ... Pluto:
+  private static final double[] ROOT_STEPS = {
+    10., 20., 28., 55., 65., 70., 75., 75. };
+
+
   protected double getMaxSpeed() {
     return max;
   }
@@ -308,7 +308,11 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
       // Trying to find some reasonable min- and maxSpeed by randomly testing some speed values.
       // Limited to ecliptical(?) non-speed calculations so far:
       if (idx < 3) {
-        double[] minmax = getTestspeed(pl1, idx, precalcCount, precalcSafetyfactor);
+        double[] minmax = this.sw.getTransitSpeeds(pl1, flags, idx);
+        if (minmax == null) {
+          minmax = getTestspeed(pl1, idx, precalcCount, precalcSafetyfactor);
+          this.sw.putTransitSpeeds(pl1, flags, idx, minmax);
+        }
         minSpeed1 = minmax[0];
         maxSpeed1 = minmax[1];
       }
@@ -331,7 +335,11 @@ double minVal = 0., maxVal = 0.;  // Thinking about it...
       // Trying to find some reasonable min- and maxSpeed by randomly testing some speed values.
       // Limited to ecliptical(?) non-speed calculations so far:
       if (idx < 3) {
-        double[] minmax = getTestspeed(pl2, idx, precalcCount, precalcSafetyfactor);
+        double[] minmax = this.sw.getTransitSpeeds(pl2, flags, idx);
+        if (minmax == null) {
+          minmax = getTestspeed(pl2, idx, precalcCount, precalcSafetyfactor);
+          this.sw.putTransitSpeeds(pl2, flags, idx, minmax);
+        }
         minSpeed2 = minmax[0];
         maxSpeed2 = minmax[1];
       }
@@ -47,6 +47,14 @@ public abstract class TransitCalculator
   public Object[] getObjectIdentifiers() {
     return null;
   }
+  /**
+  * Returns the number of position calculations done by the last transit
+  * search with this TransitCalculator.
+  * @return The number of calculations.
+  */
+  public int getIterationCount() {
+    return iterations;
+  }
 
 
 
@@ -64,6 +72,9 @@ public abstract class TransitCalculator
                                        // as default. Other values than 0.0 for the
                                        // minimum values are not supported for now.
 
+  // Number of calc() calls of the last transit search:
+  int iterations = 0;
+
   // These methods have to return the maxima of the first derivative of the
   // function, mathematically spoken...
   protected abstract double getMaxSpeed();
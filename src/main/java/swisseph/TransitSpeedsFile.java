@@ -0,0 +1,207 @@
+package swisseph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+* Persistent table of the extreme speeds of objects without saved extreme
+* speeds in SwephData.<p>
+* The records are keyed by the planet number, the calculation flags
+* (SEFLG_TOPOCTR, SEFLG_HELCTR, SEFLG_EQUATORIAL, ...) and the index into
+* the xx[] array of swe_calc(). The file is binary:
+* <pre>
+*   int    magic 'SWTS'
+*   int    version
+*   int    number of records
+*   records of: int planet, int flags, int idx, double min, double max
+* </pre>
+* One instance exists per file, so all SwissEph objects using the same
+* file share their findings.
+* @see swisseph.SwissEph#setTransitSpeedsfile(String, boolean)
+*/
+class TransitSpeedsFile {
+  static final int MAGIC = 0x53575453; // 'SWTS'
+  static final int VERSION = 1;
+
+  // Flags changing the speeds of an object. The ephemeris flags do not.
+  static final int FLAG_MASK = SweConst.SEFLG_TOPOCTR |
+                               SweConst.SEFLG_HELCTR |
+                               SweConst.SEFLG_EQUATORIAL |
+                               SweConst.SEFLG_SIDEREAL |
+                               SweConst.SEFLG_TRUEPOS |
+                               SweConst.SEFLG_NOABERR |
+                               SweConst.SEFLG_NOGDEFL |
+                               SweConst.SEFLG_SPEED;
+
+  private static final Map<String, TransitSpeedsFile> files =
+                                        new HashMap<String, TransitSpeedsFile>();
+
+  private final File file;
+  private final Map<Long, double[]> speeds = new HashMap<Long, double[]>();
+  private boolean writeable;
+
+
+  private TransitSpeedsFile(File file) {
+    this.file = file;
+  }
+
+  /**
+  * Returns the shared table of the file. The file is read on the first
+  * request only.
+  * @param fname The name of the file.
+  * @param writeable True, if new extreme speeds should be written to the
+  * file. A missing writeable file is created on the first write.
+  */
+  static TransitSpeedsFile open(String fname, boolean writeable)
+         throws SwissephException {
+    File file = new File(fname).getAbsoluteFile();
+    String key;
+    try {
+      key = file.getCanonicalPath();
+    } catch (IOException e) {
+      throw new SwissephException(0., SwissephException.INVALID_FILE_NAME,
+          "Invalid transit speeds file name " + fname + ": " + e.getMessage());
+    }
+
+    synchronized (files) {
+      TransitSpeedsFile tsf = files.get(key);
+      if (tsf == null) {
+        tsf = new TransitSpeedsFile(file);
+        if (file.exists()) {
+          tsf.read();
+        } else if (!writeable) {
+          throw new SwissephException(0., SwissephException.FILE_NOT_FOUND,
+              "Transit speeds file " + fname + " not found.");
+        }
+        files.put(key, tsf);
+      }
+      if (writeable) {
+        if (file.exists() ? !file.canWrite() :
+            (file.getParentFile() != null && !file.getParentFile().canWrite())) {
+          throw new SwissephException(0., SwissephException.FILE_OPEN_FAILED,
+              "Transit speeds file " + fname + " is not writeable.");
+        }
+        tsf.setWriteable();
+      }
+      return tsf;
+    }
+  }
+
+  /**
+  * @return Returns the minimum and maximum speed, or null if the object
+  * has not been calculated yet.
+  */
+  synchronized double[] get(int planet, int flags, int idx) {
+    double[] minmax = speeds.get(key(planet, flags, idx));
+    return (minmax == null ? null : minmax.clone());
+  }
+
+  /**
+  * Widens the stored extremes by the given speeds and writes the file, if
+  * the extremes changed and the file is writeable.
+  */
+  synchronized void put(int planet, int flags, int idx, double min, double max) {
+    if (Double.isInfinite(min) || Double.isInfinite(max) ||
+        Double.isNaN(min) || Double.isNaN(max)) {
+      return;
+    }
+    Long key = key(planet, flags, idx);
+    double[] minmax = speeds.get(key);
+    if (minmax != null && minmax[0] <= min && minmax[1] >= max) {
+      return;
+    }
+    if (minmax == null) {
+      minmax = new double[] { min, max };
+      speeds.put(key, minmax);
+    } else {
+      minmax[0] = SMath.min(minmax[0], min);
+      minmax[1] = SMath.max(minmax[1], max);
+    }
+    if (writeable) {
+      write();
+    }
+  }
+
+  synchronized int size() {
+    return speeds.size();
+  }
+
+  private synchronized void setWriteable() {
+    writeable = true;
+  }
+
+  private static Long key(int planet, int flags, int idx) {
+    return ((long)planet << 40) | ((long)(flags & FLAG_MASK) << 8) | (idx & 0xff);
+  }
+
+  private void read() throws SwissephException {
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new SwissephException(0., SwissephException.INVALID_FILE_ERROR,
+            "File " + file + " is not a transit speeds file.");
+      }
+      int n = in.readInt();
+      for (int i = 0; i < n; i++) {
+        int planet = in.readInt();
+        int flags = in.readInt();
+        int idx = in.readInt();
+        double min = in.readDouble();
+        double max = in.readDouble();
+        speeds.put(key(planet, flags, idx), new double[] { min, max });
+      }
+    } catch (EOFException e) {
+      throw new SwissephException(0., SwissephException.DAMAGED_FILE_ERROR,
+          "Transit speeds file " + file + " is truncated.");
+    } catch (IOException e) {
+      throw new SwissephException(0., SwissephException.FILE_READ_ERROR,
+          "Reading transit speeds file " + file + " failed: " + e.getMessage());
+    } finally {
+      try {
+        if (in != null) { in.close(); }
+      } catch (IOException e) { }
+    }
+  }
+
+  // Written to a temporary file first, so a reader never sees half a file.
+  private void write() throws SwissephException {
+    File tmp = new File(file.getPath() + ".tmp");
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(speeds.size());
+      for (Map.Entry<Long, double[]> e : speeds.entrySet()) {
+        long key = e.getKey();
+        out.writeInt((int)(key >> 40));
+        out.writeInt((int)((key >> 8) & 0xffffffffL));
+        out.writeInt((int)(key & 0xff));
+        out.writeDouble(e.getValue()[0]);
+        out.writeDouble(e.getValue()[1]);
+      }
+      out.close();
+      out = null;
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new SwissephException(0., SwissephException.FILE_ERROR,
+          "Writing transit speeds file " + file + " failed: " + e.getMessage());
+    } finally {
+      try {
+        if (out != null) { out.close(); }
+      } catch (IOException e) { }
+    }
+  }
+}
@@ -8,6 +8,7 @@ import org.junit.runners.Suite;
   PlanetBuilderTest.class,
   CuspBuilderTest.class,
   TransitBuilderTest.class,
+  ChartBuilderTest.class,
 })
 
 public class BuilderTestSuite {}
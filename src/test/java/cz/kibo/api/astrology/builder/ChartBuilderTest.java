@@ -0,0 +1,62 @@
+package cz.kibo.api.astrology.builder;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+import cz.kibo.api.astrology.domain.Chart;
+import cz.kibo.api.astrology.domain.Cusp;
+import cz.kibo.api.astrology.domain.Planet;
+
+public class ChartBuilderTest {
+
+	final double LONGITUDE = 16.0542676;
+	final double LATITUDE = 48.8559107;
+	final double GEOALT = 286;
+
+	@Test
+	public void chartTest() {
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 5, 6);
+		Chart chart = new ChartBuilder(event)
+						.planets()
+						.houses("Koch")
+						.topo(LONGITUDE, LATITUDE, GEOALT)
+						.zodiac("Babyl Huber")
+						.build();
+
+		Planet planets = new PlanetBuilder(event)
+						.planets()
+						.topo(LONGITUDE, LATITUDE, GEOALT)
+						.zodiac("Babyl Huber")
+						.build();
+
+		Cusp cusps = new CuspBuilder(event)
+						.houses("Koch")
+						.topo(LONGITUDE, LATITUDE, GEOALT)
+						.zodiac("Babyl Huber")
+						.build();
+
+		assertEquals(planets, chart.getPlanet());
+		assertEquals(cusps, chart.getCusp());
+		assertEquals(13, chart.getPlanet().size());
+	}
+
+	@Test
+	public void geocentricTest() {
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 5, 6);
+		Chart chart = new ChartBuilder(event)
+						.planet("Sun, Moon")
+						.topo(LONGITUDE, LATITUDE, GEOALT)
+						.geocentric()
+						.build();
+
+		assertEquals(new PlanetBuilder(event).planet("Sun, Moon").build(), chart.getPlanet());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void missingPlaceTest() {
+		new ChartBuilder( LocalDateTime.of( 2018, 3, 20, 5, 6) ).planets().build();
+	}
+}
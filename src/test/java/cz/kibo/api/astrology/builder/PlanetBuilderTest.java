@@ -2,10 +2,14 @@ package cz.kibo.api.astrology.builder;
 
 import static org.junit.Assert.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
+import cz.kibo.api.astrology.domain.ChartCache;
 import cz.kibo.api.astrology.domain.Coordinates;
 import cz.kibo.api.astrology.domain.Planet;
 
@@ -58,4 +62,68 @@ public class PlanetBuilderTest {
 		assertEquals(7, ephemeris.getPlanets().get("Sun").get(0).intValue());
 		assertEquals(210, ephemeris.getPlanets().get("Jupiter").get(0).intValue());
 	}
+	
+	@Test
+	public void batchTest() {
+		List<LocalDateTime> events = new ArrayList<LocalDateTime>();
+		events.add( LocalDateTime.of( 2018, 3, 20, 16, 20) );
+		events.add( LocalDateTime.of( 2018, 4, 18, 4, 00) );
+		
+		List<Planet> charts = new PlanetBuilder( events )
+							.planet("Sun, Jupiter, Chiron")
+							.buildAll();
+		
+		assertEquals(2, charts.size());
+		assertEquals(events.get(1), charts.get(1).getEvent());
+		assertEquals(new PlanetBuilder( events.get(0) ).planet("Sun, Jupiter, Chiron").build(), charts.get(0));
+		assertEquals(new PlanetBuilder( events.get(1) ).planet("Sun, Jupiter, Chiron").build(), charts.get(1));
+	}
+	
+	@Test
+	public void batchZodiacTopoTest() {
+		List<LocalDateTime> events = new ArrayList<LocalDateTime>();
+		events.add( LocalDateTime.of( 2018, 4, 18, 4, 00) );
+		
+		List<Planet> charts = new PlanetBuilder( events )
+							.planet("Sun, Jupiter")
+							.topo(LONGITUDE, LATITUDE, GEOALT)
+							.zodiac("Sassanian")
+							.buildAll();
+		
+		assertEquals(7, charts.get(0).getPlanets().get("Sun").get(0).intValue());
+		assertEquals(210, charts.get(0).getPlanets().get("Jupiter").get(0).intValue());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void batchBuildTest() {
+		new PlanetBuilder( new ArrayList<LocalDateTime>() ).planets().build();
+	}
+	
+	@Test
+	public void rangeTest() {
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+		
+		int count = 0;
+		for( Planet chart : new PlanetBuilder( event )
+							.planet("Moon")
+							.range(event.plusHours(1), Duration.ofMinutes(10)) ) {
+			assertEquals(event.plusMinutes(10 * count), chart.getEvent());
+			count++;
+		}
+		
+		assertEquals(7, count);
+	}
+	
+	@Test
+	public void cacheTest() {
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+		ChartCache cache = new ChartCache(10, 60000);
+		
+		Planet first = new PlanetBuilder( event ).planets().zodiac("Lahiri").cache(cache).build();
+		Planet second = new PlanetBuilder( event ).planets().zodiac("Lahiri").cache(cache).build();
+		
+		assertSame(first, second);
+		assertEquals(new PlanetBuilder( event ).planets().zodiac("Lahiri").build(), first);
+		assertEquals(1, cache.getHitCount());
+	}
 }
@@ -3,11 +3,15 @@ package cz.kibo.api.astrology.builder;
 import static org.junit.Assert.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
+import cz.kibo.api.astrology.domain.Coordinates;
 import cz.kibo.api.astrology.domain.Transit;
 import swisseph.SweConst;
+import swisseph.SweDate;
 
 public class TransitBuilderTest {
 	
@@ -104,4 +108,40 @@ public class TransitBuilderTest {
 		
 		assertEquals( LocalDateTime.of( 2017, 7, 1, 00, 51), LocalDateTime.of( date.getYear(), date.getMonthValue(), date.getDayOfMonth(), date.getHour(), date.getMinute()));					
 	}
+	
+	@Test
+	public void rangeTest() {
+		
+		LocalDateTime event = LocalDateTime.of( 2017, 6, 18, 0, 0);
+		List<Transit> transits = new ArrayList<Transit>();
+		new TransitBuilder( event)
+						.planet("Moon")
+						.toPlanet("Sun")
+						.aspect(90.0)
+						.range(event.plusMonths(2))
+						.forEach( transits::add );
+		
+		assertEquals( 2, transits.size() );
+		
+		LocalDateTime date = transits.get(0).getDate();
+		assertEquals( LocalDateTime.of( 2017, 7, 1, 00, 51), LocalDateTime.of( date.getYear(), date.getMonthValue(), date.getDayOfMonth(), date.getHour(), date.getMinute()));
+	}
+
+	@Test
+	public void angleTest() {
+
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 0, 0);
+		List<Coordinates> cities = new ArrayList<Coordinates>();
+		cities.add( new Coordinates(0, 51.48, 0) );
+		cities.add( new Coordinates(LONGITUDE, LATITUDE, GEOALT) );
+
+		// The Sun culminates about noon of the local mean time.
+		double[] noon = new TransitBuilder( event)
+										.planet("Sun")
+										.angle("MC", cities)
+										.calculate();
+
+		assertEquals( SweDate.getJulDay(2018, 3, 20, 12, SweDate.SE_GREG_CAL), noon[0], 20.0 / 24 / 60 );
+		assertEquals( SweDate.getJulDay(2018, 3, 20, 12 - LONGITUDE / 15, SweDate.SE_GREG_CAL), noon[1], 20.0 / 24 / 60 );
+	}
 }
@@ -0,0 +1,104 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+public class AngleTransitBatchTest {
+
+	final int PLACIDUS_HOUSE_SYSTEM = 'P';
+
+	final List<Coordinates> CITIES = Arrays.asList(
+			new Coordinates(16.0542676, 48.8559107, 286), // Znojmo
+			new Coordinates(-74.006, 40.7128, 10), // New York
+			new Coordinates(151.2093, -33.8688, 58), // Sydney
+			new Coordinates(-21.9426, 64.1466, 0), // Reykjavik
+			new Coordinates(0, 0, 0));
+
+	@Test
+	public void pointTest() {
+
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+		double jd = SweDate.getJulDay(2018, 3, 20, 16 + 20 / 60.0, SweDate.SE_GREG_CAL);
+
+		for(int angle : new int[] {SweConst.SE_ASC, SweConst.SE_MC}) {
+			double[] transits = new AngleTransitBatch(event, CITIES, angle, 123.4, 0).calculate();
+
+			for(int i = 0; i < CITIES.size(); i++) {
+				assertTrue( transits[i] >= jd && transits[i] < jd + 1.1 );
+
+				Cusp cusp = new Cusp(getDate(transits[i]), CITIES.get(i), PLACIDUS_HOUSE_SYSTEM, 0);
+				double position = cusp.getCusp(angle == SweConst.SE_ASC ? 0 : 9);
+				assertEquals( 0, normalize(position - 123.4), 0.01 );
+			}
+		}
+	}
+
+	@Test
+	public void planetTest() {
+
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+
+		List<Coordinates> locations = new ArrayList<Coordinates>();
+		for(int lat = -60; lat <= 60; lat += 10) {
+			for(int lon = -180; lon < 180; lon += 15) {
+				locations.add( new Coordinates(lon, lat, 0) );
+			}
+		}
+
+		AngleTransitBatch batch = new AngleTransitBatch(event, locations, SweConst.SE_ASC, SweConst.SE_MOON, 0.0, 0);
+		double[] transits = batch.calculate();
+
+		ChartExecutor executor = new ChartExecutor(3);
+		try {
+			assertArrayEquals( transits, batch.calculate(executor), 0 );
+		} finally {
+			executor.shutdown();
+		}
+
+		for(int i = 0; i < locations.size(); i += 17) {
+			LocalDateTime date = getDate(transits[i]);
+			Cusp cusp = new Cusp(date, locations.get(i), PLACIDUS_HOUSE_SYSTEM, 0);
+			Planet moon = new Planet(date, Arrays.asList(SweConst.SE_MOON), 0);
+			// The date is rounded to the second, the Ascendant moves fast at high latitudes.
+			assertEquals( 0, normalize(cusp.getCusp(0) - moon.getPosition(0, Planet.LONGITUDE)), 0.05 );
+		}
+	}
+
+	@Test
+	public void siderealTest() {
+
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+		int iflag = SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_LAHIRI;
+
+		double[] transits = new AngleTransitBatch(event, CITIES, SweConst.SE_ASC, 200.0, iflag).calculate();
+
+		for(int i = 0; i < CITIES.size(); i++) {
+			Cusp cusp = new Cusp(getDate(transits[i]), CITIES.get(i), PLACIDUS_HOUSE_SYSTEM, iflag);
+			assertEquals( 0, normalize(cusp.getCusp(0) - 200.0), 0.01 );
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void angleTest() {
+		new AngleTransitBatch(LocalDateTime.now(), CITIES, SweConst.SE_NASCMC, 10.0, 0);
+	}
+
+	private static LocalDateTime getDate(double jd) {
+		SweDate sweDate = new SweDate(jd, SweDate.SE_GREG_CAL);
+		return LocalDateTime.ofInstant(sweDate.getDate(0).toInstant(), ZoneOffset.UTC);
+	}
+
+	private static double normalize(double angle) {
+		return angle - 360.0 * Math.floor( (angle + 180.0) / 360.0 );
+	}
+}
@@ -0,0 +1,146 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class AspectCalendarTest {
+
+	@Test
+	public void sameAsTransitSeriesTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2020, 1, 1, 0, 0);
+		List<Integer> bodies = Arrays.asList(SweConst.SE_SUN, SweConst.SE_MERCURY, SweConst.SE_VENUS, SweConst.SE_MARS);
+
+		List<AspectEvent> events = new ArrayList<AspectEvent>();
+		new AspectCalendar(start, end, bodies, new double[] {0, 180}, null, 0).forEach( events::add );
+
+		// The Sun is never in opposition to the inner planets.
+		for(AspectEvent event : events) {
+			assertFalse( event.getBody1() == SweConst.SE_SUN && event.getBody2() != SweConst.SE_MARS && event.getAspect() == 180 );
+		}
+
+		int count = 0;
+		for(int i = 0; i < bodies.size(); i++) {
+			for(int j = i + 1; j < bodies.size(); j++) {
+				for(double aspect : i == 0 && j < 3 ? new double[] {0} : new double[] {0, 180}) {
+					List<Transit> transits = new ArrayList<Transit>();
+					new TransitSeries(start, end, bodies.get(i), bodies.get(j), aspect, null, 0).forEach( transits::add );
+
+					List<AspectEvent> found = new ArrayList<AspectEvent>();
+					for(AspectEvent event : events) {
+						if( event.getBody1() == bodies.get(i) && event.getBody2() == bodies.get(j) && event.getAspect() == aspect ) {
+							found.add( event );
+						}
+					}
+
+					assertEquals( transits.size(), found.size() );
+					for(int k = 0; k < found.size(); k++) {
+						Duration difference = Duration.between( transits.get(k).getDate(), found.get(k).getDate() );
+						assertTrue( Math.abs(difference.getSeconds()) < 60 );
+					}
+					count += found.size();
+				}
+			}
+		}
+
+		assertEquals( count, events.size() );
+	}
+
+	@Test
+	public void orderTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		List<Integer> bodies = Arrays.asList(SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MERCURY, SweConst.SE_JUPITER, SweConst.SE_MEAN_NODE);
+
+		AspectEvent last = null;
+		int newMoons = 0;
+		for(AspectEvent event : new AspectCalendar(start, start.plusYears(1), bodies, new double[] {0, 60, 90, 120, 180}, null, 0)) {
+			if( last != null ) {
+				assertTrue( last.getJulianDay() <= event.getJulianDay() );
+			}
+			if( event.getBody1() == SweConst.SE_SUN && event.getBody2() == SweConst.SE_MOON && event.getAspect() == 0 ) {
+				newMoons++;
+			}
+			assertFalse( event.getDate().isBefore(start) );
+			last = event;
+		}
+
+		assertEquals( 12, newMoons );
+	}
+
+	@Test
+	public void firstBodyTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		List<Integer> planets = Arrays.asList(SweConst.SE_SUN, SweConst.SE_VENUS, SweConst.SE_MARS);
+		double[] aspects = new double[] {0, 90, 180};
+
+		// The same aspects of the Moon as in the calendar of all pairs.
+		List<AspectEvent> moon = new ArrayList<AspectEvent>();
+		for(AspectEvent event : new AspectCalendar(start, start.plusMonths(2), Arrays.asList(SweConst.SE_MOON, SweConst.SE_SUN, SweConst.SE_VENUS, SweConst.SE_MARS), aspects, null, 0)) {
+			if( event.getBody1() == SweConst.SE_MOON ) {
+				moon.add( event );
+			}
+		}
+
+		List<AspectEvent> events = new ArrayList<AspectEvent>();
+		new AspectCalendar(start, start.plusMonths(2), SweConst.SE_MOON, planets, aspects, null, 0).forEach( events::add );
+
+		assertTrue( moon.size() > 10 );
+		assertEquals( moon.size(), events.size() );
+		for(int i = 0; i < events.size(); i++) {
+			assertEquals( SweConst.SE_MOON, events.get(i).getBody1() );
+			assertEquals( moon.get(i).getBody2(), events.get(i).getBody2() );
+			assertEquals( moon.get(i).getAspect(), events.get(i).getAspect(), 0 );
+			assertEquals( moon.get(i).getJulianDay(), events.get(i).getJulianDay(), 1e-6 );
+		}
+	}
+
+	@Test
+	public void breakTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		List<Integer> bodies = Arrays.asList(SweConst.SE_SUN, SweConst.SE_MOON);
+
+		EphemerisPool pool = EphemerisPool.getInstance();
+		pool.release( pool.borrow() );
+		int idle = pool.getIdleCount();
+
+		for(AspectEvent event : new AspectCalendar(start, start.plusYears(1), bodies, new double[] {0, 180}, null, 0)) {
+			assertEquals( idle, pool.getIdleCount() ); // no engine is held between the steps
+			assertEquals( 180, event.getAspect(), 0 ); // the full Moon of 2 January 2018
+			break;
+		}
+		assertEquals( idle, pool.getIdleCount() );
+	}
+
+	@Test
+	public void retrogradeTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 10, 1, 0, 0);
+		List<Integer> bodies = Arrays.asList(SweConst.SE_SUN, SweConst.SE_VENUS);
+
+		// The inferior conjunction of Venus, 2018-10-26.
+		List<AspectEvent> events = new ArrayList<AspectEvent>();
+		new AspectCalendar(start, start.plusMonths(1), bodies, new double[] {0}, null, 0).forEach( events::add );
+
+		assertEquals( 1, events.size() );
+		assertEquals( 26, events.get(0).getDate().getDayOfMonth() );
+		assertTrue( events.get(0).isRetrograde() );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void oneBodyTest() {
+		new AspectCalendar(LocalDateTime.now(), LocalDateTime.now().plusDays(1), Arrays.asList(SweConst.SE_SUN), new double[] {0}, null, 0);
+	}
+}
@@ -0,0 +1,148 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class AspectGridTest {
+
+	private static final double DELTA = 1e-9;
+
+	private static final int CONJUNCTION = 0;
+	private static final int SQUARE = 2;
+
+	@Test
+	public void applyingSeparatingTest() {
+		AspectGrid grid = AspectGrid.major();
+		Aspects out = new Aspects();
+
+		// The first planet moves towards the second one.
+		grid.calculate(positions(10, 1), 1, positions(98, 0), 1, false, out);
+		assertEquals(SQUARE, out.getAspect(0, 0));
+		assertEquals(-2, out.getDeviation(0, 0), DELTA);
+		assertFalse(out.isApplying(0, 0));
+
+		grid.calculate(positions(10, 1), 1, positions(102, 0), 1, false, out);
+		assertEquals(SQUARE, out.getAspect(0, 0));
+		assertEquals(2, out.getDeviation(0, 0), DELTA);
+		assertTrue(out.isApplying(0, 0));
+
+		// Retrograde second planet behind the first one.
+		grid.calculate(positions(10, 0), 1, positions(282, -1), 1, false, out);
+		assertEquals(SQUARE, out.getAspect(0, 0));
+		assertTrue(out.isApplying(0, 0));
+	}
+
+	@Test
+	public void zeroAriesTest() {
+		AspectGrid grid = AspectGrid.major();
+		Aspects out = new Aspects();
+
+		grid.calculate(positions(355, 1), 1, positions(3, 0), 1, false, out);
+		assertEquals(CONJUNCTION, out.getAspect(0, 0));
+		assertEquals(8, out.getDeviation(0, 0), DELTA);
+		assertTrue(out.isApplying(0, 0));
+
+		grid.calculate(positions(355, 1), 1, positions(5, 0), 1, false, out);
+		assertEquals(Aspects.NONE, out.getAspect(0, 0));
+		assertEquals(0, out.count());
+	}
+
+	@Test
+	public void fixedFirstTest() {
+		AspectGrid grid = AspectGrid.major();
+		Aspects out = new Aspects();
+
+		// The natal speed is ignored, the transit moves away.
+		grid.calculate(positions(10, 5), 1, positions(12, 1), 1, true, out);
+		assertEquals(CONJUNCTION, out.getAspect(0, 0));
+		assertFalse(out.isApplying(0, 0));
+
+		grid.calculate(positions(10, 5), 1, positions(12, 1), 1, false, out);
+		assertTrue(out.isApplying(0, 0));
+	}
+
+	@Test
+	public void natalTest() {
+		Planet chart = new Planet(LocalDateTime.of( 2018, 3, 20, 16, 20), getPlanets(), 0);
+
+		Aspects aspects = AspectGrid.major().calculate(chart);
+
+		assertEquals(chart.size(), aspects.getRows());
+		assertEquals(chart.size(), aspects.getColumns());
+		for(int i = 0; i < chart.size(); i++) {
+			assertFalse(aspects.hasAspect(i, i));
+			for(int j = 0; j < chart.size(); j++) {
+				assertEquals(aspects.getAspect(i, j), aspects.getAspect(j, i));
+			}
+		}
+
+		AspectGrid grid = AspectGrid.major();
+		for(int i = 0; i < chart.size(); i++) {
+			for(int j = i + 1; j < chart.size(); j++) {
+				double distance = Math.abs( chart.getPosition(j, Planet.LONGITUDE) - chart.getPosition(i, Planet.LONGITUDE) );
+				distance = distance > 180 ? 360 - distance : distance;
+
+				int expected = Aspects.NONE;
+				for(int k = 0; k < grid.size(); k++) {
+					if( Math.abs(distance - grid.getAngle(k)) <= grid.getOrb(k) ) {
+						expected = k;
+					}
+				}
+
+				assertEquals(expected, aspects.getAspect(i, j));
+				if( expected != Aspects.NONE ) {
+					assertEquals(distance - grid.getAngle(expected), aspects.getDeviation(i, j), DELTA);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void reuseTest() {
+		Planet natal = new Planet(LocalDateTime.of( 1980, 1, 1, 12, 0), getPlanets(), 0);
+		Planet transit = new Planet(LocalDateTime.of( 2018, 3, 20, 16, 20), getPlanets(), 0);
+		AspectGrid grid = AspectGrid.major();
+
+		Aspects out = new Aspects();
+		grid.calculate(natal, out);
+		grid.calculateTransits(natal, transit, out);
+
+		Aspects expected = grid.calculateTransits(natal, transit);
+		for(int i = 0; i < natal.size(); i++) {
+			for(int j = 0; j < transit.size(); j++) {
+				assertEquals(expected.getAspect(i, j), out.getAspect(i, j));
+				assertEquals(expected.isApplying(i, j), out.isApplying(i, j));
+			}
+		}
+		assertEquals(expected.count(), out.count());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void orbsTest() {
+		new AspectGrid(new double[] {0, 90}, new double[] {8});
+	}
+
+	private double[] positions(double longitude, double speed) {
+		double[] positions = new double[Planet.COMPONENTS];
+		positions[Planet.LONGITUDE] = longitude;
+		positions[Planet.LONGITUDE_SPEED] = speed;
+		return positions;
+	}
+
+	private List<Integer> getPlanets(){
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+		planets.add( SweConst.SE_MERCURY );
+		planets.add( SweConst.SE_MARS );
+		planets.add( SweConst.SE_SATURN );
+		return planets;
+	}
+}
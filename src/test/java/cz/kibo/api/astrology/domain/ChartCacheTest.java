@@ -0,0 +1,97 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class ChartCacheTest {
+
+	final double LONGITUDE = 16.0542676;
+	final double LATITUDE = 48.8559107;
+	final double GEOALT = 286;
+
+	final LocalDateTime EVENT = LocalDateTime.of( 2018, 3, 20, 16, 20);
+
+	@Test
+	public void hitTest() {
+		ChartCache cache = new ChartCache(10, 60000);
+
+		Planet first = cache.getPlanet(EVENT, getPlanets(), null, 0);
+		Planet second = cache.getPlanet(EVENT, getPlanets(), null, 0);
+
+		assertSame(first, second);
+		assertEquals(new Planet(EVENT, getPlanets(), 0), first);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate(), 0);
+	}
+
+	@Test
+	public void keyTest() {
+		ChartCache cache = new ChartCache(10, 60000);
+		Coordinates coords = new Coordinates(LONGITUDE, LATITUDE, GEOALT);
+		int lahiri = SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_LAHIRI;
+		int faganBradley = SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_FAGAN_BRADLEY;
+
+		cache.getPlanet(EVENT, getPlanets(), null, 0);
+		cache.getPlanet(EVENT, getPlanets(), coords, 0);
+		cache.getPlanet(EVENT, getPlanets(), null, lahiri);
+		cache.getPlanet(EVENT, getPlanets(), null, faganBradley);
+		cache.getPlanet(EVENT.plusSeconds(1), getPlanets(), null, 0);
+		cache.getPlanet(EVENT, getPlanets().subList(0, 1), null, 0);
+		cache.getCusp(EVENT, coords, (int)'P', 0);
+		cache.getCusp(EVENT, coords, (int)'K', 0);
+
+		assertEquals(0, cache.getHitCount());
+		assertEquals(8, cache.size());
+
+		Cusp cusp = cache.getCusp(EVENT, new Coordinates(LONGITUDE, LATITUDE, GEOALT), (int)'P', 0);
+		assertEquals(new Cusp(EVENT, coords, (int)'P', 0), cusp);
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void sizeEvictionTest() {
+		ChartCache cache = new ChartCache(2, 60000);
+
+		cache.getPlanet(EVENT, getPlanets(), null, 0);
+		cache.getPlanet(EVENT.plusDays(1), getPlanets(), null, 0);
+		cache.getPlanet(EVENT, getPlanets(), null, 0); // the first one is the most recently used now
+		cache.getPlanet(EVENT.plusDays(2), getPlanets(), null, 0);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+
+		cache.getPlanet(EVENT, getPlanets(), null, 0);
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	public void ageEvictionTest() throws InterruptedException {
+		ChartCache cache = new ChartCache(10, 10);
+
+		Planet first = cache.getPlanet(EVENT, getPlanets(), null, 0);
+		Thread.sleep(50);
+
+		assertNotSame(first, cache.getPlanet(EVENT, getPlanets(), null, 0));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getEvictionCount());
+
+		Thread.sleep(50);
+		cache.evictExpired();
+		assertEquals(0, cache.size());
+	}
+
+	private List<Integer> getPlanets(){
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+		return planets;
+	}
+}
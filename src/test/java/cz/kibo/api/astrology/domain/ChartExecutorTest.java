@@ -0,0 +1,106 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class ChartExecutorTest {
+
+	final double LONGITUDE = 16.0542676;
+	final double LATITUDE = 48.8559107;
+	final double GEOALT = 286;
+
+	@Test
+	public void planetsInInputOrderTest() {
+		List<LocalDateTime> events = getEvents(200);
+		List<Integer> planets = getPlanets();
+
+		ChartExecutor executor = new ChartExecutor(4);
+		try {
+			List<Planet> charts = executor.calculate(events, event -> new Planet(event, planets, 0));
+
+			assertEquals(events.size(), charts.size());
+			for(int i = 0; i < events.size(); i++) {
+				assertEquals( new Planet(events.get(i), planets, 0), charts.get(i));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void cuspsAndTransitsTest() {
+		List<LocalDateTime> events = getEvents(40);
+		Coordinates coords = new Coordinates(LONGITUDE, LATITUDE, GEOALT);
+
+		ChartExecutor executor = new ChartExecutor();
+		List<Cusp> cusps = executor.calculate(events, event -> new Cusp(event, coords, (int)'P', 0));
+		List<Transit> transits = executor.calculate(events, event -> new Transit(event, SweConst.SE_MOON, 90.0, 0));
+
+		for(int i = 0; i < events.size(); i++) {
+			assertEquals( new Cusp(events.get(i), coords, (int)'P', 0), cusps.get(i));
+			assertEquals( new Transit(events.get(i), SweConst.SE_MOON, 90.0, 0).getDate(), transits.get(i).getDate());
+		}
+	}
+
+	@Test
+	public void rangesTest() {
+		int[] counts = new int[1001];
+
+		ChartExecutor executor = new ChartExecutor(3);
+		try {
+			// Every index is in exactly one range.
+			executor.calculateRanges(counts.length, (from, to) -> {
+				for(int i = from; i < to; i++) {
+					counts[i]++;
+				}
+			});
+			executor.calculateRanges(0, (from, to) -> fail());
+		} finally {
+			executor.shutdown();
+		}
+
+		for(int count : counts) {
+			assertEquals( 1, count );
+		}
+	}
+
+	@Test
+	public void emptyInputTest() {
+		assertTrue( new ChartExecutor().calculate(new ArrayList<LocalDateTime>(), event -> event).isEmpty() );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failureTest() {
+		new ChartExecutor().calculate(getEvents(10), event -> { throw new IllegalArgumentException(); });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parallelismTest() {
+		new ChartExecutor(0);
+	}
+
+	private List<LocalDateTime> getEvents(int count){
+		List<LocalDateTime> events = new ArrayList<LocalDateTime>();
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+		for(int i = 0; i < count; i++) {
+			events.add( event.plusHours(i * 7) );
+		}
+		return events;
+	}
+
+	private List<Integer> getPlanets(){
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+		planets.add( SweConst.SE_MARS );
+		planets.add( SweConst.SE_PLUTO );
+		return planets;
+	}
+}
@@ -0,0 +1,70 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class ChartTest {
+
+	final double LONGITUDE = 16.0542676;
+	final double LATITUDE = 48.8559107;
+	final double GEOALT = 286;
+
+	private static final double DELTA = 1e-9;
+
+	final int PLACIDUS_HOUSE_SYSTEM = 'P';
+	final LocalDateTime EVENT = LocalDateTime.of( 2018, 3, 20, 5, 6);
+
+	@Test
+	public void tropicalTest() {
+		Coordinates coords = new Coordinates(LONGITUDE, LATITUDE, GEOALT);
+
+		Chart chart = new Chart(EVENT, getPlanets(), coords, PLACIDUS_HOUSE_SYSTEM, true, 0);
+
+		assertEquals( new Planet(EVENT, getPlanets(), coords, 0), chart.getPlanet());
+		assertEquals( new Cusp(EVENT, coords, PLACIDUS_HOUSE_SYSTEM, 0), chart.getCusp());
+		assertEquals( chart.getCusp().getCusp(0), chart.getAscendant(), DELTA);
+		assertEquals( chart.getCusp().getCusp(9), chart.getMC(), DELTA);
+		assertEquals( 0, chart.getAyanamsa(), 0);
+		assertEquals( SweConst.SE_NASCMC, chart.getAscmc().length);
+	}
+
+	@Test
+	public void siderealGeocentricTest() {
+		Coordinates coords = new Coordinates(LONGITUDE, LATITUDE, GEOALT);
+		int iflag = SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_LAHIRI;
+
+		Chart chart = new Chart(EVENT, getPlanets(), coords, PLACIDUS_HOUSE_SYSTEM, false, iflag);
+
+		assertEquals( new Planet(EVENT, getPlanets(), iflag), chart.getPlanet());
+		assertEquals( new Cusp(EVENT, coords, PLACIDUS_HOUSE_SYSTEM, iflag), chart.getCusp());
+		assertEquals( 24.11, chart.getAyanamsa(), 0.01);
+	}
+
+	@Test
+	public void toJSONTest() {
+		Chart chart = new Chart(EVENT, getPlanets(), new Coordinates(LONGITUDE, LATITUDE, GEOALT), PLACIDUS_HOUSE_SYSTEM, true, 0);
+
+		JSONObject json = new JSONObject( chart.toJSON() );
+
+		assertTrue( new JSONObject( chart.getPlanet().toJSON() ).getJSONObject("planets").similar( json.getJSONObject("planets") ));
+		assertEquals( 12, json.getJSONArray("cusps").length());
+		assertEquals( chart.getAscendant(), json.getJSONObject("angles").getDouble("Asc"), 0);
+		assertEquals( 0, json.getDouble("ayanamsa"), 0);
+	}
+
+	private List<Integer> getPlanets(){
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+		planets.add( SweConst.SE_MEAN_NODE );
+		return planets;
+	}
+}
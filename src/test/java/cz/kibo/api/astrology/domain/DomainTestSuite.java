@@ -8,6 +8,23 @@ import org.junit.runners.Suite;
   PlanetTest.class,
   CuspTest.class,
   TransitTest.class,
+  EphemerisPoolTest.class,
+  PlanetBatchTest.class,
+  PlanetSeriesTest.class,
+  ChartExecutorTest.class,
+  ChartCacheTest.class,
+  ChartTest.class,
+  AspectGridTest.class,
+  TransitSeriesTest.class,
+  TransitScannerTest.class,
+  AspectCalendarTest.class,
+  StationCalendarTest.class,
+  IngressCalendarTest.class,
+  ReturnBatchTest.class,
+  AngleTransitBatchTest.class,
+  IntervalSetTest.class,
+  ElectionTest.class,
+  RootFinderTest.class,
 })
 
 public class DomainTestSuite {}
@@ -0,0 +1,87 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+public class ElectionTest {
+
+	@Test
+	public void bruteForceTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2019, 1, 1, 0, 0);
+
+		IntervalSet intervals = new Election(start, end).find( Condition.waxing()
+				.and( Condition.direct(SweConst.SE_MERCURY) )
+				.and( Condition.inSigns(SweConst.SE_VENUS, 1, 6) ));
+
+		assertFalse( intervals.isEmpty() );
+
+		List<Integer> planets = Arrays.asList(SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MERCURY, SweConst.SE_VENUS);
+		for(LocalDateTime event = start.plusMinutes(17); event.isBefore(end); event = event.plusHours(3)) {
+			Planet planet = new Planet(event, planets, 0);
+
+			double elongation = planet.getPosition(1, Planet.LONGITUDE) - planet.getPosition(0, Planet.LONGITUDE);
+			boolean waxing = (elongation + 360) % 360 < 180;
+			boolean direct = planet.getPosition(2, Planet.LONGITUDE_SPEED) > 0;
+			int venus = (int)(planet.getPosition(3, Planet.LONGITUDE) / 30);
+
+			double jd = SweDate.getJulDay(event.getYear(), event.getMonthValue(), event.getDayOfMonth(), event.getHour() + event.getMinute() / 60.0, SweDate.SE_GREG_CAL);
+			assertEquals( event.toString(), waxing && direct && (venus == 1 || venus == 6), intervals.contains(jd) );
+		}
+	}
+
+	@Test
+	public void voidOfCourseTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 5, 1, 0, 0);
+		IntervalSet intervals = new Election(start, start.plusMonths(1)).find( Condition.voidOfCourse() );
+
+		// The Moon goes through about 13 signs in a month, the void ends at the ingress.
+		assertTrue( intervals.size() >= 12 && intervals.size() <= 14 );
+
+		List<Integer> moon = Arrays.asList(SweConst.SE_MOON);
+		for(Interval interval : intervals.getIntervals()) {
+			assertTrue( interval.getDays() < 3 );
+
+			if( interval.getEnd().isBefore(start.plusMonths(1)) ) {
+				int before = (int)(new Planet(interval.getEnd().minusMinutes(1), moon, 0).getPosition(0, Planet.LONGITUDE) / 30);
+				int after = (int)(new Planet(interval.getEnd().plusMinutes(1), moon, 0).getPosition(0, Planet.LONGITUDE) / 30);
+				assertEquals( (before + 1) % 12, after );
+			}
+		}
+	}
+
+	@Test
+	public void voidOfCourseEndTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 5, 1, 0, 0);
+		IntervalSet month = new Election(start, start.plusMonths(1)).find( Condition.voidOfCourse() );
+		Interval period = month.getIntervals().get(2);
+
+		// The range ends inside the void period, the period is cut at the end of the range.
+		LocalDateTime end = period.getStart().plusMinutes( (long)(period.getDays() * 24 * 60 / 2) );
+		Election election = new Election(start, end);
+		IntervalSet intervals = election.find( Condition.voidOfCourse() );
+
+		assertEquals( 3, intervals.size() );
+		Interval last = intervals.getIntervals().get(2);
+		assertEquals( period.getStartJulianDay(), last.getStartJulianDay(), 1e-6 );
+		assertEquals( election.getEndJulianDay(), last.getEndJulianDay(), 1e-9 );
+		assertFalse( election.find( Condition.voidOfCourse().negate() ).contains( election.getEndJulianDay() - 0.01 ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void sunStationTest() {
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		new Election(start, start.plusMonths(1)).find( Condition.direct(SweConst.SE_SUN) );
+	}
+}
@@ -0,0 +1,99 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+public class EphemerisPoolTest {
+
+	final String PATH_TO_EPHEMERIS = "/data/ephemeris";
+
+	@Test
+	public void reuseTest() {
+		EphemerisPool pool = new EphemerisPool(PATH_TO_EPHEMERIS, 2, 60000);
+
+		SwissEph sw = pool.borrow();
+		pool.release(sw);
+
+		assertSame(sw, pool.borrow());
+		assertEquals(1, pool.getCreatedCount());
+	}
+
+	@Test
+	public void borrowedEngineIsNotSharedTest() {
+		EphemerisPool pool = new EphemerisPool(PATH_TO_EPHEMERIS, 2, 60000);
+
+		SwissEph sw1 = pool.borrow();
+		SwissEph sw2 = pool.borrow();
+
+		assertNotSame(sw1, sw2);
+		assertEquals(2, pool.getCreatedCount());
+	}
+
+	@Test
+	public void boundedSizeTest() {
+		EphemerisPool pool = new EphemerisPool(PATH_TO_EPHEMERIS, 2, 60000);
+
+		SwissEph sw1 = pool.borrow();
+		SwissEph sw2 = pool.borrow();
+		SwissEph sw3 = pool.borrow();
+		pool.release(sw1);
+		pool.release(sw2);
+		pool.release(sw3);
+
+		assertEquals(2, pool.getIdleCount());
+		assertSame(sw3, pool.borrow()); // the most recently used first
+	}
+
+	@Test
+	public void idleEvictionTest() throws InterruptedException {
+		EphemerisPool pool = new EphemerisPool(PATH_TO_EPHEMERIS, 2, 10);
+
+		SwissEph sw = pool.borrow();
+		pool.release(sw);
+		Thread.sleep(50);
+
+		assertNotSame(sw, pool.borrow());
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	@Test
+	public void fileMappingTest() {
+		EphemerisPool pool = new EphemerisPool(PATH_TO_EPHEMERIS, 2, 60000, true);
+
+		SwissEph sw = pool.borrow();
+		assertTrue( sw.isFileMapping() );
+		assertTrue( pool.isFileMapping() );
+		assertFalse( new EphemerisPool(PATH_TO_EPHEMERIS, 2, 60000).borrow().isFileMapping() );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void preloadRangeTest() {
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_MOON );
+
+		new EphemerisPool(PATH_TO_EPHEMERIS, 2, 60000).preload(LocalDateTime.of(2010, 1, 1, 0, 0), LocalDateTime.of(1940, 1, 1, 0, 0), planets);
+	}
+
+	@Test
+	public void planetUsesSharedPoolTest() {
+		EphemerisPool pool = EphemerisPool.getInstance();
+		pool.clear();
+
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+
+		new Planet(LocalDateTime.of( 2018, 3, 20, 16, 20), planets, 0);
+		new Planet(LocalDateTime.of( 2018, 3, 21, 16, 20), planets, 0);
+
+		assertEquals(1, pool.getIdleCount());
+	}
+}
@@ -0,0 +1,119 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class IngressCalendarTest {
+
+	@Test
+	public void sameAsTransitSeriesTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2020, 1, 1, 0, 0);
+
+		List<Ingress> ingresses = new ArrayList<Ingress>();
+		new IngressCalendar(start, end, Arrays.asList(SweConst.SE_MERCURY), null, 0).forEach( ingresses::add );
+
+		int count = 0;
+		for(int sign = 0; sign < 12; sign++) {
+			List<Transit> transits = new ArrayList<Transit>();
+			new TransitSeries(start, end, SweConst.SE_MERCURY, sign * 30.0, null, 0).forEach( transits::add );
+
+			// Both ingresses at the boundary: the forward one enters the sign, the retrograde one enters the previous sign.
+			List<Ingress> found = new ArrayList<Ingress>();
+			for(Ingress ingress : ingresses) {
+				if( ingress.getIndex() == (ingress.isRetrograde() ? (sign + 11) % 12 : sign) ) {
+					found.add( ingress );
+				}
+			}
+
+			assertEquals( transits.size(), found.size() );
+			for(int i = 0; i < found.size(); i++) {
+				Duration difference = Duration.between( transits.get(i).getDate(), found.get(i).getDate() );
+				assertTrue( Math.abs(difference.getSeconds()) < 60 );
+			}
+			count += found.size();
+		}
+
+		assertEquals( count, ingresses.size() );
+	}
+
+	@Test
+	public void retrogradeTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 10, 15, 0, 0);
+
+		// Mercury enters Sagittarius, goes back to Scorpio and enters Sagittarius again.
+		List<Ingress> ingresses = new ArrayList<Ingress>();
+		new IngressCalendar(start, start.plusMonths(3), Arrays.asList(SweConst.SE_MERCURY), null, 0).forEach( ingresses::add );
+
+		assertEquals( 4, ingresses.size() );
+		assertEquals( 8, ingresses.get(0).getIndex() );
+		assertFalse( ingresses.get(0).isRetrograde() );
+		assertEquals( 7, ingresses.get(1).getIndex() );
+		assertTrue( ingresses.get(1).isRetrograde() );
+		assertEquals( 8, ingresses.get(2).getIndex() );
+		assertFalse( ingresses.get(2).isRetrograde() );
+		assertEquals( 9, ingresses.get(3).getIndex() );
+	}
+
+	@Test
+	public void breakTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		EphemerisPool pool = EphemerisPool.getInstance();
+		pool.release( pool.borrow() );
+		int idle = pool.getIdleCount();
+
+		for(Ingress ingress : new IngressCalendar(start, start.plusYears(1), Arrays.asList(SweConst.SE_SUN), null, 0)) {
+			assertEquals( idle, pool.getIdleCount() ); // no engine is held between the steps
+			assertEquals( 10, ingress.getIndex() ); // the Sun enters Aquarius
+			break;
+		}
+		assertEquals( idle, pool.getIdleCount() );
+	}
+
+	@Test
+	public void housesTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		Cusp natal = new Cusp(LocalDateTime.of( 1980, 5, 5, 12, 0), new Coordinates(16.0542676, 48.8559107, 286), (int) 'P', 0);
+
+		double[] cusps = new double[natal.size()];
+		for(int i = 0; i < cusps.length; i++) {
+			cusps[i] = natal.getCusp(i);
+		}
+
+		Ingress last = null;
+		int count = 0;
+		for(Ingress ingress : new IngressCalendar(start, start.plusMonths(3), Arrays.asList(SweConst.SE_SUN, SweConst.SE_MOON), cusps, null, 0)) {
+			if( ingress.getPlanet() == SweConst.SE_MOON ) {
+				// The Moon is never retrograde, it enters the houses one by one.
+				if( last != null ) {
+					assertEquals( (last.getIndex() + 1) % cusps.length, ingress.getIndex() );
+					assertTrue( last.getJulianDay() < ingress.getJulianDay() );
+				}
+				assertFalse( ingress.isRetrograde() );
+				last = ingress;
+			}
+			count++;
+		}
+
+		assertTrue( count > 3 * cusps.length );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cuspTest() {
+		new IngressCalendar(LocalDateTime.now(), LocalDateTime.now().plusDays(1), Arrays.asList(SweConst.SE_SUN), new double[] {360}, null, 0);
+	}
+}
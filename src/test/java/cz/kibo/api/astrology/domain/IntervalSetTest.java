@@ -0,0 +1,57 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IntervalSetTest {
+
+	@Test
+	public void ofChangesTest() {
+
+		IntervalSet set = IntervalSet.ofChanges(0, 10, true, new double[] {-1, 2, 4, 6, 12});
+
+		assertEquals( 2, set.size() );
+		assertEquals( IntervalSet.of(0, 2).union(IntervalSet.of(4, 6)), set );
+		assertEquals( 4, set.getDays(), 0 );
+
+		assertEquals( IntervalSet.of(2, 4).union(IntervalSet.of(6, 10)), IntervalSet.ofChanges(0, 10, false, new double[] {2, 4, 6}) );
+		assertTrue( IntervalSet.ofChanges(0, 10, false, new double[0]).isEmpty() );
+	}
+
+	@Test
+	public void operationsTest() {
+
+		IntervalSet a = IntervalSet.of(0, 5).union( IntervalSet.of(8, 12) );
+		IntervalSet b = IntervalSet.of(3, 9);
+
+		assertEquals( IntervalSet.of(3, 5).union(IntervalSet.of(8, 9)), a.intersect(b) );
+		assertEquals( IntervalSet.of(0, 12), a.union(b) );
+		assertEquals( IntervalSet.of(5, 8).union(IntervalSet.of(12, 15)), a.complement(0, 15) );
+		assertEquals( a, a.complement(-1, 20).complement(-1, 20).intersect(IntervalSet.of(-1, 20)) );
+		assertTrue( a.intersect(IntervalSet.empty()).isEmpty() );
+	}
+
+	@Test
+	public void touchingTest() {
+
+		// Touching intervals are merged, intervals of zero length are dropped.
+		assertEquals( IntervalSet.of(0, 2), IntervalSet.of(0, 1).union(IntervalSet.of(1, 2)) );
+		assertTrue( IntervalSet.of(0, 1).intersect(IntervalSet.of(1, 2)).isEmpty() );
+		assertTrue( IntervalSet.of(1, 1).isEmpty() );
+	}
+
+	@Test
+	public void containsTest() {
+
+		IntervalSet set = IntervalSet.of(0, 5).union( IntervalSet.of(8, 12) );
+
+		assertTrue( set.contains(0) );
+		assertTrue( set.contains(4.9) );
+		assertFalse( set.contains(5) );
+		assertFalse( set.contains(7) );
+		assertTrue( set.contains(8) );
+		assertFalse( set.contains(-1) );
+		assertFalse( set.contains(12) );
+	}
+}
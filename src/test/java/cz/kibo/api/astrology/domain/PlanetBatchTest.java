@@ -0,0 +1,70 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class PlanetBatchTest {
+
+	final double LONGITUDE = 16.0542676;
+	final double LATITUDE = 48.8559107;
+	final double GEOALT = 286;
+	
+	@Test
+	public void batchGeocentricTest() {
+		
+		List<LocalDateTime> events = new ArrayList<LocalDateTime>();
+		events.add( LocalDateTime.of( 2018, 3, 20, 16, 20) );
+		events.add( LocalDateTime.of( 2018, 4, 18, 4, 00) );
+		
+		List<Integer> planets = new ArrayList<Integer>();		
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_JUPITER );
+		
+		int iflag = SweConst.SEFLG_SIDEREAL | SweConst.SE_SIDM_FAGAN_BRADLEY;
+		
+		PlanetBatch batch = new PlanetBatch(events, planets, iflag);
+		List<Planet> charts = batch.getCharts();
+		
+		assertEquals(2, charts.size());
+		for(int i = 0; i < events.size(); i++) {
+			assertEquals(new Planet(events.get(i), planets, iflag), charts.get(i));
+		}
+		assertEquals(205, charts.get(1).getPlanets().get("Jupiter").get(0).intValue());
+	}
+	
+	@Test
+	public void batchTopocentricTest() {
+		
+		List<LocalDateTime> events = new ArrayList<LocalDateTime>();
+		events.add( LocalDateTime.of( 2018, 3, 20, 16, 20) );
+		events.add( LocalDateTime.of( 2018, 3, 20, 16, 20) );
+		
+		List<Coordinates> coords = new ArrayList<Coordinates>();
+		coords.add( new Coordinates(LONGITUDE, LATITUDE, GEOALT) );
+		coords.add( new Coordinates(-LONGITUDE, -LATITUDE, 0) );
+		
+		List<Integer> planets = new ArrayList<Integer>();		
+		planets.add( SweConst.SE_MOON );
+		
+		List<Planet> charts = new PlanetBatch(events, planets, coords, 0).getCharts();
+		
+		assertEquals(new Planet(events.get(0), planets, coords.get(0), 0), charts.get(0));
+		assertEquals(new Planet(events.get(1), planets, coords.get(1), 0), charts.get(1));
+		assertNotEquals(charts.get(0), charts.get(1)); // Moon parallax
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void coordinatesCountTest() {
+		List<LocalDateTime> events = new ArrayList<LocalDateTime>();
+		events.add( LocalDateTime.of( 2018, 3, 20, 16, 20) );
+		
+		new PlanetBatch(events, new ArrayList<Integer>(), new ArrayList<Coordinates>(), 0);
+	}
+}
@@ -0,0 +1,85 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class PlanetSeriesTest {
+
+	@Test
+	public void hourlyTest() {
+		
+		LocalDateTime start = LocalDateTime.of( 2018, 3, 20, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2018, 3, 21, 0, 0);
+		
+		List<Integer> planets = new ArrayList<Integer>();		
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+		
+		PlanetSeries series = new PlanetSeries(start, end, Duration.ofHours(1), planets, 0);
+		
+		List<Planet> charts = new ArrayList<Planet>();
+		series.forEach( charts::add );
+		
+		assertEquals(25, charts.size());
+		assertEquals(start, charts.get(0).getEvent());
+		assertEquals(end, charts.get(24).getEvent());
+		assertEquals(new Planet(start.plusHours(13), planets, 0), charts.get(13));
+		
+		for(int i = 1; i < charts.size(); i++) {
+			double moon = charts.get(i).getPlanets().get("Moon").get(0);
+			double lastMoon = charts.get(i - 1).getPlanets().get("Moon").get(0);
+			assertTrue( ((moon - lastMoon + 360) % 360) < 1 ); // the Moon moves about 0.5° per hour
+		}
+	}
+	
+	@Test
+	public void iteratorTest() {
+		
+		LocalDateTime start = LocalDateTime.of( 2018, 3, 20, 0, 0);
+		
+		List<Integer> planets = new ArrayList<Integer>();		
+		planets.add( SweConst.SE_MOON );
+		
+		Iterator<Planet> it = new PlanetSeries(start, start.plusMinutes(2), Duration.ofMinutes(1), planets, 0).iterator();
+		
+		assertEquals(start, it.next().getEvent());
+		assertEquals(start.plusMinutes(1), it.next().getEvent());
+		assertEquals(start.plusMinutes(2), it.next().getEvent());
+		assertFalse(it.hasNext());
+	}
+	
+	@Test
+	public void breakTest() {
+		
+		LocalDateTime start = LocalDateTime.of( 2018, 3, 20, 0, 0);
+		
+		List<Integer> planets = new ArrayList<Integer>();		
+		planets.add( SweConst.SE_MOON );
+		
+		EphemerisPool pool = EphemerisPool.getInstance();
+		pool.release( pool.borrow() );
+		int idle = pool.getIdleCount();
+		
+		for( Planet moon : new PlanetSeries(start, start.plusDays(1), Duration.ofMinutes(1), planets, 0) ) {
+			assertEquals(start, moon.getEvent());
+			assertEquals(idle, pool.getIdleCount()); // no engine is held between the steps
+			break;
+		}
+		assertEquals(idle, pool.getIdleCount());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void stepTest() {
+		LocalDateTime start = LocalDateTime.of( 2018, 3, 20, 0, 0);
+		new PlanetSeries(start, start.plusDays(1), Duration.ZERO, new ArrayList<Integer>(), 0);
+	}
+}
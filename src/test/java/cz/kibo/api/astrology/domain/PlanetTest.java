@@ -255,4 +255,29 @@ public class PlanetTest {
 		assertTrue("Lilith",data.containsKey("Lilith"));
 		assertTrue("NNode",data.containsKey("NNode"));			
 	}
+	
+	@Test
+	public void positionsTest() {
+		
+		LocalDateTime event = LocalDateTime.of( 2018, 3, 20, 16, 20);
+		
+		List<Integer> planets = new ArrayList<Integer>();		
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_JUPITER );
+		
+		Planet chart = new Planet(event, planets, 0);
+		double[] positions = chart.getPositions();
+		
+		assertEquals(2, chart.size());
+		assertEquals(2 * Planet.COMPONENTS, positions.length);
+		assertArrayEquals(new int[] {SweConst.SE_SUN, SweConst.SE_JUPITER}, chart.getPlanetIds());
+		assertEquals("Jupiter", chart.getPlanetName(1));
+				
+		assertEquals(chart.getPlanets().get("Jupiter").get(0), positions[Planet.COMPONENTS + Planet.LONGITUDE], 0.0);
+		assertEquals(chart.getPlanets().get("Jupiter").get(1), chart.getPosition(1, Planet.LONGITUDE_SPEED), 0.0);
+		assertEquals(1.0, chart.getPosition(0, Planet.DISTANCE), 0.01); // Sun about 1 AU 
+		assertEquals(0.0, chart.getPosition(0, Planet.LATITUDE), 0.001);
+		
+		assertSame(chart.getPlanets(), chart.getPlanets());
+	}
 }
@@ -0,0 +1,77 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+public class ReturnBatchTest {
+
+	@Test
+	public void solarReturnTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2019, 1, 1, 0, 0);
+		double[] natal = {0, 45.3, 120.0, 280.7, 280.71, 359.99};
+
+		double[] returns = new ReturnBatch(SweConst.SE_SUN, natal, null, 0).calculate(start);
+
+		for(int i = 0; i < natal.length; i++) {
+			List<Transit> transits = new ArrayList<Transit>();
+			new TransitSeries(start, start.plusYears(1), SweConst.SE_SUN, natal[i], null, 0).forEach( transits::add );
+
+			assertEquals( 1, transits.size() );
+			assertEquals( SweDate.getJulDay(2019, 1, 1, 0, SweDate.SE_GREG_CAL), returns[i], 366 );
+			assertEquals( transits.get(0).transit(), returns[i], 1.0 / 24 / 60 / 60 ); // one second
+		}
+	}
+
+	@Test
+	public void lunarReturnTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2019, 5, 1, 0, 0);
+		double jd = SweDate.getJulDay(2019, 5, 1, 0, SweDate.SE_GREG_CAL);
+
+		Random random = new Random(7);
+		double[] natal = new double[2000];
+		for(int i = 0; i < natal.length; i++) {
+			natal[i] = random.nextDouble() * 360;
+		}
+
+		ReturnBatch batch = new ReturnBatch(SweConst.SE_MOON, natal, null, 0);
+		double[] returns = batch.calculate(start);
+
+		ChartExecutor executor = new ChartExecutor(3);
+		try {
+			assertArrayEquals( returns, batch.calculate(start, executor), 1e-6 );
+		} finally {
+			executor.shutdown();
+		}
+
+		for(int i = 0; i < natal.length; i++) {
+			assertTrue( returns[i] >= jd - 1e-6 && returns[i] < jd + 28 );
+		}
+
+		for(int i = 0; i < natal.length; i += 100) {
+			SweDate date = new SweDate(returns[i], SweDate.SE_GREG_CAL);
+			Planet moon = new Planet(LocalDateTime.ofInstant(date.getDate(0).toInstant(), java.time.ZoneOffset.UTC), Arrays.asList(SweConst.SE_MOON), 0);
+			assertEquals( 0, normalize(moon.getPosition(0, Planet.LONGITUDE) - natal[i]), 0.01 );
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void planetTest() {
+		new ReturnBatch(SweConst.SE_MARS, new double[] {10}, null, 0);
+	}
+
+	private static double normalize(double angle) {
+		return angle - 360.0 * Math.floor( (angle + 180.0) / 360.0 );
+	}
+}
@@ -0,0 +1,52 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RootFinderTest {
+
+	@Test
+	public void falsePositionTest() {
+
+		// Speed of a body with the station at 2.5.
+		double[] last = new double[1];
+		double station = RootFinder.falsePosition(t -> {
+			last[0] = t;
+			return (t - 2.5) * (t + 4);
+		}, 0, -10, 4, 8, 1e-9);
+
+		assertEquals( 2.5, station, 1e-9 );
+		assertEquals( station, last[0], 0 );
+
+		// Backwards bracket.
+		assertEquals( 2.5, RootFinder.falsePosition(t -> (t - 2.5) * (t + 4), 4, 8, 0, -10, 1e-9), 1e-9 );
+	}
+
+	@Test
+	public void newtonTest() {
+
+		// Distance from the point and its speed.
+		assertEquals( Math.sqrt(2), RootFinder.newton(t -> t * t - 2, () -> Double.NaN, 0, -2, 2, 2, 1e-9), 1e-9 );
+
+		double[] last = new double[1];
+		double root = RootFinder.newton(t -> {
+			last[0] = t;
+			return t * t * t - 8;
+		}, () -> 3 * last[0] * last[0], 0, -8, 10, 992, 1e-9);
+		assertEquals( 2, root, 1e-9 );
+	}
+
+	@Test
+	public void anglesTest() {
+
+		assertEquals( -170, Angles.signed(190), 1e-12 );
+		assertEquals( 170, Angles.signed(-190), 1e-12 );
+		assertEquals( -180, Angles.signed(180), 1e-12 );
+		assertEquals( 10, Angles.signed(730), 1e-12 );
+
+		assertEquals( 350, Angles.positive(-10), 1e-12 );
+		assertEquals( 10, Angles.positive(370), 1e-12 );
+		assertEquals( 0, Angles.positive(360), 1e-12 );
+	}
+}
@@ -0,0 +1,83 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class StationCalendarTest {
+
+	@Test
+	public void mercuryTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		StationCalendar calendar = new StationCalendar(start, start.plusYears(1), Arrays.asList(SweConst.SE_MERCURY));
+
+		List<Station> stations = calendar.getStations(SweConst.SE_MERCURY);
+		assertEquals( 6, stations.size() );
+
+		int[][] dates = { {3, 23}, {4, 15}, {7, 26}, {8, 19}, {11, 17}, {12, 6} };
+		for(int i = 0; i < dates.length; i++) {
+			assertEquals( dates[i][0], stations.get(i).getDate().getMonthValue() );
+			assertEquals( dates[i][1], stations.get(i).getDate().getDayOfMonth() );
+			assertEquals( i % 2 == 0, stations.get(i).isRetrograde() );
+		}
+
+		assertFalse( calendar.isRetrograde(SweConst.SE_MERCURY, LocalDateTime.of( 2018, 3, 1, 0, 0)) );
+		assertTrue( calendar.isRetrograde(SweConst.SE_MERCURY, LocalDateTime.of( 2018, 4, 1, 0, 0)) );
+		assertEquals( stations.get(1), calendar.nextStation(SweConst.SE_MERCURY, LocalDateTime.of( 2018, 4, 1, 0, 0)) );
+		assertEquals( stations.get(0), calendar.previousStation(SweConst.SE_MERCURY, LocalDateTime.of( 2018, 4, 1, 0, 0)) );
+		assertNull( calendar.nextStation(SweConst.SE_MERCURY, LocalDateTime.of( 2018, 12, 20, 0, 0)) );
+		assertNull( calendar.previousStation(SweConst.SE_MERCURY, LocalDateTime.of( 2018, 2, 1, 0, 0)) );
+	}
+
+	@Test
+	public void sameAsSpeedTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		StationCalendar calendar = new StationCalendar(start, start.plusYears(2));
+
+		for(LocalDateTime event = start; event.isBefore(start.plusYears(2)); event = event.plusDays(5)) {
+			Planet planet = new Planet(event, calendar.getPlanets(), 0);
+			for(int i = 0; i < planet.size(); i++) {
+				assertEquals( planet.getPlanetName(i) + " " + event,
+						planet.getPosition(i, Planet.LONGITUDE_SPEED) < 0, calendar.isRetrograde(planet.getPlanetId(i), event) );
+			}
+		}
+	}
+
+	@Test
+	public void saveAndLoadTest() throws Exception {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		StationCalendar calendar = new StationCalendar(start, start.plusYears(10));
+
+		File file = new File(Files.createTempDirectory("stations").toFile(), "stations.bin");
+		calendar.save(file);
+		StationCalendar loaded = StationCalendar.load(file);
+
+		assertEquals( calendar.getPlanets(), loaded.getPlanets() );
+		assertEquals( calendar.getStations(), loaded.getStations() );
+		assertEquals( calendar.getStartJulianDay(), loaded.getStartJulianDay(), 0 );
+		assertEquals( calendar.getEndJulianDay(), loaded.getEndJulianDay(), 0 );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void outOfRangeTest() {
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		new StationCalendar(start, start.plusMonths(1), Arrays.asList(SweConst.SE_MARS)).isRetrograde(SweConst.SE_MARS, start.plusMonths(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void sunTest() {
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		new StationCalendar(start, start.plusMonths(1), Arrays.asList(SweConst.SE_SUN));
+	}
+}
@@ -0,0 +1,98 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class TransitScannerTest {
+
+	@Test
+	public void sameAsTransitSeriesTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2020, 1, 1, 0, 0);
+		double[] points = {15.5, 123.4, 301.0};
+		double[] aspects = {0, 90, 180};
+
+		List<TransitHit> hits = new TransitScanner(SweConst.SE_MERCURY, points, aspects, null, 0).scan(start, end);
+
+		int count = 0;
+		for(int i = 0; i < points.length; i++) {
+			for(double aspect : new double[] {0, 90, -90, 180}) {
+				List<Transit> transits = new ArrayList<Transit>();
+				new TransitSeries(start, end, SweConst.SE_MERCURY, (points[i] + aspect + 360) % 360, null, 0).forEach( transits::add );
+
+				List<TransitHit> found = new ArrayList<TransitHit>();
+				for(TransitHit hit : hits) {
+					if( hit.getPoint() == i && hit.getAspect() == aspect ) {
+						found.add( hit );
+					}
+				}
+
+				assertEquals( transits.size(), found.size() );
+				for(int j = 0; j < found.size(); j++) {
+					Duration difference = Duration.between( transits.get(j).getDate(), found.get(j).getDate() );
+					assertTrue( Math.abs(difference.getSeconds()) < 60 );
+				}
+				count += found.size();
+			}
+		}
+
+		assertEquals( count, hits.size() );
+	}
+
+	@Test
+	public void retrogradeTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		// Mercury is retrograde three times a year, one of the loops crosses some of the targets three times.
+		List<TransitHit> hits = new TransitScanner(SweConst.SE_MERCURY, new double[] {0, 30, 60, 90, 120, 150}, new double[] {0, 180}, null, 0)
+									.scan(start, start.plusYears(1));
+
+		boolean retrograde = false;
+		for(int i = 0; i < hits.size(); i++) {
+			retrograde |= hits.get(i).isRetrograde();
+			if( i > 0 ) {
+				assertTrue( hits.get(i - 1).getJulianDay() <= hits.get(i).getJulianDay() );
+			}
+
+			double target = (new double[] {0, 30, 60, 90, 120, 150})[hits.get(i).getPoint()] + hits.get(i).getAspect();
+			double distance = Math.abs( hits.get(i).getLongitude() - target ) % 360;
+			assertTrue( Math.min(distance, 360 - distance) < 1e-4 );
+		}
+
+		assertTrue( retrograde );
+		assertTrue( hits.size() > 12 );
+	}
+
+	@Test
+	public void moonTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		List<TransitHit> hits = new TransitScanner(SweConst.SE_MOON, new double[] {10.0}, new double[] {0}, null, 0).scan(start, start.plusYears(1));
+
+		assertEquals( 13, hits.size() );
+		Duration difference = Duration.between( new Transit(start, SweConst.SE_MOON, 10.0, 0).getDate(), hits.get(0).getDate() );
+		assertTrue( Math.abs(difference.getSeconds()) < 60 );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void aspectTest() {
+		new TransitScanner(SweConst.SE_SUN, new double[] {0}, new double[] {270}, null, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rangeTest() {
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		new TransitScanner(SweConst.SE_SUN, new double[] {0}, new double[] {0}, null, 0).scan(start, start.minusDays(1));
+	}
+}
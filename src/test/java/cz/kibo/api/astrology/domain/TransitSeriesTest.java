@@ -0,0 +1,183 @@
+package cz.kibo.api.astrology.domain;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import swisseph.SweConst;
+
+public class TransitSeriesTest {
+
+	@Test
+	public void retrogradeCrossingsTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2021, 1, 1, 0, 0);
+		double point = 120.0;
+
+		List<Transit> transits = new ArrayList<Transit>();
+		new TransitSeries(start, end, SweConst.SE_MERCURY, point, null, 0).forEach( transits::add );
+
+		// Crossings of the point by daily positions, the retrograde loops included.
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_MERCURY );
+
+		List<LocalDateTime> crossings = new ArrayList<LocalDateTime>();
+		double last = Double.NaN;
+		for( Planet chart : new PlanetSeries(start, end, Duration.ofDays(1), planets, 0) ) {
+			double distance = chart.getPlanets().get("Mercury").get(0) - point;
+			distance -= 360.0 * Math.floor( (distance + 180.0) / 360.0 );
+			if( !Double.isNaN(last) && Math.signum(last) != Math.signum(distance) && Math.abs(last - distance) < 180 ) {
+				crossings.add( chart.getEvent() );
+			}
+			last = distance;
+		}
+
+		assertTrue( transits.size() >= 3 );
+		assertEquals( crossings.size(), transits.size() );
+
+		for(int i = 0; i < transits.size(); i++) {
+			LocalDateTime date = transits.get(i).getDate();
+			assertTrue( date.isAfter(crossings.get(i).minusDays(1)) && !date.isAfter(crossings.get(i)) );
+			assertEquals( point, new Planet(date, planets, 0).getPlanets().get("Mercury").get(0), 0.01 );
+		}
+	}
+
+	@Test
+	public void sameAsSingleTransitTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		Iterator<Transit> it = new TransitSeries(start, start.plusYears(1), SweConst.SE_SUN, 36.3, null, 0).iterator();
+
+		assertEquals( new Transit(start, SweConst.SE_SUN, 36.3, 0).getDate(), it.next().getDate() );
+		assertFalse( it.hasNext() );
+	}
+
+	@Test
+	public void breakTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		EphemerisPool pool = EphemerisPool.getInstance();
+		pool.release( pool.borrow() );
+		int idle = pool.getIdleCount();
+
+		int count = 0;
+		for( Transit transit : new TransitSeries(start, start.plusYears(1), SweConst.SE_MOON, 0.0, null, 0) ) {
+			assertEquals( idle, pool.getIdleCount() ); // no engine is held between the searches
+			if( ++count == 2 ) {
+				assertTrue( transit.getDate().isAfter(start.plusDays(27)) );
+				break;
+			}
+		}
+		assertEquals( 2, count );
+		assertEquals( idle, pool.getIdleCount() );
+	}
+
+	@Test
+	public void planetToPlanetTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		List<Transit> newMoons = new ArrayList<Transit>();
+		new TransitSeries(start, start.plusYears(1), SweConst.SE_MOON, SweConst.SE_SUN, 0.0, null, 0).forEach( newMoons::add );
+
+		assertEquals( 12, newMoons.size() );
+		assertEquals( LocalDateTime.of( 2018, 1, 17, 2, 17), newMoons.get(0).getDate().withSecond(0).withNano(0) );
+
+		for(int i = 1; i < newMoons.size(); i++) {
+			long hours = Duration.between( newMoons.get(i - 1).getDate(), newMoons.get(i).getDate() ).toHours();
+			assertTrue( hours > 29 * 24 && hours < 30 * 24 ); // synodic month
+		}
+	}
+
+	@Test
+	public void backwardsTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		List<Transit> forwards = new ArrayList<Transit>();
+		new TransitSeries(start, start.plusYears(1), SweConst.SE_MOON, 10.0, null, 0).forEach( forwards::add );
+
+		List<Transit> backwards = new ArrayList<Transit>();
+		new TransitSeries(start.plusYears(1), start, SweConst.SE_MOON, 10.0, null, 0).forEach( backwards::add );
+
+		assertEquals( 13, forwards.size() );
+		assertEquals( forwards.size(), backwards.size() );
+		for(int i = 0; i < forwards.size(); i++) {
+			Duration difference = Duration.between( forwards.get(i).getDate(), backwards.get(backwards.size() - 1 - i).getDate() );
+			assertTrue( Math.abs(difference.getSeconds()) < 60 );
+		}
+	}
+
+	@Test
+	public void emptyTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		Iterator<Transit> it = new TransitSeries(start, start.plusDays(10), SweConst.SE_SATURN, 0.0, null, 0).iterator();
+
+		assertFalse( it.hasNext() );
+		assertFalse( it.hasNext() );
+	}
+
+	@Test
+	public void parallelTest() {
+
+		LocalDateTime start = LocalDateTime.of( 1800, 1, 1, 0, 0);
+		LocalDateTime end = LocalDateTime.of( 2200, 1, 1, 0, 0);
+
+		// The great conjunctions, triple in 1940-41 and 1980-81.
+		TransitSeries series = new TransitSeries(start, end, SweConst.SE_JUPITER, SweConst.SE_SATURN, 0.0, null, 0);
+
+		List<Transit> sequential = new ArrayList<Transit>();
+		series.forEach( sequential::add );
+
+		ChartExecutor executor = new ChartExecutor(4);
+		try {
+			List<Transit> parallel = series.calculate(executor);
+
+			assertEquals( 25, sequential.size() );
+			assertEquals( sequential.size(), parallel.size() );
+			for(int i = 0; i < sequential.size(); i++) {
+				Duration difference = Duration.between( sequential.get(i).getDate(), parallel.get(i).getDate() );
+				assertTrue( Math.abs(difference.getSeconds()) < 60 );
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void parallelBordersTest() {
+
+		LocalDateTime start = LocalDateTime.of( 2018, 1, 1, 0, 0);
+
+		TransitSeries series = new TransitSeries(start.plusYears(1), start, SweConst.SE_MOON, 10.0, null, 0);
+
+		List<Transit> sequential = new ArrayList<Transit>();
+		series.forEach( sequential::add );
+
+		// Many more windows than transits, the borders of the windows fall near the hits.
+		ChartExecutor executor = new ChartExecutor(3);
+		try {
+			List<Transit> parallel = series.calculate(executor, 97);
+
+			assertEquals( 13, parallel.size() );
+			for(int i = 0; i < sequential.size(); i++) {
+				assertTrue( i == 0 || parallel.get(i).getDate().isBefore(parallel.get(i - 1).getDate()) );
+				Duration difference = Duration.between( sequential.get(i).getDate(), parallel.get(i).getDate() );
+				assertTrue( Math.abs(difference.getSeconds()) < 60 );
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package cz.kibo.api.astrology.json;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import cz.kibo.api.astrology.domain.Coordinates;
+import cz.kibo.api.astrology.domain.Cusp;
+import cz.kibo.api.astrology.domain.Planet;
+import swisseph.SweConst;
+
+public class JsonWriterTest {
+
+	final double LONGITUDE = 16.0542676;
+	final double LATITUDE = 48.8559107;
+	final double GEOALT = 286;
+
+	@Test
+	public void planetsTest() throws Exception {
+		Planet chart = new Planet(LocalDateTime.of( 2018, 3, 20, 16, 20), getPlanets(), 0);
+
+		StringBuilder sb = new StringBuilder();
+		new JsonWriter(sb).write(chart);
+
+		assertTrue( new JSONObject(chart.toJSON()).similar( new JSONObject(sb.toString()) ));
+	}
+
+	@Test
+	public void cuspsTest() throws Exception {
+		Cusp chart = new Cusp(LocalDateTime.of( 2018, 3, 20, 5, 6), new Coordinates(LONGITUDE, LATITUDE, GEOALT), (int)'P', 0);
+
+		StringBuilder sb = new StringBuilder();
+		new JsonWriter(sb).write(chart);
+
+		assertEquals(chart.toJSON(), sb.toString());
+	}
+
+	@Test
+	public void arrayTest() throws Exception {
+		Planet chart1 = new Planet(LocalDateTime.of( 2018, 3, 20, 16, 20), getPlanets(), 0);
+		Planet chart2 = new Planet(LocalDateTime.of( 2018, 3, 21, 16, 20), getPlanets(), 0);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JsonWriter writer = new JsonWriter(out);
+		writer.beginArray();
+		writer.write(chart1);
+		writer.write(chart2);
+		writer.endArray();
+		writer.flush();
+
+		JSONArray result = new JSONArray( new String(out.toByteArray(), StandardCharsets.UTF_8) );
+		assertEquals(2, result.length());
+		assertTrue( new JSONObject(chart1.toJSON()).similar( result.getJSONObject(0) ));
+		assertTrue( new JSONObject(chart2.toJSON()).similar( result.getJSONObject(1) ));
+	}
+
+	@Test
+	public void emptyArrayTest() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		new JsonWriter(sb).beginArray().endArray();
+
+		assertEquals("[]", sb.toString());
+	}
+
+	private List<Integer> getPlanets(){
+		List<Integer> planets = new ArrayList<Integer>();
+		planets.add( SweConst.SE_SUN );
+		planets.add( SweConst.SE_MOON );
+		planets.add( SweConst.SE_MEAN_APOG );
+		planets.add( SweConst.SE_MEAN_NODE );
+		return planets;
+	}
+}
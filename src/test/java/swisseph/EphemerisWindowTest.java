@@ -0,0 +1,165 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.util.Random;
+
+public class EphemerisWindowTest {
+
+	final int IPLI = SegmentFile.IPLI;
+	final int IFNO = SegmentFile.IFNO;
+	final long SEGMENT = 96 + 8 * 3 * SegmentFile.NCOE;
+
+	@Test
+	public void preloadTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 100, new Random(21));
+		StringBuffer serr = new StringBuffer();
+
+		SwissEph sw = new SwissEph();
+		file.open(sw.swed, false);
+
+		long pinned = SegmentCache.pinnedSize();
+		EphemerisWindow window = new EphemerisWindow(20, 40);
+		assertEquals( 100, sw.preload_open_files(window, 20, 40), 0 );
+
+		assertEquals( 21, window.getSegmentCount() );
+		assertEquals( 21 * SEGMENT, window.getMemoryUsed() );
+		assertEquals( pinned + 21 * SEGMENT, SegmentCache.pinnedSize() );
+
+		long size = SwissEph.getSegmentCacheSize();
+		try {
+			// Pinned segments survive a full cache.
+			SwissEph.setSegmentCacheSize(1);
+
+			// Another engine without the file calculates within the window.
+			SwissEph sw2 = new SwissEph();
+			file.open(sw2.swed, false);
+			sw2.swed.fidat[IFNO].fptr = null;
+			for(int iseg = 20; iseg <= 40; iseg++) {
+				assertEquals( SweConst.OK, sw2.get_segment(iseg + 0.5, IPLI, IFNO, serr) );
+				assertArrayEquals( file.coefficients[iseg], sw2.swed.pldat[IPLI].segp, 0 );
+			}
+
+			window.release();
+			assertTrue( window.isReleased() );
+			assertEquals( 0, window.getMemoryUsed() );
+			assertEquals( pinned, SegmentCache.pinnedSize() );
+
+			try {
+				sw2.get_segment(30.5, IPLI, IFNO, serr);
+				fail();
+			} catch (SwissephException e) {
+				// evicted after the release
+			}
+
+		} finally {
+			SwissEph.setSegmentCacheSize(size);
+		}
+	}
+
+	@Test
+	public void endOfFileTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 100, new Random(22));
+		SwissEph sw = new SwissEph();
+		file.open(sw.swed, true);
+
+		EphemerisWindow window = new EphemerisWindow(90, 200);
+		sw.preload_open_files(window, 90, 200);
+		assertEquals( 10, window.getSegmentCount() );
+
+		// Windows pin the same segments independently.
+		EphemerisWindow window2 = new EphemerisWindow(95, 96);
+		sw.preload_open_files(window2, 95, 96);
+		sw.preload_open_files(window2, 95, 96);
+		assertEquals( 2, window2.getSegmentCount() );
+
+		long pinned = SegmentCache.pinnedSize();
+		window.release();
+		window.release();
+		assertEquals( pinned - 8 * SEGMENT, SegmentCache.pinnedSize() );
+		window2.release();
+		assertEquals( pinned - 10 * SEGMENT, SegmentCache.pinnedSize() );
+	}
+
+	@Test(expectedExceptions = SwissephException.class)
+	public void missingFileTest() throws Exception {
+		SwissEph sw = new SwissEph(Files.createTempDirectory("ephemeris").toString());
+		double jd = SweDate.getJulDay(2000, 1, 1, 0);
+		sw.swe_preload(jd, jd + 365, new int[] {SweConst.SE_MOON});
+	}
+
+	@Test
+	public void partialFilesTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 100, new Random(23));
+
+		// The planet file is found, the moon file is missing.
+		SwissEph sw = engine();
+		file.open(sw.swed, SwephData.SEI_FILE_PLANET, false);
+
+		long pinned = SegmentCache.pinnedSize();
+		try {
+			sw.swe_preload(20, 40, new int[] {SweConst.SE_MOON});
+			fail();
+		} catch (SwissephException e) {
+			assertEquals( SwissephException.FILE_NOT_FOUND, e.getType() );
+			assertTrue( e.getMessage(), e.getMessage().contains("using Moshier eph.") );
+		}
+		assertEquals( pinned, SegmentCache.pinnedSize() );
+
+		// Both files are found.
+		file.open(sw.swed, IFNO, false);
+		EphemerisWindow window = sw.swe_preload(20, 40, new int[] {SweConst.SE_MOON});
+		assertEquals( 23, window.getSegmentCount() );
+		window.release();
+
+		// The mean node is not calculated from the files.
+		SwissEph sw2 = engine();
+		assertEquals( 0, sw2.swe_preload(20, 40, new int[] {SweConst.SE_MEAN_NODE}).getSegmentCount() );
+	}
+
+	@Test
+	public void filesOpenTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 100, new Random(24));
+		SwissEph sw = new SwissEph();
+		file.open(sw.swed, IFNO, false);
+
+		assertTrue( sw.preload_files_open(50, SweConst.SE_TRUE_NODE) );
+		assertFalse( sw.preload_files_open(150, SweConst.SE_TRUE_NODE) );
+		assertFalse( sw.preload_files_open(50, SweConst.SE_MOON) );
+		assertFalse( sw.preload_files_open(50, SweConst.SE_SUN) );
+		assertTrue( sw.preload_files_open(50, SweConst.SE_MEAN_APOG) );
+
+		file.open(sw.swed, SwephData.SEI_FILE_PLANET, false);
+		assertTrue( sw.preload_files_open(50, SweConst.SE_MOON) );
+		assertTrue( sw.preload_files_open(50, SweConst.SE_PLUTO) );
+		assertFalse( sw.preload_files_open(50, SweConst.SE_CHIRON) );
+		assertFalse( sw.preload_files_open(50, SweConst.SE_AST_OFFSET + 1) );
+		assertFalse( sw.preload_files_open(50, SweConst.SE_AST_OFFSET + 433) );
+
+		file.open(sw.swed, SwephData.SEI_FILE_MAIN_AST, false);
+		assertTrue( sw.preload_files_open(50, SweConst.SE_CHIRON) );
+		assertTrue( sw.preload_files_open(50, SweConst.SE_AST_OFFSET + 1) );
+	}
+
+	// An engine which calculates with the files opened by the test, as swe_calc()
+	// does after it has replaced a missing file by the Moshier ephemeris.
+	private SwissEph engine() {
+		return new SwissEph() {
+			@Override
+			public int swe_calc(double tjd, int ipl, int iflag, double[] xx, StringBuffer serr) {
+				if( swed.fidat[IFNO].fptr == null ) {
+					serr.append("\nusing Moshier eph. for moon; ");
+					return iflag & ~SweConst.SEFLG_SWIEPH | SweConst.SEFLG_MOSEPH;
+				}
+				return iflag;
+			}
+		};
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void invalidWindowTest() {
+		new SwissEph().swe_preload(2451545.0, 2451544.0, new int[] {SweConst.SE_SUN});
+	}
+}
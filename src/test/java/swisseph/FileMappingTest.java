@@ -0,0 +1,192 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class FileMappingTest {
+
+	final int FLAGS = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+
+	final String[] STARS = {
+			"# name, nomenclature, equinox, ra, dec, pm ra, pm dec, rad. vel., parallax, mag, dm zone, dm number",
+			"Aldebaran,alTau,ICRS,04,35,55.23907,+16,30,33.4885,63.45,-188.94,54.26,48.94,0.86,16,629",
+			"Regulus,alLeo,ICRS,10,08,22.3107,+11,58,01.945,-248.73,5.59,5.9,41.13,1.40,12,2149",
+			"Spica,alVir,ICRS,13,25,11.57937,-11,09,40.7501,-42.35,-30.67,1.0,13.06,0.97,-10,3672",
+	};
+
+	@Test
+	public void readTest() throws Exception {
+
+		File file = binaryFile();
+		FilePtr fptr = new FilePtr(new RandomAccessFile(file, "r"), null, null, null, file.getPath(), -1, 300);
+		FilePtr mapped = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+
+		assertEquals( fptr.length(), mapped.length() );
+
+		for(boolean bigendian : new boolean[] {true, false}) {
+			fptr.setBigendian(bigendian);
+			mapped.setBigendian(bigendian);
+			fptr.seek(0);
+			mapped.seek(0);
+
+			assertEquals( fptr.readInt(), mapped.readInt() );
+			assertEquals( fptr.readDouble(), mapped.readDouble(), 0 );
+			assertEquals( fptr.readShort(), mapped.readShort() );
+			assertEquals( fptr.readUnsignedByte(), mapped.readUnsignedByte() );
+			assertEquals( fptr.getFilePointer(), mapped.getFilePointer() );
+
+			// Unaligned reads.
+			fptr.seek(3);
+			mapped.seek(3);
+			assertEquals( fptr.readInt(), mapped.readInt() );
+			assertEquals( fptr.readDouble(), mapped.readDouble(), 0 );
+		}
+
+		fptr.close();
+		mapped.close();
+	}
+
+	@Test(expectedExceptions = EOFException.class)
+	public void endOfFileTest() throws Exception {
+
+		File file = binaryFile();
+		FilePtr mapped = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+		mapped.seek(file.length() - 2);
+		mapped.readInt();
+	}
+
+	@Test
+	public void fixstarTest() throws Exception {
+
+		String path = starFile().getParent();
+		SwissEph file = new SwissEph(path);
+		SwissEph mapped = new SwissEph(path);
+		mapped.setFileMapping(true);
+
+		double jd = SweDate.getJulDay(2018, 1, 1, 0);
+		StringBuffer serr = new StringBuffer();
+
+		for(String name : new String[] {"Regulus", "Aldebaran", ",alVir", "2"}) {
+			double[] xx1 = new double[6];
+			double[] xx2 = new double[6];
+			StringBuffer star1 = new StringBuffer(name);
+			StringBuffer star2 = new StringBuffer(name);
+
+			assertEquals( file.swe_fixstar_ut(star1, jd, FLAGS, xx1, serr), mapped.swe_fixstar_ut(star2, jd, FLAGS, xx2, serr) );
+			assertEquals( star1.toString(), star2.toString() );
+			assertArrayEquals( name, xx1, xx2, 0 );
+			assertTrue( xx2[0] != 0 );
+		}
+	}
+
+	@Test
+	public void sharedMappingTest() throws Exception {
+
+		File file = starFile();
+		FileMapping.map(file.getPath());
+		int mapped = FileMapping.size();
+
+		// Engines in other threads reuse the mapping of the same file.
+		double jd = SweDate.getJulDay(2018, 1, 1, 0);
+		final double[][] positions = new double[4][6];
+		Thread[] threads = new Thread[positions.length];
+		for(int i = 0; i < threads.length; i++) {
+			final int n = i;
+			threads[i] = new Thread(() -> {
+				SwissEph sw = new SwissEph(file.getParent());
+				sw.setFileMapping(true);
+				sw.swe_fixstar_ut(new StringBuffer("Regulus"), jd, FLAGS, positions[n], new StringBuffer());
+			});
+			threads[i].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals( mapped, FileMapping.size() );
+		for(double[] position : positions) {
+			assertArrayEquals( positions[0], position, 0 );
+		}
+		assertTrue( positions[0][0] != 0 );
+	}
+
+	@Test
+	public void changedFileTest() throws Exception {
+
+		File file = binaryFile();
+		FilePtr first = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+		first.seek(0);
+		assertEquals( 0x12345678, first.readInt() );
+
+		// The file replaced at the same path is mapped again.
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeInt(7);
+		}
+		FilePtr second = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+		assertEquals( 4, second.length() );
+		second.seek(0);
+		assertEquals( 7, second.readInt() );
+
+		first.close();
+		second.close();
+	}
+
+	@Test
+	public void releaseTest() throws Exception {
+
+		File file = binaryFile();
+		int mapped = FileMapping.size();
+
+		FilePtr first = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+		FilePtr second = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+		assertEquals( mapped + 1, FileMapping.size() );
+
+		// The mapping is released with the last file.
+		first.close();
+		assertEquals( mapped + 1, FileMapping.size() );
+		second.close();
+		assertEquals( mapped, FileMapping.size() );
+
+		// swe_close() closes the files of the engine.
+		SwissEph sw = new SwissEph(starFile().getParent());
+		sw.setFileMapping(true);
+		assertTrue( sw.swe_fixstar_ut(new StringBuffer("Regulus"), SweDate.getJulDay(2018, 1, 1, 0), FLAGS, new double[6], new StringBuffer()) > 0 );
+		assertEquals( mapped + 1, FileMapping.size() );
+		sw.swe_close();
+		assertEquals( mapped, FileMapping.size() );
+	}
+
+	@Test
+	public void switchTest() {
+		SwissEph sw = new SwissEph();
+		assertFalse( sw.isFileMapping() );
+		sw.setFileMapping(true);
+		assertTrue( sw.isFileMapping() );
+	}
+
+	private File binaryFile() throws Exception {
+		File file = new File(Files.createTempDirectory("mapping").toFile(), "data.bin");
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeInt(0x12345678);
+			out.writeDouble(Math.PI);
+			out.writeShort(-2);
+			out.writeByte(200);
+			out.writeDouble(-1e-300);
+		}
+		return file;
+	}
+
+	private File starFile() throws Exception {
+		File file = new File(Files.createTempDirectory("mapping").toFile(), SweConst.SE_STARFILE);
+		Files.write(file.toPath(), Arrays.asList(STARS));
+		return file;
+	}
+}
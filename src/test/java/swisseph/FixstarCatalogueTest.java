@@ -0,0 +1,210 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class FixstarCatalogueTest {
+
+	final int FLAGS = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_SPEED;
+
+	final String[] STARS = {
+			"# name, nomenclature, equinox, ra, dec, pm ra, pm dec, rad. vel., parallax, mag, dm zone, dm number",
+			"Aldebaran,alTau,ICRS,04,35,55.23907,+16,30,33.4885,63.45,-188.94,54.26,48.94,0.86,16,629",
+			"Regulus,alLeo,ICRS,10,08,22.3107,+11,58,01.945,-248.73,5.59,5.9,41.13,1.40,12,2149",
+			"#",
+			"Algol,bePer,ICRS,03,08,10.13245,+40,57,20.3280,2.99,-1.66,4.0,35.14,2.12,40,673",
+			"Alcyone,eta Tau,ICRS,03,47,29.07655,+24,06,18.4883,19.34,-43.67,5.4,8.09,2.87,23,541",
+			"Regulus B,alLeoB,ICRS,10,08,12.8,+11,59,48,-249.03,6.68,3.9,41.13,8.14,12,2149",
+			"Spica,alVir,ICRS,13,25,11.57937,-11,09,40.7501,-42.35,-30.67,1.0,13.06,0.97,-10,3672",
+	};
+
+	@Test
+	public void nameTest() throws Exception {
+
+		FixstarCatalogue cat = catalogue(STARS);
+
+		assertEquals( 6, cat.size() );
+		assertStar( "Regulus,", cat, cat.find("regulus", false) );
+		assertStar( "Regulus B,", cat, cat.find("regulus b", false) );
+		assertStar( "Algol,", cat, cat.find("algol", false) );
+		assertEquals( FixstarCatalogue.NOT_FOUND, cat.find("vega", false) );
+
+		// Abbreviations find the first star in the file.
+		assertStar( "Aldebaran,", cat, cat.find("al", false) );
+		assertStar( "Algol,", cat, cat.find("alg", false) );
+		assertStar( "Alcyone,", cat, cat.find("alc", false) );
+		assertStar( "Regulus,", cat, cat.find("reg", false) );
+		assertEquals( FixstarCatalogue.NOT_FOUND, cat.find("aldebarann", false) );
+	}
+
+	@Test
+	public void nomenclatureTest() throws Exception {
+
+		FixstarCatalogue cat = catalogue(STARS);
+
+		assertStar( "Spica,", cat, cat.find(",alVir", true) );
+		assertStar( "Regulus,", cat, cat.find(",alLeo", true) );
+		assertStar( "Regulus B,", cat, cat.find(",alLeoB", true) );
+		assertStar( "Alcyone,", cat, cat.find(",eta", true) );
+		assertStar( "Algol,", cat, cat.find(",bePer,ICRS", true) );
+		assertEquals( FixstarCatalogue.NOT_FOUND, cat.find(",alvir", true) );
+		assertEquals( FixstarCatalogue.NOT_FOUND, cat.find(",alVir,B1950", true) );
+	}
+
+	@Test
+	public void numberTest() throws Exception {
+
+		FixstarCatalogue cat = catalogue(STARS);
+
+		// Comment lines are not counted, but they count for the line in the file.
+		assertStar( "Aldebaran,", cat, cat.number(1) );
+		assertStar( "Algol,", cat, cat.number(3) );
+		assertEquals( 5, cat.getFileLine(cat.number(3)) );
+		assertStar( "Spica,", cat, cat.number(6) );
+		assertEquals( FixstarCatalogue.NOT_FOUND, cat.number(7) );
+		assertEquals( FixstarCatalogue.NOT_FOUND, cat.number(0) );
+	}
+
+	@Test
+	public void damagedTest() throws Exception {
+
+		String[] stars = STARS.clone();
+		stars[4] = "Algol";
+		FixstarCatalogue cat = catalogue(stars);
+
+		assertEquals( 5, cat.getDamagedFileLine() );
+		assertStar( "Regulus,", cat, cat.find("regulus", false) );
+		assertEquals( FixstarCatalogue.DAMAGED, cat.find("spica", false) );
+		assertEquals( FixstarCatalogue.DAMAGED, cat.find(",alVir", true) );
+		assertEquals( FixstarCatalogue.DAMAGED, cat.find("vega", false) );
+		assertStar( "Spica,", cat, cat.number(6) );
+	}
+
+	@Test
+	public void sharedTest() throws Exception {
+
+		File file = starFile(STARS);
+		FilePtr fptr = new FilePtr(new RandomAccessFile(file, "r"), null, null, null, file.getPath(), -1, 300);
+		FilePtr mapped = new FilePtr(FileMapping.map(file.getPath()), file.getPath());
+
+		assertSame( FixstarCatalogue.get(fptr), FixstarCatalogue.get(mapped) );
+
+		fptr.close();
+		mapped.close();
+	}
+
+	@Test
+	public void fixstarTest() throws Exception {
+
+		String path = starFile(STARS).getParent();
+		double jd = SweDate.getJulDay(2018, 1, 1, 0);
+
+		String[][] names = {
+				{"Regulus", "Regulus,alLeo"},
+				{"reg", "Regulus,alLeo"},
+				{"Regulus B", "Regulus B,alLeoB"},
+				{",alVir", "Spica,alVir"},
+				{"3", "Algol,bePer"},
+		};
+		for(String[] name : names) {
+			SwissEph sw = new SwissEph(path);
+			StringBuffer star = new StringBuffer(name[0]);
+			StringBuffer serr = new StringBuffer();
+			double[] xx = new double[6];
+
+			assertTrue( sw.swe_fixstar_ut(star, jd, FLAGS, xx, serr) > 0 );
+			assertEquals( name[1], star.toString() );
+			assertTrue( xx[0] != 0 );
+
+			StringBuffer magstar = new StringBuffer(name[0]);
+			double[] mag = new double[1];
+			assertEquals( SweConst.OK, sw.swe_fixstar_mag(magstar, mag, serr) );
+			assertEquals( name[1], magstar.toString() );
+		}
+
+		SwissEph sw = new SwissEph(path);
+		StringBuffer serr = new StringBuffer();
+		assertEquals( SweConst.ERR, sw.swe_fixstar_ut(new StringBuffer("Vega"), jd, FLAGS, new double[6], serr) );
+		assertEquals( "star Vega not found", serr.toString() );
+	}
+
+	@Test
+	public void changedFileTest() throws Exception {
+
+		File file = starFile(STARS);
+		FixstarCatalogue cat = catalogue(file);
+		assertSame( cat, catalogue(file) );
+
+		// The file replaced at the same path is read again.
+		Files.write(file.toPath(), Arrays.asList(STARS[0], STARS[1]));
+		FixstarCatalogue changed = catalogue(file);
+		assertNotSame( cat, changed );
+		assertEquals( 1, changed.size() );
+		assertSame( changed, catalogue(file) );
+	}
+
+	@Test
+	public void engineTest() throws Exception {
+
+		String path = starFile(STARS).getParent();
+		SwissEph sw = new SwissEph(path);
+		StringBuffer serr = new StringBuffer();
+		double jd = SweDate.getJulDay(2018, 1, 1, 0);
+
+		assertNull( sw.swed.fixcat );
+		assertTrue( sw.swe_fixstar_ut(new StringBuffer("Regulus"), jd, FLAGS, new double[6], serr) > 0 );
+		FixstarCatalogue cat = sw.swed.fixcat;
+		assertNotNull( cat );
+
+		// Further lookups keep the index of the open file.
+		assertTrue( sw.swe_fixstar_ut(new StringBuffer("Spica"), jd, FLAGS, new double[6], serr) > 0 );
+		assertEquals( SweConst.OK, sw.swe_fixstar_mag(new StringBuffer("Algol"), new double[1], serr) );
+		assertSame( cat, sw.swed.fixcat );
+
+		sw.swe_close();
+		assertNull( sw.swed.fixcat );
+	}
+
+	@Test(expectedExceptions = SwissephException.class)
+	public void damagedFileTest() throws Exception {
+
+		String[] stars = STARS.clone();
+		stars[4] = "Algol";
+		String path = starFile(stars).getParent();
+
+		SwissEph sw = new SwissEph(path);
+		StringBuffer serr = new StringBuffer();
+		double jd = SweDate.getJulDay(2018, 1, 1, 0);
+		assertEquals( SweConst.ERR, sw.swe_fixstar_ut(new StringBuffer("Spica"), jd, FLAGS, new double[6], serr) );
+		assertEquals( "star file " + SweConst.SE_STARFILE + " damaged at line 5", serr.toString() );
+
+		sw.swe_fixstar_mag(new StringBuffer("Spica"), new double[1], serr);
+	}
+
+	private void assertStar(String name, FixstarCatalogue cat, int idx) {
+		assertTrue( idx >= 0 );
+		assertTrue( cat.getLine(idx), cat.getLine(idx).startsWith(name) );
+	}
+
+	private FixstarCatalogue catalogue(String[] stars) throws Exception {
+		return catalogue(starFile(stars));
+	}
+
+	private FixstarCatalogue catalogue(File file) throws Exception {
+		FilePtr fptr = new FilePtr(new RandomAccessFile(file, "r"), null, null, null, file.getPath(), -1, 300);
+		FixstarCatalogue cat = FixstarCatalogue.get(fptr);
+		fptr.close();
+		return cat;
+	}
+
+	private File starFile(String[] stars) throws Exception {
+		File file = new File(Files.createTempDirectory("fixstars").toFile(), SweConst.SE_STARFILE);
+		Files.write(file.toPath(), Arrays.asList(stars));
+		return file;
+	}
+}
@@ -0,0 +1,150 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class SegmentCacheTest {
+
+	final int IPLI = SegmentFile.IPLI;
+	final int IFNO = SegmentFile.IFNO;
+
+	@Test
+	public void sharedTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 50, new Random(5));
+		StringBuffer serr = new StringBuffer();
+
+		SwissEph sw1 = new SwissEph();
+		file.open(sw1.swed, false);
+		for(int iseg = 0; iseg < 50; iseg++) {
+			assertEquals( SweConst.OK, sw1.get_segment(iseg + 0.5, IPLI, IFNO, serr) );
+			assertArrayEquals( file.coefficients[iseg], sw1.swed.pldat[IPLI].segp, 0 );
+		}
+
+		// The second engine has no open file, every segment comes from the cache.
+		SwissEph sw2 = new SwissEph();
+		file.open(sw2.swed, false);
+		sw2.swed.fidat[IFNO].fptr = null;
+		long misses = SegmentCache.getMisses();
+
+		for(int iseg = 49; iseg >= 0; iseg--) {
+			assertEquals( SweConst.OK, sw2.get_segment(iseg + 0.5, IPLI, IFNO, serr) );
+			assertArrayEquals( file.coefficients[iseg], sw2.swed.pldat[IPLI].segp, 0 );
+			assertEquals( iseg, sw2.swed.pldat[IPLI].tseg0, 0 );
+			assertEquals( iseg + 1, sw2.swed.pldat[IPLI].tseg1, 0 );
+			assertEquals( SegmentFile.NCOE, sw2.swed.pldat[IPLI].neval );
+		}
+		assertEquals( misses, SegmentCache.getMisses() );
+
+		// Reading a segment again does not overwrite the cached coefficients.
+		double[] cached = sw2.swed.pldat[IPLI].segp;
+		SegmentCache.clear();
+		sw1.get_segment(10.5, IPLI, IFNO, serr);
+		assertArrayEquals( file.coefficients[0], cached, 0 );
+	}
+
+	@Test
+	public void evictionTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 100, new Random(6));
+		StringBuffer serr = new StringBuffer();
+		long segment = 96 + 8 * 3 * SegmentFile.NCOE;
+
+		SwissEph sw = new SwissEph();
+		file.open(sw.swed, false);
+
+		long size = SwissEph.getSegmentCacheSize();
+		try {
+			SegmentCache.clear();
+			SwissEph.setSegmentCacheSize(20 * segment);
+
+			for(int iseg = 0; iseg < 100; iseg++) {
+				sw.get_segment(iseg + 0.5, IPLI, IFNO, serr);
+				sw.get_segment(0.5, IPLI, IFNO, serr); // the first one stays recently used
+				assertTrue( SegmentCache.size() <= 20 * segment );
+			}
+
+			// The first and the last segments are cached, the old ones are evicted.
+			sw.swed.fidat[IFNO].fptr = null;
+			sw.get_segment(0.5, IPLI, IFNO, serr);
+			sw.get_segment(99.5, IPLI, IFNO, serr);
+			assertArrayEquals( file.coefficients[99], sw.swed.pldat[IPLI].segp, 0 );
+			assertTrue( SegmentCache.count() > 10 );
+
+			long misses = SegmentCache.getMisses();
+			try {
+				sw.get_segment(50.5, IPLI, IFNO, serr);
+				fail();
+			} catch (SwissephException e) {
+				assertEquals( misses + 1, SegmentCache.getMisses() );
+			}
+
+		} finally {
+			SwissEph.setSegmentCacheSize(size);
+		}
+	}
+
+	@Test
+	public void concurrentPinTest() throws Exception {
+		final int keys = 20000;
+		final long segment = 96 + 8 * 3;
+
+		long size = SwissEph.getSegmentCacheSize();
+		try {
+			SwissEph.setSegmentCacheSize(1L << 40);
+			long before = SegmentCache.size();
+			long pinned = SegmentCache.pinnedSize();
+
+			// Threads putting, pinning and unpinning the same segments at the same time.
+			Thread[] threads = new Thread[4];
+			for(int i = 0; i < threads.length; i++) {
+				final boolean pinning = i % 2 == 0;
+				threads[i] = new Thread(() -> {
+					for(int iseg = 0; iseg < keys; iseg++) {
+						SegmentCache.Key key = new SegmentCache.Key("concurrent", IPLI, iseg, 0);
+						SegmentCache.Segment seg = new SegmentCache.Segment(iseg, iseg + 1, new double[3], 1);
+						if( pinning ) {
+							SegmentCache.pin(key, seg);
+							SegmentCache.unpin(key);
+						} else {
+							SegmentCache.put("concurrent", IPLI, iseg, 0, seg);
+						}
+					}
+				});
+				threads[i].start();
+			}
+			for(Thread thread : threads) {
+				thread.join();
+			}
+
+			// Every segment is counted once after the last unpin.
+			assertEquals( pinned, SegmentCache.pinnedSize() );
+			assertEquals( before + keys * segment, SegmentCache.size() );
+
+		} finally {
+			SwissEph.setSegmentCacheSize(size);
+		}
+	}
+
+	@Test
+	public void disabledTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 10, new Random(8));
+		SwissEph sw = new SwissEph();
+		file.open(sw.swed, true);
+
+		long size = SwissEph.getSegmentCacheSize();
+		try {
+			SwissEph.setSegmentCacheSize(0);
+			assertEquals( 0, SegmentCache.size() );
+
+			for(int iseg = 0; iseg < 10; iseg++) {
+				sw.get_segment(iseg + 0.5, IPLI, IFNO, new StringBuffer());
+				assertArrayEquals( file.coefficients[iseg], sw.swed.pldat[IPLI].segp, 0 );
+			}
+			assertEquals( 0, SegmentCache.count() );
+
+		} finally {
+			SwissEph.setSegmentCacheSize(size);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+import java.io.EOFException;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class SegmentDecodeTest {
+
+	final int IPLI = SegmentFile.IPLI;
+	final int IFNO = SegmentFile.IFNO;
+
+	@Test
+	public void bigEndianTest() throws Exception {
+		decodeTest(0, false);
+		decodeTest(0, true);
+	}
+
+	@Test
+	public void reorderedTest() throws Exception {
+		decodeTest(SwephData.SEI_FILE_REORD, false);
+		decodeTest(SwephData.SEI_FILE_REORD, true);
+	}
+
+	@Test(expectedExceptions = SwissephException.class)
+	public void truncatedTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 2, new Random(7));
+		byte[] data = Files.readAllBytes(file.file.toPath());
+		Files.write(file.file.toPath(), java.util.Arrays.copyOf(data, data.length - 3));
+
+		SwissData swed = file.open(false);
+		swed.fidat[IFNO].get_new_segment(swed, 1.5, IPLI, IFNO, new StringBuffer());
+	}
+
+	@Test
+	public void benchmarkTest() throws Exception {
+		final int segments = 2000;
+		final int rounds = 10;
+
+		SegmentFile file = new SegmentFile(0, segments, new Random(11));
+
+		for(boolean mapping : new boolean[] {false, true}) {
+			SwissData swed = file.open(mapping);
+			FileData fdp = swed.fidat[IFNO];
+			StringBuffer serr = new StringBuffer();
+
+			for(int iseg = 0; iseg < segments; iseg++) { // warm up
+				fdp.get_new_segment(swed, iseg + 0.5, IPLI, IFNO, serr);
+			}
+
+			// The Moon walks across all segments of the file, every step loads a new one.
+			long time = System.nanoTime();
+			for(int round = 0; round < rounds; round++) {
+				for(int iseg = 0; iseg < segments; iseg++) {
+					fdp.get_new_segment(swed, iseg + 0.5, IPLI, IFNO, serr);
+				}
+			}
+			time = System.nanoTime() - time;
+
+			System.out.println("Segment load benchmark, " + (mapping ? "mapped" : "RandomAccessFile") + ": " +
+					time / (segments * rounds) + " ns per segment");
+			assertArrayEquals( file.coefficients[segments - 1], swed.pldat[IPLI].segp, 0 );
+		}
+	}
+
+	@Test(expectedExceptions = EOFException.class)
+	public void readFullyTest() throws Exception {
+		SegmentFile file = new SegmentFile(0, 1, new Random(3));
+		FilePtr fptr = new FilePtr(FileMapping.map(file.file.getPath()), file.file.getPath());
+		byte[] b = new byte[100];
+
+		assertEquals( file.positions[1] - 1, fptr.readFully(1, b, b.length) );
+		assertEquals( file.positions[1], fptr.getFilePointer() );
+		fptr.readFully(file.positions[1], b, b.length);
+	}
+
+	private void decodeTest(int freord, boolean mapping) throws Exception {
+		SegmentFile file = new SegmentFile(freord, 200, new Random(freord + 1));
+		SwissData swed = file.open(mapping);
+		StringBuffer serr = new StringBuffer();
+
+		// Backwards, so no segment is read in the order of the file.
+		for(int iseg = file.coefficients.length - 1; iseg >= 0; iseg--) {
+			assertEquals( SweConst.OK, swed.fidat[IFNO].get_new_segment(swed, iseg + 0.5, IPLI, IFNO, serr) );
+			assertArrayEquals( "Segment " + iseg, file.coefficients[iseg], swed.pldat[IPLI].segp, 0 );
+			assertEquals( iseg, swed.pldat[IPLI].tseg0, 0 );
+		}
+	}
+}
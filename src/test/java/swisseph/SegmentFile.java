@@ -0,0 +1,142 @@
+package swisseph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Index and packed Chebyshev coefficients of random segments in the format of the Swiss Ephemeris files.
+ * Segment i covers the days i .. i+1.
+ */
+class SegmentFile {
+
+	static final int IPLI = SwephData.SEI_MOON;
+	static final int IFNO = SwephData.SEI_FILE_MOON;
+	static final int NCOE = 15;
+	static final double RMAX = 0.0027;
+
+	final File file;
+	final int freord;
+	final int[] positions;
+	final double[][] coefficients;
+
+	SegmentFile(int freord, int segments, Random random) throws Exception {
+		this.freord = freord;
+		this.positions = new int[segments + 1];
+		this.coefficients = new double[segments][];
+
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		int pos = segments * 3;
+		for(int iseg = 0; iseg < segments; iseg++) {
+			positions[iseg] = pos + data.size();
+			coefficients[iseg] = new double[3 * NCOE];
+			for(int icoord = 0; icoord < 3; icoord++) {
+				writeCoordinate(data, coefficients[iseg], icoord * NCOE, random);
+			}
+		}
+		positions[segments] = pos + data.size();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for(int iseg = 0; iseg < segments; iseg++) {
+			write(out, positions[iseg], 3);
+		}
+		data.writeTo(out);
+
+		file = new File(Files.createTempDirectory("segments").toFile(), "semo_00.se1");
+		Files.write(file.toPath(), out.toByteArray());
+	}
+
+	SwissData open(boolean mapping) throws Exception {
+		SwissData swed = new SwissData();
+		open(swed, mapping);
+		return swed;
+	}
+
+	void open(SwissData swed, boolean mapping) throws Exception {
+		open(swed, IFNO, mapping);
+	}
+
+	// The segments of the moon in the slot of another file.
+	void open(SwissData swed, int ifno, boolean mapping) throws Exception {
+		PlanData pdp = swed.pldat[IPLI];
+		pdp.ncoe = NCOE;
+		pdp.lndx0 = 0;
+		pdp.tfstart = 0;
+		pdp.dseg = 1;
+		pdp.rmax = RMAX;
+		pdp.tfend = coefficients.length;
+
+		FileData fdp = swed.fidat[ifno];
+		fdp.fnam = file.getPath();
+		fdp.iflg = freord;
+		fdp.tfstart = 0;
+		fdp.tfend = coefficients.length;
+		fdp.npl = 1;
+		fdp.ipl[0] = IPLI;
+		fdp.fptr = mapping
+				? new FilePtr(FileMapping.map(file.getPath()), file.getPath())
+				: new FilePtr(new RandomAccessFile(file, "r"), null, null, null, file.getPath(), -1, 300);
+	}
+
+	private void writeCoordinate(ByteArrayOutputStream out, double[] segp, int idbl, Random random) {
+		// Coefficients packed in 4, 3, 2, 1 bytes, half bytes and quarter bytes.
+		int[] nsize = new int[6];
+		int free = NCOE;
+		for(int i = 0; i < 6 && free > 0; i++) {
+			nsize[i] = Math.min(random.nextInt(i == 0 ? 4 : 5), free);
+			free -= nsize[i];
+		}
+
+		if( nsize[4] + nsize[5] > 0 ) {
+			out.write(128);
+			out.write(nsize[0] * 16 + nsize[1]);
+			out.write(nsize[2] * 16 + nsize[3]);
+			out.write(nsize[4] * 16 + nsize[5]);
+		} else {
+			out.write(nsize[0] * 16 + nsize[1]);
+			out.write(nsize[2] * 16 + nsize[3]);
+		}
+
+		for(int i = 0; i < 4; i++) {
+			int bytes = 4 - i;
+			long max = bytes == 4 ? Integer.MAX_VALUE / 2 : (1L << (8 * bytes - 1)) - 1;
+			for(int n = 0; n < nsize[i]; n++) {
+				long a = 1 + (long)(random.nextDouble() * (max - 1));
+				boolean negative = random.nextBoolean();
+				write(out, negative ? 2 * a - 1 : 2 * a, bytes);
+				segp[idbl++] = negative ? -(a / 1e+9 * RMAX / 2) : a / 1e+9 * RMAX / 2;
+			}
+		}
+
+		idbl = writeFractions(out, segp, idbl, nsize[4], 4, random);
+		writeFractions(out, segp, idbl, nsize[5], 2, random);
+	}
+
+	// Half bytes or quarter bytes, the high bits first.
+	private int writeFractions(ByteArrayOutputStream out, double[] segp, int idbl, int count, int bits, Random random) {
+		int perByte = 8 / bits;
+		for(int n = 0; n < count; n += perByte) {
+			int b = 0;
+			for(int k = 0; k < perByte; k++) {
+				int x = n + k < count ? random.nextInt(1 << bits) : 0;
+				b = (b << bits) | x;
+				if( n + k < count ) {
+					long a = (x + 1) / 2;
+					segp[idbl++] = x % 2 == 1 ? -(a * RMAX / 2 / 1e+9) : a * RMAX / 2 / 1e+9;
+				}
+			}
+			out.write(b);
+		}
+		return idbl;
+	}
+
+	// Big endian, or little endian in a reordered file.
+	private void write(ByteArrayOutputStream out, long value, int bytes) {
+		for(int i = 0; i < bytes; i++) {
+			int shift = freord == 0 ? 8 * (bytes - 1 - i) : 8 * i;
+			out.write((int)(value >>> shift) & 0xff);
+		}
+	}
+}
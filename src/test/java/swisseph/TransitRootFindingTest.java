@@ -0,0 +1,88 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+public class TransitRootFindingTest {
+
+	final String PATH_TO_EPHEMERIS = "/data/ephemeris";
+	final int FLAGS = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE;
+	final double START = SweDate.getJulDay(2018, 1, 1, 0, SweDate.SE_GREG_CAL);
+
+	// planet, offset
+	final double[][] BENCHMARK = {
+			{SweConst.SE_SUN, 280.0},
+			{SweConst.SE_MOON, 10.0},
+			{SweConst.SE_MERCURY, 300.0},
+			{SweConst.SE_VENUS, 45.5},
+			{SweConst.SE_MARS, 290.0},
+			{SweConst.SE_JUPITER, 350.0},
+			{SweConst.SE_SATURN, 1.0},
+			{SweConst.SE_URANUS, 100.0},
+			{SweConst.SE_NEPTUNE, 20.0},
+			{SweConst.SE_PLUTO, 200.0},
+			{SweConst.SE_MEAN_NODE, 90.0},
+			{SweConst.SE_TRUE_NODE, 10.0},
+	};
+
+	@Test
+	public void benchmarkTest() {
+
+		SwissEph sw = new SwissEph(PATH_TO_EPHEMERIS);
+		int stepperIterations = 0;
+		int rootIterations = 0;
+
+		for(double[] transit : BENCHMARK) {
+			for(boolean back : new boolean[] {false, true}) {
+				TCPlanet stepper = new TCPlanet(sw, (int)transit[0], FLAGS, transit[1]);
+				double expected = sw.getTransitET(stepper, START, back, back ? -Double.MAX_VALUE : Double.MAX_VALUE);
+				stepperIterations += stepper.getIterationCount();
+
+				TCPlanet root = new TCPlanet(sw, (int)transit[0], FLAGS, transit[1]);
+				root.setRootFinding(true);
+				double jd = sw.getTransitET(root, START, back, back ? -Double.MAX_VALUE : Double.MAX_VALUE);
+				rootIterations += root.getIterationCount();
+
+				assertEquals( "Planet " + transit[0] + (back ? " backwards" : ""), expected, jd, 1.0 / 24 / 60 ); // one minute
+				assertTrue( root.getIterationCount() > 0 );
+			}
+		}
+
+		System.out.println("Transit benchmark, calculations: stepper " + stepperIterations + ", root finding " + rootIterations);
+		assertTrue( rootIterations < stepperIterations );
+	}
+
+	@Test
+	public void retrogradeLoopTest() {
+
+		SwissEph sw = new SwissEph(PATH_TO_EPHEMERIS);
+
+		// Every crossing of the point by Mercury in two years, retrograde loops included.
+		for(double offset = 0; offset < 360; offset += 37) {
+			TCPlanet stepper = new TCPlanet(sw, SweConst.SE_MERCURY, FLAGS, offset);
+			TCPlanet root = new TCPlanet(sw, SweConst.SE_MERCURY, FLAGS, offset);
+			root.setRootFinding(true);
+
+			double jd1 = START;
+			double jd2 = START;
+			while( jd1 < START + 730 ) {
+				jd1 = sw.getTransitET(stepper, jd1 + 0.01, false, Double.MAX_VALUE);
+				jd2 = sw.getTransitET(root, jd2 + 0.01, false, Double.MAX_VALUE);
+				assertEquals( jd1, jd2, 1.0 / 24 / 60 );
+			}
+		}
+	}
+
+	@Test(expectedExceptions = SwissephException.class)
+	public void limitTest() {
+		SwissEph sw = new SwissEph(PATH_TO_EPHEMERIS);
+		TCPlanet root = new TCPlanet(sw, SweConst.SE_SATURN, FLAGS, 0.0);
+		root.setRootFinding(true);
+		sw.getTransitET(root, START, false, START + 100);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void latitudeTest() {
+		new TCPlanet(new SwissEph(PATH_TO_EPHEMERIS), SweConst.SE_SATURN, SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LATITUDE, 0.0).setRootFinding(true);
+	}
+}
@@ -0,0 +1,68 @@
+package swisseph;
+
+import org.testng.annotations.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class TransitSpeedsFileTest {
+
+	final int FLAGS = SweConst.SEFLG_SWIEPH | SweConst.SEFLG_TRANSIT_LONGITUDE;
+
+	@Test
+	public void writeAndReadTest() throws Exception {
+
+		File dir = Files.createTempDirectory("speeds").toFile();
+		File file = new File(dir, "transit.speeds");
+
+		SwissEph sw = new SwissEph();
+		sw.setTransitSpeedsfile(file.getPath(), true);
+
+		// Cupido has no saved extreme speeds, they are sampled and written to the file.
+		new TCPlanet(sw, SweConst.SE_CUPIDO, FLAGS, 0.0);
+		assertTrue( file.exists() );
+
+		double[] speeds = sw.getTransitSpeeds(SweConst.SE_CUPIDO, SweConst.SEFLG_SWIEPH, 0);
+		assertNotNull( speeds );
+		assertTrue( speeds[0] < speeds[1] );
+
+		// A copy of the file is read from the disk. Without the file no speed could be sampled by zero calculations.
+		File copy = new File(dir, "copy.speeds");
+		Files.copy(file.toPath(), copy.toPath());
+
+		SwissEph sw2 = new SwissEph();
+		sw2.setTransitSpeedsfile(copy.getPath(), false);
+		TCPlanet tc = new TCPlanet(sw2, SweConst.SE_CUPIDO, FLAGS, 0.0, 0, 1.4);
+
+		assertEquals( speeds[0], tc.getMinSpeed(), 0 );
+		assertEquals( speeds[1], tc.getMaxSpeed(), 0 );
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void withoutFileTest() {
+		new TCPlanet(new SwissEph(), SweConst.SE_CUPIDO, FLAGS, 0.0, 0, 1.4);
+	}
+
+	@Test
+	public void widenTest() throws Exception {
+
+		File file = new File(Files.createTempDirectory("speeds").toFile(), "transit.speeds");
+		TransitSpeedsFile tsf = TransitSpeedsFile.open(file.getPath(), true);
+
+		tsf.put(SweConst.SE_CUPIDO, SweConst.SEFLG_TOPOCTR, 0, -0.1, 0.2);
+		tsf.put(SweConst.SE_CUPIDO, SweConst.SEFLG_TOPOCTR, 0, -0.05, 0.3);
+		tsf.put(SweConst.SE_CUPIDO, SweConst.SEFLG_SWIEPH, 0, -0.01, 0.01);
+
+		assertEquals( 2, tsf.size() );
+		assertArrayEquals( new double[] {-0.1, 0.3}, tsf.get(SweConst.SE_CUPIDO, SweConst.SEFLG_TOPOCTR, 0), 0 );
+		assertNull( tsf.get(SweConst.SE_CUPIDO, SweConst.SEFLG_TOPOCTR, 1) );
+		assertEquals( 12 + 2 * (12 + 16), file.length() );
+	}
+
+	@Test(expectedExceptions = SwissephException.class)
+	public void notFoundTest() throws Exception {
+		File file = new File(Files.createTempDirectory("speeds").toFile(), "missing.speeds");
+		new SwissEph().setTransitSpeedsfile(file.getPath(), false);
+	}
+}